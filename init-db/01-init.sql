@@ -33,6 +33,7 @@
 \cf2     route_id VARCHAR(50),\cf4 \
 \cf2     start_time TIMESTAMP,\cf4 \
 \cf2     end_time TIMESTAMP,\cf4 \
+\cf2     boarding_stop_seq INTEGER,\cf4 \
 \cf2     current_stop_id INTEGER,\cf4 \
 \cf2     total_stops INTEGER,\cf4 \
 \cf2     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP\cf4 \
@@ -50,7 +51,42 @@
 \cf2     error_message TEXT,\cf4 \
 \cf2     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,\cf4 \
 \cf2     sent_at TIMESTAMP,\cf4 \
+\cf2     claimed_at TIMESTAMP,\cf4 \
+\cf2     scheduled_at TIMESTAMP,\cf4 \
 \cf2     UNIQUE(user_id, trip_id, notification_type)\cf4 \
 \cf2 );\cf4 \
 \
-\cf2 CREATE INDEX idx_push_requests_status ON push_requests(status);}
\ No newline at end of file
+\cf2 CREATE INDEX idx_push_requests_status ON push_requests(status);\cf4 \
+\cf2 CREATE INDEX idx_push_requests_pending ON push_requests(created_at) WHERE status = 'pending';\cf4 \
+\cf2 CREATE INDEX idx_push_requests_scheduled ON push_requests(scheduled_at, id) WHERE status = 'scheduled';\cf4 \
+\
+\cf2 -- push_audit: \uc0\u54392 \u49884  \u51204 \u49569  \u44048 \u49324  \u44592 \u47197  (\u52628 \u44032 \u47564  \u54616 \u45716  \u53580 \u51060 \u48660 )\cf4 \
+\cf2 CREATE TABLE IF NOT EXISTS push_audit (\cf4 \
+\cf2     id BIGSERIAL PRIMARY KEY,\cf4 \
+\cf2     batch_id UUID,\cf4 \
+\cf2     method VARCHAR(20) NOT NULL,\cf4 \
+\cf2     target TEXT,\cf4 \
+\cf2     status VARCHAR(10) NOT NULL,\cf4 \
+\cf2     message_id TEXT,\cf4 \
+\cf2     error_code VARCHAR(50),\cf4 \
+\cf2     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP\cf4 \
+\cf2 );\cf4 \
+\
+\cf2 CREATE INDEX idx_push_audit_created_at ON push_audit USING BRIN(created_at);\cf4 \
+\cf2 CREATE INDEX idx_push_audit_batch ON push_audit(batch_id);\cf4 \
+\
+\cf2 -- route_stops: \uc0\u45432 \u49440 \u48324  \u51221 \u47448 \u51109  \u50948 \u52824  (GIST \u51064 \u45937 \u49828 )\cf4 \
+\cf2 CREATE TABLE IF NOT EXISTS route_stops (\cf4 \
+\cf2     id BIGSERIAL PRIMARY KEY,\cf4 \
+\cf2     route_id VARCHAR(50) NOT NULL,\cf4 \
+\cf2     stop_sequence INTEGER NOT NULL,\cf4 \
+\cf2     stop_name VARCHAR(255),\cf4 \
+\cf2     location GEOMETRY(Point, 4326) NOT NULL,\cf4 \
+\cf2     active BOOLEAN NOT NULL DEFAULT true,\cf4 \
+\cf2     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,\cf4 \
+\cf2     UNIQUE(route_id, stop_sequence)\cf4 \
+\cf2 );\cf4 \
+\
+\cf2 CREATE INDEX idx_route_stops_location ON route_stops USING GIST(location);\cf4 \
+\cf2 CREATE INDEX idx_route_stops_location_geog ON route_stops USING GIST((location::geography));\cf4 \
+\cf2 CREATE INDEX idx_route_stops_updated_at ON route_stops(updated_at);}
\ No newline at end of file
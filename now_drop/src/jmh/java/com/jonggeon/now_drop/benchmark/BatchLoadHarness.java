@@ -0,0 +1,175 @@
+package com.jonggeon.now_drop.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.controller.FCMController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * /api/fcm/batch 부하 생성기
+ *
+ * 로컬 FCM 백엔드(fcm.backend=local)로 실행 중인 서버에 동시 요청을 보내고
+ * 지속 처리량(메시지/초)과 요청 지연 시간 분포(p50~p99.9)를 출력합니다.
+ *
+ * 실행: ./gradlew bootRun --args='--fcm.backend=local' 후 ./gradlew loadTest
+ * 옵션(시스템 프로퍼티): load.url, load.concurrency, load.tokens-per-request,
+ *                      load.warmup-seconds, load.duration-seconds
+ */
+public final class BatchLoadHarness {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BatchLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(System.getProperty("load.url", "http://localhost:8080/api/fcm/batch"));
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        int tokensPerRequest = Integer.getInteger("load.tokens-per-request", 500);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("Load: %s, %d concurrent requests x %d tokens, warmup %ds, measure %ds%n",
+                uri, concurrency, tokensPerRequest, warmup.toSeconds(), duration.toSeconds());
+
+        run(client, uri, concurrency, tokensPerRequest, warmup);
+        Stats stats = run(client, uri, concurrency, tokensPerRequest, duration);
+        stats.print(duration);
+    }
+
+    private static Stats run(HttpClient client, URI uri, int concurrency, int tokensPerRequest,
+                             Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Stats>> workers = new ArrayList<>(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                byte[] body = requestBody(w, tokensPerRequest);
+                workers.add(executor.submit(() -> worker(client, uri, body, deadline)));
+            }
+
+            Stats total = new Stats();
+            for (Future<Stats> worker : workers) {
+                total.merge(worker.get());
+            }
+            return total;
+        }
+    }
+
+    private static Stats worker(HttpClient client, URI uri, byte[] body, long deadline) {
+        Stats stats = new Stats();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        while (System.nanoTime() < deadline) {
+            long startedAt = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                long elapsed = System.nanoTime() - startedAt;
+
+                if (response.statusCode() == 200) {
+                    JsonNode json = OBJECT_MAPPER.readTree(response.body());
+                    stats.record(elapsed, json.path("successCount").asLong(), json.path("failureCount").asLong());
+                } else {
+                    stats.recordError(elapsed);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                stats.recordError(System.nanoTime() - startedAt);
+            }
+        }
+        return stats;
+    }
+
+    private static byte[] requestBody(int worker, int tokensPerRequest) throws Exception {
+        List<String> tokens = new ArrayList<>(tokensPerRequest);
+        for (int i = 0; i < tokensPerRequest; i++) {
+            tokens.add(BenchmarkData.token(worker * tokensPerRequest + i));
+        }
+
+        FCMController.BatchNotificationRequest request = new FCMController.BatchNotificationRequest();
+        request.setTokens(tokens);
+        request.setTitle("도착 1정거장 전");
+        request.setBody("다음 정류장에서 내릴 준비를 하세요");
+        return OBJECT_MAPPER.writeValueAsBytes(request);
+    }
+
+    /**
+     * 워커별 집계 (워커 간 공유하지 않으므로 동기화 불필요)
+     */
+    private static final class Stats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long delivered;
+        private long failed;
+        private long errors;
+
+        void record(long latencyNanos, long successCount, long failureCount) {
+            add(latencyNanos);
+            delivered += successCount;
+            failed += failureCount;
+        }
+
+        void recordError(long latencyNanos) {
+            add(latencyNanos);
+            errors++;
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i]);
+            }
+            delivered += other.delivered;
+            failed += other.failed;
+            errors += other.errors;
+        }
+
+        void print(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double seconds = duration.toNanos() / 1e9;
+
+            System.out.printf("requests:      %d (%d errors), %.1f req/s%n", count, errors, count / seconds);
+            System.out.printf("messages:      %d delivered, %d failed, %.1f msg/s%n", delivered, failed, delivered / seconds);
+            System.out.printf("latency (ms):  p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), percentile(sorted, 1.0));
+        }
+
+        private void add(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.jonggeon.now_drop.benchmark;
+
+/**
+ * 벤치마크 공용 데이터
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 실제 FCM 토큰과 같은 길이(163자)의 결정적 토큰 생성
+     */
+    static String token(int index) {
+        StringBuilder builder = new StringBuilder(163);
+        builder.append("fGxK2mP9QaW:APA91b");
+        long seed = 0x9E3779B97F4A7C15L * (index + 1);
+        while (builder.length() < 163) {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            builder.append(Character.forDigit((int) ((seed >>> 1) % 36), 36));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.jonggeon.now_drop.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.controller.FCMController;
+import com.jonggeon.now_drop.service.FCMService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 마스킹과 FCMController DTO JSON 직렬화/역직렬화 벤치마크
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FCMUtilBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+    private FCMController.NotificationWithDataRequest withDataRequest;
+    private String withDataJson;
+    private FCMController.BatchNotificationRequest batchRequest;
+    private String batchJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        token = BenchmarkData.token(0);
+
+        withDataRequest = new FCMController.NotificationWithDataRequest();
+        withDataRequest.setToken(token);
+        withDataRequest.setTitle("곧 하차할 정류장입니다");
+        withDataRequest.setBody("다음 정류장은 강남역입니다");
+        withDataRequest.setData(Map.of("type", "ARRIVAL_SOON", "stopName", "강남역"));
+        withDataJson = objectMapper.writeValueAsString(withDataRequest);
+
+        List<String> tokens = new ArrayList<>(500);
+        for (int i = 0; i < 500; i++) {
+            tokens.add(BenchmarkData.token(i));
+        }
+        batchRequest = new FCMController.BatchNotificationRequest();
+        batchRequest.setTokens(tokens);
+        batchRequest.setTitle("노선 운행 안내");
+        batchRequest.setBody("146번 버스가 우회 운행합니다");
+        batchJson = objectMapper.writeValueAsString(batchRequest);
+    }
+
+    @Benchmark
+    public String maskToken() {
+        return FCMService.maskToken(token);
+    }
+
+    @Benchmark
+    public String serializeWithData() throws Exception {
+        return objectMapper.writeValueAsString(withDataRequest);
+    }
+
+    @Benchmark
+    public FCMController.NotificationWithDataRequest deserializeWithData() throws Exception {
+        return objectMapper.readValue(withDataJson, FCMController.NotificationWithDataRequest.class);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String serializeBatch500() throws Exception {
+        return objectMapper.writeValueAsString(batchRequest);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public FCMController.BatchNotificationRequest deserializeBatch500() throws Exception {
+        return objectMapper.readValue(batchJson, FCMController.BatchNotificationRequest.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.jonggeon.now_drop.benchmark;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.firebase.messaging.Message;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 벤치마크용 가짜 FirebaseMessaging
+ *
+ * 실제 SDK와 같은 방식으로 메시지를 HTTP v1 요청 본문({"message": ...})으로 직렬화하고
+ * 네트워크 없이 메시지 ID를 반환하므로, 오프라인에서도 재현 가능한 수치를 얻을 수 있습니다.
+ */
+public class FakeFirebaseMessaging {
+
+    private static final String MESSAGE_ID_PREFIX = "projects/now-drop-bench/messages/";
+
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 메시지를 요청 본문으로 직렬화하고 가짜 메시지 ID 반환
+     */
+    public String send(Message message) {
+        try {
+            String payload = jsonFactory.toString(Map.of("message", message));
+            return MESSAGE_ID_PREFIX + sequence.incrementAndGet() + ":" + payload.length();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
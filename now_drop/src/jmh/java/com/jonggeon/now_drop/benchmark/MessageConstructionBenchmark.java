@@ -0,0 +1,86 @@
+package com.jonggeon.now_drop.benchmark;
+
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MulticastMessage;
+import com.jonggeon.now_drop.service.template.FCMMessageFactory;
+import com.jonggeon.now_drop.service.template.NotificationTemplateProperties;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FCMService 메시지 생성 벤치마크
+ *
+ * 단일/멀티캐스트/데이터 전용/토픽 메시지의 생성 비용과,
+ * 가짜 FirebaseMessaging을 통한 생성 + 직렬화 비용을 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageConstructionBenchmark {
+
+    private static final String TITLE = "곧 하차할 정류장입니다";
+    private static final String BODY = "다음 정류장은 강남역입니다";
+
+    private FCMMessageFactory messageFactory;
+    private FakeFirebaseMessaging firebaseMessaging;
+    private String token;
+    private List<String> multicastTokens;
+    private Map<String, String> data;
+
+    @Setup
+    public void setUp() {
+        messageFactory = new FCMMessageFactory(new NotificationTemplateRegistry(new NotificationTemplateProperties()));
+        firebaseMessaging = new FakeFirebaseMessaging();
+        token = BenchmarkData.token(0);
+        multicastTokens = new ArrayList<>(500);
+        for (int i = 0; i < 500; i++) {
+            multicastTokens.add(BenchmarkData.token(i));
+        }
+        data = Map.of("type", "ARRIVAL_SOON", "tripId", "5b0e6f1e-8c1d-4b4e-9f57-2d1c9a3f7e21", "stopName", "강남역");
+    }
+
+    @Benchmark
+    public Message single() {
+        return messageFactory.notification(token, TITLE, BODY, data, NotificationTemplateRegistry.DEFAULT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MulticastMessage multicast500() {
+        return messageFactory.multicast(multicastTokens, TITLE, BODY, data, NotificationTemplateRegistry.DEFAULT);
+    }
+
+    @Benchmark
+    public Message dataOnly() {
+        return messageFactory.data(token, data, NotificationTemplateRegistry.DATA);
+    }
+
+    @Benchmark
+    public Message topic() {
+        return messageFactory.topic("route-updates", TITLE, BODY, NotificationTemplateRegistry.TOPIC);
+    }
+
+    /**
+     * 단일 메시지 생성 + 요청 본문 직렬화 (네트워크 제외한 메시지당 전송 비용)
+     */
+    @Benchmark
+    public String singleSerialized() {
+        return firebaseMessaging.send(single());
+    }
+
+    @Benchmark
+    public String dataOnlySerialized() {
+        return firebaseMessaging.send(dataOnly());
+    }
+}
@@ -0,0 +1,83 @@
+package com.jonggeon.now_drop.benchmark;
+
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.AndroidNotification;
+import com.google.firebase.messaging.ApnsConfig;
+import com.google.firebase.messaging.Aps;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.Notification;
+import com.jonggeon.now_drop.service.template.FCMMessageFactory;
+import com.jonggeon.now_drop.service.template.NotificationTemplateProperties;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알림 템플릿 벤치마크
+ *
+ * 메시지마다 AndroidConfig/ApnsConfig를 새로 만드는 방식과 템플릿을 재사용하는 방식의
+ * 메시지당 지연 시간과 할당량(gc 프로파일러의 gc.alloc.rate.norm)을 비교합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotificationTemplateBenchmark {
+
+    private FCMMessageFactory messageFactory;
+    private String token;
+    private Map<String, String> data;
+
+    @Setup
+    public void setUp() {
+        messageFactory = new FCMMessageFactory(new NotificationTemplateRegistry(new NotificationTemplateProperties()));
+        token = BenchmarkData.token(0);
+        data = Map.of("type", "ARRIVAL_SOON", "stopName", "강남역");
+    }
+
+    /**
+     * 기존 방식: 메시지마다 플랫폼 설정 객체 그래프를 새로 생성
+     */
+    @Benchmark
+    public Message rebuildPerMessage() {
+        return Message.builder()
+                .setToken(token)
+                .setNotification(Notification.builder()
+                        .setTitle("곧 하차할 정류장입니다")
+                        .setBody("다음 정류장은 강남역입니다")
+                        .build())
+                .putAllData(data)
+                .setAndroidConfig(AndroidConfig.builder()
+                        .setPriority(AndroidConfig.Priority.HIGH)
+                        .setNotification(AndroidNotification.builder()
+                                .setSound("default")
+                                .setColor("#3b82f6")
+                                .setChannelId("default")
+                                .build())
+                        .build())
+                .setApnsConfig(ApnsConfig.builder()
+                        .setAps(Aps.builder()
+                                .setSound("default")
+                                .setBadge(1)
+                                .setContentAvailable(true)
+                                .build())
+                        .build())
+                .build();
+    }
+
+    /**
+     * 템플릿 방식: 미리 만든 플랫폼 설정을 참조
+     */
+    @Benchmark
+    public Message fromTemplate() {
+        return messageFactory.notification(token, "곧 하차할 정류장입니다", "다음 정류장은 강남역입니다",
+                data, NotificationTemplateRegistry.DEFAULT);
+    }
+}
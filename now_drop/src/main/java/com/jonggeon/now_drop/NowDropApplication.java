@@ -2,8 +2,10 @@ package com.jonggeon.now_drop;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NowDropApplication {
 
 	public static void main(String[] args) {
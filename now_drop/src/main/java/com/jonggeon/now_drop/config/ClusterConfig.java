@@ -0,0 +1,42 @@
+package com.jonggeon.now_drop.config;
+
+import com.jonggeon.now_drop.service.cluster.ClusterEventListener;
+import com.jonggeon.now_drop.service.cluster.ClusterEventPublisher;
+import com.jonggeon.now_drop.service.cluster.ClusterMembership;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 클러스터 이벤트 수신 설정
+ *
+ * 다른 인스턴스가 이 인스턴스 소유 구간의 이벤트를 보내는 채널(cluster:events:{instanceId})을 구독합니다.
+ * cluster.enabled=false면 모든 구간을 혼자 소유하므로 구독하지 않습니다.
+ * 수신한 메시지는 동시 실행 수를 제한한 가상 스레드에서 처리합니다 (기본 실행기는 메시지마다 플랫폼 스레드를 만듦).
+ */
+@Configuration
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterConfig {
+
+    @Bean
+    public RedisMessageListenerContainer clusterEventListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        ClusterMembership clusterMembership,
+                                                                        ClusterEventListener clusterEventListener,
+                                                                        @Value("${cluster.listener.max-concurrency:64}") int maxConcurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("cluster-event-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(Math.max(maxConcurrency, 1));
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.addMessageListener(clusterEventListener,
+                new ChannelTopic(ClusterEventPublisher.channel(clusterMembership.getInstanceId())));
+        return container;
+    }
+}
@@ -1,56 +1,90 @@
 package com.jonggeon.now_drop.config;
 
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.firebase.FirebaseApp;
-import com.google.firebase.FirebaseOptions;
-import lombok.extern.slf4j.Slf4j;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.jonggeon.now_drop.service.backend.BoundedThreadManager;
+import com.jonggeon.now_drop.service.backend.FirebaseClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 
-import javax.annotation.PostConstruct;
-import java.io.IOException;
-import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Firebase Cloud Messaging (FCM) 설정
  *
- * Firebase Admin SDK를 초기화합니다.
- * firebase-service-account.json 파일이 src/main/resources에 있어야 합니다.
+ * Firebase Admin SDK 클라이언트를 빈으로 관리합니다.
+ * 서비스 계정(기본값 classpath:firebase-service-account.json) 읽기와 초기화는 백그라운드에서 하므로
+ * 애플리케이션 시작을 늦추지 않으며, 초기화와 예열 상태는 readiness 헬스 체크(firebase)로 보고합니다.
+ * SDK 기본값(요청마다 연결을 여는 HttpURLConnection, 제한 없는 스레드 풀) 대신 연결 풀을 쓰는 Apache HTTP 전송과
+ * 연결 수에 맞춘 고정 크기 스레드 풀을 씁니다 (fcm.firebase.http.*, fcm.firebase.threads.*).
+ * 로컬 가짜 FCM 백엔드(fcm.backend=local)를 쓸 때는 초기화하지 않습니다.
  */
-@Slf4j
 @Configuration
+@ConditionalOnProperty(name = "fcm.backend", havingValue = "firebase", matchIfMissing = true)
 public class FirebaseConfig {
 
-    @PostConstruct
-    public void initialize() {
-        try {
-            // firebase-service-account.json 파일 로드
-            ClassPathResource resource = new ClassPathResource("firebase-service-account.json");
-
-            if (!resource.exists()) {
-                log.error("❌ firebase-service-account.json 파일을 찾을 수 없습니다.");
-                log.error("src/main/resources/firebase-service-account.json 파일을 추가해주세요.");
-                return;
-            }
-
-            InputStream serviceAccount = resource.getInputStream();
+    /**
+     * FCM 전송용 HTTP 전송 계층
+     * FCM 요청은 모두 fcm.googleapis.com 한 곳으로 가므로 실제 동시 연결 한도는 max-connections-per-route입니다.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ApacheHttpTransport firebaseHttpTransport(@Value("${fcm.firebase.http.max-connections:200}") int maxConnections,
+                                                     @Value("${fcm.firebase.http.max-connections-per-route:100}") int maxConnectionsPerRoute,
+                                                     @Value("${fcm.firebase.http.idle-timeout-seconds:60}") long idleTimeoutSeconds,
+                                                     @Value("${fcm.firebase.http.connection-ttl-seconds:300}") long connectionTtlSeconds) {
+        return new ApacheHttpTransport(ApacheHttpTransport.newDefaultHttpClientBuilder()
+                .setMaxConnTotal(Math.max(maxConnections, 1))
+                .setMaxConnPerRoute(Math.max(maxConnectionsPerRoute, 1))
+                .setConnectionTimeToLive(Math.max(connectionTtlSeconds, 1), TimeUnit.SECONDS)
+                .evictIdleConnections(Math.max(idleTimeoutSeconds, 1), TimeUnit.SECONDS)
+                .build());
+    }
 
-            // Firebase 옵션 설정
-            FirebaseOptions options = FirebaseOptions.builder()
-                    .setCredentials(GoogleCredentials.fromStream(serviceAccount))
-                    .build();
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public FirebaseClient firebaseClient(ApacheHttpTransport firebaseHttpTransport,
+                                         @Value("${fcm.firebase.credentials:classpath:firebase-service-account.json}") Resource credentials,
+                                         @Value("${fcm.firebase.await-timeout-ms:5000}") long awaitTimeoutMillis,
+                                         @Value("${fcm.firebase.keep-warm-interval-ms:30000}") long keepWarmIntervalMillis,
+                                         @Value("${fcm.firebase.http.connect-timeout-ms:5000}") int connectTimeoutMillis,
+                                         @Value("${fcm.firebase.http.read-timeout-ms:10000}") int readTimeoutMillis,
+                                         @Value("${fcm.firebase.threads.max:100}") int threads,
+                                         @Value("${fcm.firebase.threads.queue-capacity:10000}") int threadQueueCapacity) {
+        BoundedThreadManager threadManager = new BoundedThreadManager(threads, threadQueueCapacity);
+        return new FirebaseClient(credentials,
+                Duration.ofMillis(Math.max(awaitTimeoutMillis, 0)),
+                Duration.ofMillis(Math.max(keepWarmIntervalMillis, 1000)),
+                options -> options
+                        .setHttpTransport(firebaseHttpTransport)
+                        .setConnectTimeout(connectTimeoutMillis)
+                        .setReadTimeout(readTimeoutMillis)
+                        .setThreadManager(threadManager));
+    }
 
-            // Firebase 앱이 이미 초기화되어 있지 않은 경우에만 초기화
-            if (FirebaseApp.getApps().isEmpty()) {
-                FirebaseApp.initializeApp(options);
-                log.info("✅ Firebase initialized successfully!");
-            } else {
-                log.info("✅ Firebase already initialized");
+    /**
+     * Firebase 준비 상태 (초기화와 토큰/연결 예열이 끝나야 UP)
+     * 초기화 중에는 OUT_OF_SERVICE, 서비스 계정이 없거나 잘못되었으면 DOWN입니다.
+     */
+    @Bean
+    public HealthIndicator firebaseHealthIndicator(FirebaseClient firebaseClient) {
+        return () -> {
+            Health.Builder health = switch (firebaseClient.getState()) {
+                case READY -> Health.up();
+                case INITIALIZING, WARMING_UP -> Health.outOfService();
+                case FAILED -> Health.down(firebaseClient.getFailure());
+            };
+            health.withDetail("state", firebaseClient.getState());
+            if (firebaseClient.getInitDuration() != null) {
+                health.withDetail("initMillis", firebaseClient.getInitDuration().toMillis());
             }
-
-        } catch (IOException e) {
-            log.error("❌ Failed to initialize Firebase", e);
-            log.error("firebase-service-account.json 파일을 확인해주세요.");
-        }
+            if (firebaseClient.getLastWarmUpAt() != null) {
+                health.withDetail("lastWarmUpAt", firebaseClient.getLastWarmUpAt().toString());
+            }
+            return health.build();
+        };
     }
 }
@@ -0,0 +1,81 @@
+package com.jonggeon.now_drop.config;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.jonggeon.now_drop.service.backend.FirebaseClient;
+import com.jonggeon.now_drop.service.backend.FirebaseMessagingBackend;
+import com.jonggeon.now_drop.service.backend.LocalFcmServer;
+import com.jonggeon.now_drop.service.backend.MessagingBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * FCM 전송 백엔드 설정
+ *
+ * fcm.backend=firebase (기본값): 백그라운드에서 초기화되는 FirebaseClient로 실제 FCM 사용
+ * fcm.backend=local: 로컬 가짜 FCM 서버를 띄우고, Firebase SDK의 HTTP 요청을 그 서버로 보냄
+ *                    (SDK의 직렬화, 응답 파싱, 오류 코드 변환은 그대로 실행됩니다)
+ */
+@Slf4j
+@Configuration
+public class MessagingBackendConfig {
+
+    private static final String LOCAL_APP_NAME = "local-fcm";
+
+    @Bean
+    @ConditionalOnProperty(name = "fcm.backend", havingValue = "firebase", matchIfMissing = true)
+    public MessagingBackend firebaseMessagingBackend(FirebaseClient firebaseClient) {
+        return new FirebaseMessagingBackend(firebaseClient);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "fcm.backend", havingValue = "local")
+    public LocalFcmServer localFcmServer(@Value("${fcm.local.port:0}") int port,
+                                         @Value("${fcm.local.latency-ms:20}") long latencyMillis,
+                                         @Value("${fcm.local.latency-jitter-ms:10}") long jitterMillis,
+                                         @Value("${fcm.local.error-rate:0.0}") double errorRate,
+                                         @Value("${fcm.local.throttle-per-second:0}") int throttlePerSecond,
+                                         @Value("${fcm.local.retry-after-seconds:1}") long retryAfterSeconds) {
+        return new LocalFcmServer(port, Duration.ofMillis(latencyMillis), Duration.ofMillis(jitterMillis),
+                errorRate, throttlePerSecond, Duration.ofSeconds(retryAfterSeconds));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "fcm.backend", havingValue = "local")
+    public MessagingBackend localMessagingBackend(LocalFcmServer server) {
+        FirebaseApp app = FirebaseApp.getApps().stream()
+                .filter(existing -> LOCAL_APP_NAME.equals(existing.getName()))
+                .findFirst()
+                .orElseGet(() -> FirebaseApp.initializeApp(localOptions(server), LOCAL_APP_NAME));
+
+        log.warn("⚠️ Using local FCM backend - messages are NOT delivered to devices");
+        return new FirebaseMessagingBackend(() -> FirebaseMessaging.getInstance(app));
+    }
+
+    private static FirebaseOptions localOptions(LocalFcmServer server) {
+        // 만료되지 않는 가짜 액세스 토큰 (토큰 갱신 요청이 나가지 않음)
+        AccessToken accessToken = new AccessToken("local-fcm-token", Date.from(Instant.now().plus(Duration.ofDays(3650))));
+
+        NetHttpTransport transport = new NetHttpTransport.Builder()
+                .setConnectionFactory(url -> (HttpURLConnection) server.rewrite(url).openConnection())
+                .build();
+
+        return FirebaseOptions.builder()
+                .setCredentials(GoogleCredentials.create(accessToken))
+                .setProjectId(LocalFcmServer.PROJECT_ID)
+                .setHttpTransport(transport)
+                .build();
+    }
+}
@@ -1,14 +1,32 @@
 package com.jonggeon.now_drop.controller;
 
 import com.jonggeon.now_drop.service.FCMService;
+import com.jonggeon.now_drop.service.bulk.BulkSendItem;
+import com.jonggeon.now_drop.service.bulk.BulkSender;
+import com.jonggeon.now_drop.service.dispatch.FCMSendException;
+import com.jonggeon.now_drop.service.idempotency.IdempotencyGuard;
+import com.jonggeon.now_drop.service.outbox.PushOutbox;
+import com.jonggeon.now_drop.service.stream.NotificationIntent;
+import com.jonggeon.now_drop.service.stream.NotificationStream;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import com.jonggeon.now_drop.service.token.DeviceTokenRegistry;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * FCM 푸시 알림 컨트롤러
@@ -21,7 +39,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class FCMController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final FCMService fcmService;
+    private final DeviceTokenRegistry deviceTokenRegistry;
+    private final PushOutbox pushOutbox;
+    private final IdempotencyGuard idempotencyGuard;
+    private final BulkSender bulkSender;
+    private final NotificationStream notificationStream;
 
     /**
      * FCM 토큰 등록
@@ -32,10 +57,18 @@ public class FCMController {
     @PostMapping("/register")
     public ResponseEntity<Map<String, Object>> registerToken(@RequestBody TokenRegistrationRequest request) {
         log.info("📱 FCM token registration request from platform: {}", request.getPlatform());
+
+        if (request.getUserId() == null || request.getToken() == null || request.getToken().isBlank()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "userId와 token은 필수입니다");
+
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
         log.info("Token: {}...", request.getToken().substring(0, Math.min(20, request.getToken().length())));
 
-        // TODO: DB에 토큰 저장
-        // userRepository.saveOrUpdateFCMToken(userId, request.getToken(), request.getPlatform());
+        deviceTokenRegistry.register(request.getUserId(), request.getToken(), request.getPlatform());
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -47,29 +80,126 @@ public class FCMController {
     /**
      * 테스트 푸시 알림 전송
      * 단일 디바이스에 테스트 알림 전송
+     * 디스패처 bulk 레인에 넣은 뒤 요청 스레드를 반환하고, 전송이 끝나면 응답합니다.
      *
      * POST /api/fcm/test
      */
     @PostMapping("/test")
-    public ResponseEntity<Map<String, Object>> sendTestNotification(@RequestBody TestNotificationRequest request) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendTestNotification(@RequestBody TestNotificationRequest request) {
         log.info("🧪 Test notification request");
 
+        return fcmService.sendNotificationAsync(
+                        request.getToken(),
+                        request.getTitle(),
+                        request.getBody(),
+                        null,
+                        NotificationTemplateRegistry.BULK
+                )
+                .thenApply(messageId -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("messageId", messageId);
+                    response.put("message", "테스트 알림이 성공적으로 전송되었습니다");
+
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    log.error("❌ Failed to send test notification", e);
+                    return errorResponse(e);
+                });
+    }
+
+    /**
+     * 데이터와 함께 푸시 알림 전송
+     *
+     * Idempotency-Key 헤더가 있으면 같은 키로 다시 들어온 요청은 전송하지 않습니다.
+     *
+     * POST /api/fcm/send-with-data
+     */
+    @PostMapping("/send-with-data")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendNotificationWithData(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody NotificationWithDataRequest request) {
+        log.info("📤 Sending notification with data");
+
+        if (idempotencyKey != null && !idempotencyGuard.claim(idempotencyKey)) {
+            log.info("🔁 Duplicate notification suppressed (key: {})", idempotencyKey);
+            return CompletableFuture.completedFuture(duplicateResponse());
+        }
+
+        return fcmService.sendNotificationAsync(
+                        request.getToken(),
+                        request.getTitle(),
+                        request.getBody(),
+                        request.getData()
+                )
+                .thenApply(messageId -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("messageId", messageId);
+
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    log.error("❌ Failed to send notification with data", e);
+                    if (idempotencyKey != null && !isRetryScheduled(e)) {
+                        // 전송되지 않았으므로 클라이언트가 같은 키로 다시 시도할 수 있게 함
+                        idempotencyGuard.release(idempotencyKey);
+                    }
+                    return errorResponse(e);
+                });
+    }
+
+    /**
+     * 배치 푸시 알림 전송
+     * 여러 디바이스에 동시에 알림 전송 (bulk 레인, FCM NORMAL 우선순위)
+     * Idempotency-Key 헤더가 있으면 같은 키로 이미 전송한 토큰은 제외합니다 (Redis 왕복 한 번).
+     * 전송에 실패한 토큰은 키를 풀어 같은 키로 다시 보낼 수 있게 합니다.
+     * 일시적 오류는 재시도를 예약하지 못했거나 재시도가 끝내 실패했을 때 키를 풉니다.
+     *
+     * POST /api/fcm/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> sendBatchNotification(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody BatchNotificationRequest request) {
+        log.info("📤 Batch notification request for {} devices", request.getTokens().size());
+
+        List<String> tokens = idempotencyKey != null
+                ? idempotencyGuard.claimEach(idempotencyKey, request.getTokens())
+                : request.getTokens();
+
         try {
-            String messageId = fcmService.sendNotification(
-                    request.getToken(),
+            var batchResponse = fcmService.sendBatchNotification(
+                    tokens,
                     request.getTitle(),
-                    request.getBody()
+                    request.getBody(),
+                    null,
+                    NotificationTemplateRegistry.BULK,
+                    undelivered -> {
+                        if (idempotencyKey != null) {
+                            idempotencyGuard.releaseEach(idempotencyKey, undelivered);
+                        }
+                    }
             );
+            if (idempotencyKey != null) {
+                idempotencyGuard.releaseEach(idempotencyKey, batchResponse.getPermanentlyFailedTokens());
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("messageId", messageId);
-            response.put("message", "테스트 알림이 성공적으로 전송되었습니다");
+            response.put("successCount", batchResponse.getSuccessCount());
+            response.put("failureCount", batchResponse.getFailureCount());
+            response.put("duplicateCount", request.getTokens().size() - tokens.size());
+            response.put("totalCount", request.getTokens().size());
 
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            log.error("❌ Failed to send test notification", e);
+            log.error("❌ Failed to send batch notification", e);
+            if (idempotencyKey != null) {
+                idempotencyGuard.releaseEach(idempotencyKey, tokens);
+            }
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -80,31 +210,71 @@ public class FCMController {
     }
 
     /**
-     * 데이터와 함께 푸시 알림 전송
+     * 대량 개인화 알림 전송
+     * 수신자마다 제목/내용/데이터가 다른 항목을 JSON 배열 또는 NDJSON으로 받아 500개씩 sendEach로 보내고,
+     * 항목별 결과를 NDJSON으로 바로 흘려보냅니다. 마지막 줄은 {"done": true, ...} 요약입니다.
+     * 항목 형식: {"id": "...", "token": "...", "title": "...", "body": "...", "data": {"k": "v"}}
      *
-     * POST /api/fcm/send-with-data
+     * POST /api/fcm/bulk?template=default
      */
-    @PostMapping("/send-with-data")
-    public ResponseEntity<Map<String, Object>> sendNotificationWithData(
-            @RequestBody NotificationWithDataRequest request) {
-        log.info("📤 Sending notification with data");
+    @PostMapping(value = "/bulk", consumes = {"application/json", "application/x-ndjson"})
+    public void sendBulkNotification(@RequestParam(defaultValue = NotificationTemplateRegistry.DEFAULT) String template,
+                                     InputStream body,
+                                     HttpServletResponse response) throws IOException {
+        log.info("📤 Bulk personalized notification request (template: {})", template);
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            bulkSender.send(body, response.getOutputStream(), template);
+
+        } catch (IllegalArgumentException e) {
+            // 등록되지 않은 템플릿 (아직 응답을 쓰기 전)
+            response.sendError(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 알림 스트림에 전송 의도 추가
+     * Redis Streams에 넣기만 하고 바로 202로 응답하며, 전송은 스트림 소비자 워커가 합니다.
+     * 스트림에 밀린 전송이 한도를 넘으면 503으로 거절하므로 호출한 쪽은 잠시 뒤 다시 보내야 합니다.
+     * 항목 형식은 /bulk와 같습니다: {"token": "...", "title": "...", "body": "...", "data": {"k": "v"}}
+     *
+     * POST /api/fcm/enqueue?template=default
+     */
+    @PostMapping("/enqueue")
+    public ResponseEntity<Map<String, Object>> enqueueNotifications(
+            @RequestParam(defaultValue = NotificationTemplateRegistry.DEFAULT) String template,
+            @RequestBody List<BulkSendItem> items) {
+        log.info("📨 Stream enqueue request for {} notifications (template: {})", items.size(), template);
+
+        List<NotificationIntent> intents = new ArrayList<>(items.size());
+        for (BulkSendItem item : items) {
+            intents.add(new NotificationIntent(item.token(), item.title(), item.body(), item.data(), template));
+        }
 
         try {
-            String messageId = fcmService.sendNotification(
-                    request.getToken(),
-                    request.getTitle(),
-                    request.getBody(),
-                    request.getData()
-            );
+            List<String> ids = notificationStream.publish(intents);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("messageId", messageId);
+            response.put("queuedCount", ids.size());
+            response.put("ids", ids);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(202).body(response);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(errorResponse);
+
+        } catch (RejectedExecutionException e) {
+            return errorResponse(e);
 
         } catch (Exception e) {
-            log.error("❌ Failed to send notification with data", e);
+            log.error("❌ Failed to enqueue notifications to stream", e);
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -115,33 +285,35 @@ public class FCMController {
     }
 
     /**
-     * 배치 푸시 알림 전송
-     * 여러 디바이스에 동시에 알림 전송
+     * 토픽에 푸시 알림 전송 (bulk 레인, FCM NORMAL 우선순위)
      *
-     * POST /api/fcm/batch
+     * POST /api/fcm/topic
      */
-    @PostMapping("/batch")
-    public ResponseEntity<Map<String, Object>> sendBatchNotification(
-            @RequestBody BatchNotificationRequest request) {
-        log.info("📤 Batch notification request for {} devices", request.getTokens().size());
+    @PostMapping("/topic")
+    public ResponseEntity<Map<String, Object>> sendToTopic(@RequestBody TopicNotificationRequest request) {
+        log.info("📤 Topic notification request to: {}", request.getTopic());
 
         try {
-            var batchResponse = fcmService.sendBatchNotification(
-                    request.getTokens(),
+            String messageId = fcmService.sendToTopic(
+                    request.getTopic(),
                     request.getTitle(),
-                    request.getBody()
+                    request.getBody(),
+                    null,
+                    NotificationTemplateRegistry.BULK
             );
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("successCount", batchResponse.getSuccessCount());
-            response.put("failureCount", batchResponse.getFailureCount());
-            response.put("totalCount", request.getTokens().size());
+            response.put("messageId", messageId);
 
             return ResponseEntity.ok(response);
 
+        } catch (FCMSendException e) {
+            log.error("❌ Failed to send topic notification", e);
+            return errorResponse(e);
+
         } catch (Exception e) {
-            log.error("❌ Failed to send batch notification", e);
+            log.error("❌ Failed to send topic notification", e);
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -152,29 +324,34 @@ public class FCMController {
     }
 
     /**
-     * 토픽에 푸시 알림 전송
+     * 푸시 전송 예약 (아웃박스)
+     * push_requests에 행을 추가하면 아웃박스 워커가 전송합니다.
+     * 같은 (userId, tripId, notificationType)은 한 번만 예약됩니다.
      *
-     * POST /api/fcm/topic
+     * POST /api/fcm/outbox
      */
-    @PostMapping("/topic")
-    public ResponseEntity<Map<String, Object>> sendToTopic(@RequestBody TopicNotificationRequest request) {
-        log.info("📤 Topic notification request to: {}", request.getTopic());
+    @PostMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> enqueuePush(@RequestBody PushEnqueueRequest request) {
+        log.info("📮 Push enqueue request for user {} ({})", request.getUserId(), request.getNotificationType());
 
         try {
-            String messageId = fcmService.sendToTopic(
-                    request.getTopic(),
+            boolean enqueued = pushOutbox.enqueue(
+                    request.getUserId(),
+                    request.getTripId(),
+                    request.getNotificationType(),
                     request.getTitle(),
-                    request.getBody()
+                    request.getBody(),
+                    request.getData()
             );
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("messageId", messageId);
+            response.put("enqueued", enqueued);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(enqueued ? 202 : 200).body(response);
 
         } catch (Exception e) {
-            log.error("❌ Failed to send topic notification", e);
+            log.error("❌ Failed to enqueue push request", e);
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -184,15 +361,67 @@ public class FCMController {
         }
     }
 
+    /**
+     * 중복 요청 응답 (이미 처리된 요청이므로 성공으로 응답)
+     */
+    private ResponseEntity<Map<String, Object>> duplicateResponse() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("duplicate", true);
+
+        return ResponseEntity.ok(response);
+    }
+
+    private static boolean isRetryScheduled(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof FCMSendException sendException && sendException.isRetryScheduled();
+    }
+
+    /**
+     * 전송 실패 응답 생성
+     * 재시도가 예약된 경우 202, 디스패치 큐가 가득 찼거나 일시적 오류인 경우 503, 그 외에는 500을 반환합니다.
+     */
+    private ResponseEntity<Map<String, Object>> errorResponse(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("error", cause.getMessage());
+
+        int status = 500;
+        if (cause instanceof RejectedExecutionException) {
+            status = 503;
+        } else if (cause instanceof FCMSendException sendException) {
+            errorResponse.put("errorCode", String.valueOf(sendException.getErrorCode()));
+            if (sendException.isRetryScheduled()) {
+                // 재시도가 예약되어 알림은 유실되지 않음
+                errorResponse.put("retryScheduled", true);
+                status = 202;
+            } else if (sendException.isTransient()) {
+                status = 503;
+            }
+        }
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
     // ========== DTO 클래스 ==========
 
     /**
      * FCM 토큰 등록 요청
      */
     public static class TokenRegistrationRequest {
+        private Long userId;
         private String token;
         private String platform; // "ios" or "android"
 
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
         public String getToken() {
             return token;
         }
@@ -350,4 +579,64 @@ public class FCMController {
             this.body = body;
         }
     }
+
+    /**
+     * 푸시 예약 요청
+     */
+    public static class PushEnqueueRequest {
+        private Long userId;
+        private UUID tripId;
+        private String notificationType;
+        private String title;
+        private String body;
+        private Map<String, String> data;
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public UUID getTripId() {
+            return tripId;
+        }
+
+        public void setTripId(UUID tripId) {
+            this.tripId = tripId;
+        }
+
+        public String getNotificationType() {
+            return notificationType;
+        }
+
+        public void setNotificationType(String notificationType) {
+            this.notificationType = notificationType;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public void setBody(String body) {
+            this.body = body;
+        }
+
+        public Map<String, String> getData() {
+            return data;
+        }
+
+        public void setData(Map<String, String> data) {
+            this.data = data;
+        }
+    }
 }
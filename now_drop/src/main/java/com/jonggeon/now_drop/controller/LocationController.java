@@ -0,0 +1,103 @@
+package com.jonggeon.now_drop.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.jonggeon.now_drop.service.location.LocationFixReader;
+import com.jonggeon.now_drop.service.location.LocationIngestor;
+import com.jonggeon.now_drop.service.stop.NearbyStop;
+import com.jonggeon.now_drop.service.stop.StopSpatialIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * GPS 위치 수집 컨트롤러
+ *
+ * 디바이스가 모아 둔 위치를 한 번에 보내는 배치 API입니다.
+ * 본문은 JSON 배열 또는 NDJSON(application/x-ndjson)이며, 항목 형식은
+ * {"segmentId": "...", "lat": 37.5, "lon": 127.0, "ts": 1700000000000} 입니다.
+ * 위치는 수집 큐에 넣고 바로 202로 응답하며, 여정 진행 반영은 백그라운드에서 이루어집니다.
+ * 위치에서 가장 가까운 정류장 조회도 제공합니다 (메모리 정류장 인덱스, 비어 있으면 PostGIS).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+public class LocationController {
+
+    /**
+     * 근접 정류장 조회 반경 상한 (격자 탐색 범위를 제한)
+     */
+    private static final double MAX_NEAREST_RADIUS_METERS = 1000;
+
+    private final LocationFixReader locationFixReader;
+    private final LocationIngestor locationIngestor;
+    private final StopSpatialIndex stopSpatialIndex;
+
+    /**
+     * 위치 배치 수집
+     *
+     * POST /api/locations
+     */
+    @PostMapping(consumes = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<IngestResponse> ingest(InputStream body) throws IOException {
+        try {
+            LocationFixReader.ReadResult result = locationFixReader.read(body, locationIngestor::offer);
+            return ResponseEntity.accepted().body(new IngestResponse(true, result.accepted(), result.rejected(), null));
+
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Malformed location batch: {}", e.getOriginalMessage());
+            return ResponseEntity.badRequest().body(new IngestResponse(false, 0, 0, "잘못된 위치 데이터 형식입니다"));
+        }
+    }
+
+    /**
+     * 위치에서 가장 가까운 정류장
+     *
+     * GET /api/locations/nearest-stop?lat=37.5&lon=127.0&radius=200
+     */
+    @GetMapping("/nearest-stop")
+    public ResponseEntity<Map<String, Object>> nearestStop(@RequestParam double lat,
+                                                           @RequestParam double lon,
+                                                           @RequestParam(defaultValue = "200") double radius) {
+        if (Math.abs(lat) > 90 || Math.abs(lon) > 180 || !(radius > 0) || radius > MAX_NEAREST_RADIUS_METERS) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "위치 또는 반경이 올바르지 않습니다 (반경은 " + (int) MAX_NEAREST_RADIUS_METERS + "m 이하)");
+
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        Optional<NearbyStop> nearest = stopSpatialIndex.nearest(lat, lon, radius);
+        if (nearest.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "반경 안에 정류장이 없습니다");
+
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+
+        NearbyStop stop = nearest.get();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stopId", stop.stop().id());
+        response.put("routeId", stop.stop().routeId());
+        response.put("sequence", stop.stop().sequence());
+        response.put("name", stop.stop().name());
+        response.put("distanceMeters", Math.round(stop.distanceMeters()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 수집 결과 (요청마다 Map을 만들지 않도록 고정 형태로 응답)
+     */
+    public record IngestResponse(boolean success, int accepted, int rejected, String error) {
+    }
+}
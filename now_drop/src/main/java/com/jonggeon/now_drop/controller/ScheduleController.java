@@ -0,0 +1,196 @@
+package com.jonggeon.now_drop.controller;
+
+import com.jonggeon.now_drop.service.schedule.PushScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 예약 알림 컨트롤러
+ *
+ * 지정한 시각(또는 예상 도착 시각의 N분 전)에 보낼 알림을 예약하고, ETA가 바뀌면 시각을 바꾸거나 취소합니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/schedules")
+@RequiredArgsConstructor
+public class ScheduleController {
+
+    private final PushScheduler pushScheduler;
+
+    /**
+     * 알림 예약 (같은 userId/tripId/notificationType이 아직 예약 상태면 시각만 바뀌고, 취소되었거나 끝난 알림은 다시 예약됨)
+     *
+     * POST /api/schedules
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> schedule(@RequestBody ScheduleRequest request) {
+        Instant sendAt = request.resolveSendAt();
+        if (request.getUserId() == null || request.getNotificationType() == null || sendAt == null) {
+            return badRequest("userId, notificationType과 sendAt(또는 arrivalAt)이 필요합니다");
+        }
+
+        UUID id = pushScheduler.schedule(request.getUserId(), request.getTripId(), request.getNotificationType(),
+                request.getTitle(), request.getBody(), request.getData(), sendAt);
+        log.info("⏰ Push scheduled for user {} at {}", request.getUserId(), sendAt);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", id != null);
+        response.put("scheduleId", id);
+        response.put("sendAt", sendAt.toString());
+        if (id == null) {
+            response.put("message", "전송 대기 중이거나 전송 중인 알림입니다");
+        }
+        return ResponseEntity.status(id != null ? 200 : 409).body(response);
+    }
+
+    /**
+     * 예약 시각 변경 (ETA 변경)
+     *
+     * PUT /api/schedules/{id}
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> reschedule(@PathVariable UUID id, @RequestBody ScheduleRequest request) {
+        Instant sendAt = request.resolveSendAt();
+        if (sendAt == null) {
+            return badRequest("sendAt 또는 arrivalAt이 필요합니다");
+        }
+
+        boolean changed = pushScheduler.reschedule(id, sendAt);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", changed);
+        response.put("scheduleId", id);
+        response.put("sendAt", sendAt.toString());
+        return ResponseEntity.status(changed ? 200 : 404).body(response);
+    }
+
+    /**
+     * 예약 취소
+     *
+     * DELETE /api/schedules/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable UUID id) {
+        boolean cancelled = pushScheduler.cancel(id);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", cancelled);
+        response.put("scheduleId", id);
+        return ResponseEntity.status(cancelled ? 200 : 404).body(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> badRequest(String error) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", error);
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    // ========== DTO 클래스 ==========
+
+    /**
+     * 예약 요청
+     * sendAt을 직접 주거나, arrivalAt과 leadMinutes로 "도착 N분 전"을 지정합니다.
+     */
+    public static class ScheduleRequest {
+        private Long userId;
+        private UUID tripId;
+        private String notificationType;
+        private String title;
+        private String body;
+        private Map<String, String> data;
+        private Instant sendAt;
+        private Instant arrivalAt;
+        private Integer leadMinutes;
+
+        Instant resolveSendAt() {
+            if (sendAt != null) {
+                return sendAt;
+            }
+            if (arrivalAt != null) {
+                return arrivalAt.minus(Duration.ofMinutes(leadMinutes != null ? leadMinutes : 0));
+            }
+            return null;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public UUID getTripId() {
+            return tripId;
+        }
+
+        public void setTripId(UUID tripId) {
+            this.tripId = tripId;
+        }
+
+        public String getNotificationType() {
+            return notificationType;
+        }
+
+        public void setNotificationType(String notificationType) {
+            this.notificationType = notificationType;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public void setBody(String body) {
+            this.body = body;
+        }
+
+        public Map<String, String> getData() {
+            return data;
+        }
+
+        public void setData(Map<String, String> data) {
+            this.data = data;
+        }
+
+        public Instant getSendAt() {
+            return sendAt;
+        }
+
+        public void setSendAt(Instant sendAt) {
+            this.sendAt = sendAt;
+        }
+
+        public Instant getArrivalAt() {
+            return arrivalAt;
+        }
+
+        public void setArrivalAt(Instant arrivalAt) {
+            this.arrivalAt = arrivalAt;
+        }
+
+        public Integer getLeadMinutes() {
+            return leadMinutes;
+        }
+
+        public void setLeadMinutes(Integer leadMinutes) {
+            this.leadMinutes = leadMinutes;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.jonggeon.now_drop.controller;
+
+import com.jonggeon.now_drop.service.dispatch.FCMSendException;
+import com.jonggeon.now_drop.service.topic.TopicSubscriptionService;
+import com.jonggeon.now_drop.service.topic.TopicSubscriptionService.BroadcastResult;
+import com.jonggeon.now_drop.service.topic.TopicSubscriptionService.SubscriptionResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 토픽 구독 관리 컨트롤러
+ *
+ * 등록된 토큰(또는 사용자)의 토픽 구독/해제와 토픽 브로드캐스트 API를 제공합니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/topics")
+@RequiredArgsConstructor
+public class TopicController {
+
+    private final TopicSubscriptionService topicSubscriptionService;
+
+    /**
+     * 토픽 구독 (tokens 또는 userIds)
+     *
+     * POST /api/topics/{topic}/subscribe
+     */
+    @PostMapping("/{topic}/subscribe")
+    public ResponseEntity<Map<String, Object>> subscribe(@PathVariable String topic,
+                                                         @RequestBody SubscriptionRequest request) {
+        log.info("📌 Subscribe request for topic {}", topic);
+
+        SubscriptionResult result = request.getUserIds() != null
+                ? topicSubscriptionService.subscribeUsers(topic, request.getUserIds())
+                : topicSubscriptionService.subscribe(topic, tokensOf(request));
+
+        return ResponseEntity.ok(subscriptionResponse(topic, result));
+    }
+
+    /**
+     * 토픽 구독 해제
+     *
+     * POST /api/topics/{topic}/unsubscribe
+     */
+    @PostMapping("/{topic}/unsubscribe")
+    public ResponseEntity<Map<String, Object>> unsubscribe(@PathVariable String topic,
+                                                           @RequestBody SubscriptionRequest request) {
+        log.info("📌 Unsubscribe request for topic {}", topic);
+
+        SubscriptionResult result = topicSubscriptionService.unsubscribe(topic, tokensOf(request));
+        return ResponseEntity.ok(subscriptionResponse(topic, result));
+    }
+
+    /**
+     * 토픽 구독자 수 조회
+     *
+     * GET /api/topics/{topic}
+     */
+    @GetMapping("/{topic}")
+    public ResponseEntity<Map<String, Object>> getTopic(@PathVariable String topic) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("topic", topic);
+        response.put("subscribers", topicSubscriptionService.topicSize(topic));
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 토픽 브로드캐스트 (구독자 수에 따라 토픽 전송 또는 팬아웃)
+     *
+     * POST /api/topics/{topic}/broadcast
+     */
+    @PostMapping("/{topic}/broadcast")
+    public ResponseEntity<Map<String, Object>> broadcast(@PathVariable String topic,
+                                                         @RequestBody BroadcastRequest request) {
+        log.info("📢 Broadcast request for topic {}", topic);
+        return broadcastTo(topic, request);
+    }
+
+    /**
+     * 노선 운행 장애 공지 (route-{routeId} 토픽 구독자 전체)
+     *
+     * POST /api/topics/routes/{routeId}/disruption
+     */
+    @PostMapping("/routes/{routeId}/disruption")
+    public ResponseEntity<Map<String, Object>> broadcastRouteDisruption(@PathVariable String routeId,
+                                                                        @RequestBody BroadcastRequest request) {
+        log.info("🚧 Disruption broadcast for route {}", routeId);
+
+        Map<String, String> data = new HashMap<>();
+        if (request.getData() != null) {
+            data.putAll(request.getData());
+        }
+        data.put("type", "ROUTE_DISRUPTION");
+        data.put("routeId", routeId);
+        request.setData(data);
+
+        return broadcastTo(TopicSubscriptionService.routeTopic(routeId), request);
+    }
+
+    private ResponseEntity<Map<String, Object>> broadcastTo(String topic, BroadcastRequest request) {
+        try {
+            BroadcastResult result = topicSubscriptionService.broadcast(
+                    topic, request.getTitle(), request.getBody(), request.getData());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("topic", topic);
+            response.put("mode", result.mode());
+            response.put("messageId", result.messageId());
+            response.put("recipients", result.recipients());
+            response.put("successCount", result.successCount());
+            response.put("failureCount", result.failureCount());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Failed to broadcast to topic {}", topic, e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            int status = 500;
+            if (e instanceof FCMSendException sendException && sendException.isRetryScheduled()) {
+                errorResponse.put("retryScheduled", true);
+                status = 202;
+            }
+            return ResponseEntity.status(status).body(errorResponse);
+        }
+    }
+
+    private static List<String> tokensOf(SubscriptionRequest request) {
+        return request.getTokens() != null ? request.getTokens() : List.of();
+    }
+
+    private static Map<String, Object> subscriptionResponse(String topic, SubscriptionResult result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("topic", topic);
+        response.put("successCount", result.successCount());
+        response.put("failureCount", result.failureCount());
+        return response;
+    }
+
+    // ========== DTO 클래스 ==========
+
+    /**
+     * 토픽 구독/해제 요청
+     */
+    public static class SubscriptionRequest {
+        private List<String> tokens;
+        private List<Long> userIds;
+
+        public List<String> getTokens() {
+            return tokens;
+        }
+
+        public void setTokens(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        public List<Long> getUserIds() {
+            return userIds;
+        }
+
+        public void setUserIds(List<Long> userIds) {
+            this.userIds = userIds;
+        }
+    }
+
+    /**
+     * 토픽 브로드캐스트 요청
+     */
+    public static class BroadcastRequest {
+        private String title;
+        private String body;
+        private Map<String, String> data;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public void setBody(String body) {
+            this.body = body;
+        }
+
+        public Map<String, String> getData() {
+            return data;
+        }
+
+        public void setData(Map<String, String> data) {
+            this.data = data;
+        }
+    }
+}
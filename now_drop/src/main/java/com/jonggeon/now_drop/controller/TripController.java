@@ -0,0 +1,101 @@
+package com.jonggeon.now_drop.controller;
+
+import com.jonggeon.now_drop.service.trip.ProgressResult;
+import com.jonggeon.now_drop.service.trip.SegmentSnapshot;
+import com.jonggeon.now_drop.service.trip.TripProgressEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 여정 진행 컨트롤러
+ *
+ * 구간 추적 시작과 정류장 도착 이벤트 수신 API를 제공합니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/trips")
+@RequiredArgsConstructor
+public class TripController {
+
+    private final TripProgressEngine tripProgressEngine;
+
+    /**
+     * 구간 추적 시작 (하차 1정거장 전 알림 활성화)
+     *
+     * POST /api/trips/segments/{segmentId}/track
+     */
+    @PostMapping("/segments/{segmentId}/track")
+    public ResponseEntity<Map<String, Object>> trackSegment(@PathVariable UUID segmentId) {
+        log.info("🚌 Track request for segment {}", segmentId);
+
+        SegmentSnapshot segment = tripProgressEngine.track(segmentId);
+        if (segment == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "진행 중인 구간이 아닙니다");
+
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("segmentId", segment.segmentId());
+        response.put("currentStop", segment.currentStop());
+        response.put("totalStops", segment.totalStops());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 정류장 도착 이벤트
+     *
+     * POST /api/trips/segments/{segmentId}/stops
+     */
+    @PostMapping("/segments/{segmentId}/stops")
+    public ResponseEntity<Map<String, Object>> reportStop(@PathVariable UUID segmentId,
+                                                          @RequestBody StopEventRequest request) {
+        if (request.getStop() == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "stop은 필수입니다");
+
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        ProgressResult result = tripProgressEngine.onStopReached(segmentId, request.getStop());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", result != ProgressResult.UNKNOWN_SEGMENT);
+        response.put("result", result.name());
+
+        int status = switch (result) {
+            case UNKNOWN_SEGMENT -> 404;
+            case FORWARDED -> 202;
+            default -> 200;
+        };
+        return ResponseEntity.status(status).body(response);
+    }
+
+    // ========== DTO 클래스 ==========
+
+    /**
+     * 정류장 도착 이벤트 요청
+     */
+    public static class StopEventRequest {
+        private Integer stop;
+
+        public Integer getStop() {
+            return stop;
+        }
+
+        public void setStop(Integer stop) {
+            this.stop = stop;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.jonggeon.now_drop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 사용자 디바이스의 FCM 토큰
+ *
+ * 토큰은 전역적으로 유일하며, 다른 사용자로 다시 등록되면 소유자가 바뀝니다.
+ */
+@Getter
+@Entity
+@Table(name = "device_tokens", indexes = {
+        @Index(name = "idx_device_tokens_user_id", columnList = "user_id")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DeviceToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, unique = true, length = 512)
+    private String token;
+
+    @Column(length = 20)
+    private String platform; // "ios" or "android"
+
+    @Column(name = "last_seen", nullable = false)
+    private Instant lastSeen;
+}
@@ -0,0 +1,55 @@
+package com.jonggeon.now_drop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 푸시 전송 감사 기록 (추가만 하는 테이블)
+ *
+ * 행은 PushAuditWriter가 JDBC 배치로 넣으며, 이 엔티티는 스키마 정의용입니다.
+ * created_at의 BRIN 인덱스는 JPA로 표현할 수 없어 schema.sql에서 만듭니다.
+ */
+@Getter
+@Entity
+@Table(name = "push_audit", indexes = {
+        @Index(name = "idx_push_audit_batch", columnList = "batch_id")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PushAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "batch_id")
+    private UUID batchId;
+
+    @Column(nullable = false, length = 20)
+    private String method;
+
+    @Column(columnDefinition = "TEXT")
+    private String target;
+
+    @Column(nullable = false, length = 10)
+    private String status; // "sent" or "failed"
+
+    @Column(name = "message_id", columnDefinition = "TEXT")
+    private String messageId;
+
+    @Column(name = "error_code", length = 50)
+    private String errorCode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,67 @@
+package com.jonggeon.now_drop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 푸시 요청 (트랜잭셔널 아웃박스)
+ *
+ * (user_id, trip_id, notification_type)가 중복 제거 키이며,
+ * trip_id가 NULL인 행끼리도 중복으로 보는 NULLS NOT DISTINCT 인덱스는 JPA로 표현할 수 없어 schema.sql에서 만듭니다.
+ * 워커가 pending 상태의 행을 가져가 전송한 뒤 sent/failed로 갱신합니다.
+ * 예약 알림은 scheduled 상태로 들어와 scheduled_at이 되면 pending으로 바뀝니다.
+ */
+@Getter
+@Entity
+@Table(name = "push_requests",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "trip_id", "notification_type"}),
+        indexes = @Index(name = "idx_push_requests_status", columnList = "status"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PushRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "trip_id")
+    private UUID tripId;
+
+    @Column(name = "notification_type", length = 50)
+    private String notificationType;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(length = 20)
+    private String status;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "scheduled_at")
+    private LocalDateTime scheduledAt;
+}
@@ -0,0 +1,23 @@
+package com.jonggeon.now_drop.domain;
+
+/**
+ * push_requests.status 값
+ */
+public enum PushStatus {
+    SCHEDULED("scheduled"),
+    PENDING("pending"),
+    PROCESSING("processing"),
+    SENT("sent"),
+    FAILED("failed"),
+    CANCELLED("cancelled");
+
+    private final String value;
+
+    PushStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
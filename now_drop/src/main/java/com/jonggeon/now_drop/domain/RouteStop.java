@@ -0,0 +1,53 @@
+package com.jonggeon.now_drop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.locationtech.jts.geom.Point;
+
+import java.time.LocalDateTime;
+
+/**
+ * 노선별 정류장 위치 (PostGIS)
+ *
+ * 정류장 위치의 원본이며, location에는 GIST 인덱스가 있습니다.
+ * 삭제 대신 active = false로 바꿔야 메모리 인덱스의 증분 갱신에 반영됩니다.
+ */
+@Getter
+@Entity
+@Table(name = "route_stops",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"route_id", "stop_sequence"}),
+        indexes = @Index(name = "idx_route_stops_updated_at", columnList = "updated_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class RouteStop {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "route_id", nullable = false, length = 50)
+    private String routeId;
+
+    @Column(name = "stop_sequence", nullable = false)
+    private Integer stopSequence;
+
+    @Column(name = "stop_name")
+    private String stopName;
+
+    @Column(nullable = false, columnDefinition = "geometry(Point,4326)")
+    private Point location;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.jonggeon.now_drop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 사용자 여정 (출발지 → 도착지)
+ */
+@Getter
+@Entity
+@Table(name = "trips")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Trip {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "from_location")
+    private String fromLocation;
+
+    @Column(name = "to_location")
+    private String toLocation;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(length = 20)
+    private String status; // "active", "completed", "cancelled"
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
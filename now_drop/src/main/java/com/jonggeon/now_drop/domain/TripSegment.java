@@ -0,0 +1,63 @@
+package com.jonggeon.now_drop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 여정의 한 구간 (버스/지하철 한 노선 탑승)
+ *
+ * current_stop_id는 구간 안에서 지나온 정류장 순번(0 = 탑승 정류장),
+ * total_stops는 하차 정류장의 순번입니다.
+ * boarding_stop_seq는 탑승 정류장의 노선 내 stop_sequence로, GPS 위치를 구간 순번으로 바꿀 때 사용합니다.
+ * 진행 상태는 TripProgressEngine이 메모리에서 관리하고 주기적으로 기록합니다.
+ */
+@Getter
+@Entity
+@Table(name = "trip_segments", indexes = {
+        @Index(name = "idx_trip_segments_trip_id", columnList = "trip_id")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class TripSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "trip_id")
+    private UUID tripId;
+
+    @Column(name = "segment_type", length = 20)
+    private String segmentType; // "bus", "subway", "walk"
+
+    @Column(name = "route_id", length = 50)
+    private String routeId;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "boarding_stop_seq")
+    private Integer boardingStopSeq;
+
+    @Column(name = "current_stop_id")
+    private Integer currentStopId;
+
+    @Column(name = "total_stops")
+    private Integer totalStops;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
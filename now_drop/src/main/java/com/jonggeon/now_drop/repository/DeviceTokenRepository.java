@@ -0,0 +1,11 @@
+package com.jonggeon.now_drop.repository;
+
+import com.jonggeon.now_drop.domain.DeviceToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long> {
+
+    List<DeviceToken> findByUserId(Long userId);
+}
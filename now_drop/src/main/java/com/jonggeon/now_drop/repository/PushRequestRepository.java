@@ -0,0 +1,9 @@
+package com.jonggeon.now_drop.repository;
+
+import com.jonggeon.now_drop.domain.PushRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface PushRequestRepository extends JpaRepository<PushRequest, UUID> {
+}
@@ -0,0 +1,26 @@
+package com.jonggeon.now_drop.repository;
+
+import com.jonggeon.now_drop.domain.RouteStop;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RouteStopRepository extends JpaRepository<RouteStop, Long> {
+
+    /**
+     * 반경 안의 정류장을 가까운 순으로 조회 (GIST 인덱스 사용)
+     */
+    @Query(value = """
+            SELECT * FROM route_stops
+            WHERE active
+              AND ST_DWithin(location::geography, ST_SetSRID(ST_MakePoint(:lon, :lat), 4326)::geography, :radiusMeters)
+            ORDER BY location <-> ST_SetSRID(ST_MakePoint(:lon, :lat), 4326)
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<RouteStop> findNearby(@Param("lat") double lat,
+                               @Param("lon") double lon,
+                               @Param("radiusMeters") double radiusMeters,
+                               @Param("limit") int limit);
+}
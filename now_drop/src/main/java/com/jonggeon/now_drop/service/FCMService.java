@@ -1,12 +1,32 @@
 package com.jonggeon.now_drop.service;
 
-import com.google.firebase.messaging.*;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.jonggeon.now_drop.service.audit.PushAuditWriter;
+import com.jonggeon.now_drop.service.backend.MessagingBackend;
+import com.jonggeon.now_drop.service.dispatch.FCMSendException;
+import com.jonggeon.now_drop.service.dispatch.FanOutResult;
+import com.jonggeon.now_drop.service.dispatch.Lane;
+import com.jonggeon.now_drop.service.dispatch.MulticastFanOut;
+import com.jonggeon.now_drop.service.dispatch.SendResult;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics.SendMethod;
+import com.jonggeon.now_drop.service.ratelimit.SendRateLimiter;
+import com.jonggeon.now_drop.service.retry.RetryScheduler;
+import com.jonggeon.now_drop.service.template.FCMMessageFactory;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import com.jonggeon.now_drop.service.token.DeadTokenFilter;
+import com.jonggeon.now_drop.service.token.TokenFeedbackProcessor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Firebase Cloud Messaging (FCM) 서비스
@@ -15,8 +35,19 @@ import java.util.Map;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FCMService {
 
+    private final MessagingBackend messagingBackend;
+    private final FCMMessageFactory messageFactory;
+    private final RetryScheduler retryScheduler;
+    private final FCMMetrics metrics;
+    private final SendRateLimiter rateLimiter;
+    private final MulticastFanOut multicastFanOut;
+    private final DeadTokenFilter deadTokenFilter;
+    private final TokenFeedbackProcessor tokenFeedbackProcessor;
+    private final PushAuditWriter auditWriter;
+
     /**
      * 단일 디바이스에 푸시 알림 전송
      *
@@ -39,53 +70,90 @@ public class FCMService {
      * @return 전송 결과 메시지 ID
      */
     public String sendNotification(String deviceToken, String title, String body, Map<String, String> data) {
-        try {
-            // 메시지 빌더 생성
-            Message.Builder messageBuilder = Message.builder()
-                    .setToken(deviceToken)
-                    .setNotification(Notification.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .build());
-
-            // 추가 데이터가 있으면 추가
-            if (data != null && !data.isEmpty()) {
-                messageBuilder.putAllData(data);
-            }
-
-            // Android 설정
-            messageBuilder.setAndroidConfig(AndroidConfig.builder()
-                    .setPriority(AndroidConfig.Priority.HIGH)
-                    .setNotification(AndroidNotification.builder()
-                            .setSound("default")
-                            .setColor("#3b82f6") // 알림 색상
-                            .setChannelId("default") // 알림 채널
-                            .build())
-                    .build());
-
-            // iOS 설정
-            messageBuilder.setApnsConfig(ApnsConfig.builder()
-                    .setAps(Aps.builder()
-                            .setSound("default")
-                            .setBadge(1) // 배지 숫자
-                            .setContentAvailable(true) // 백그라운드 처리 가능
-                            .build())
-                    .build());
-
-            Message message = messageBuilder.build();
+        return sendNotification(deviceToken, title, body, data, NotificationTemplateRegistry.DEFAULT);
+    }
 
+    /**
+     * 단일 디바이스에 지정한 템플릿으로 푸시 알림 전송
+     *
+     * @param deviceToken FCM 디바이스 토큰
+     * @param title 알림 제목
+     * @param body 알림 내용
+     * @param data 추가 데이터 (nullable)
+     * @param templateName 알림 템플릿 이름 (예: "default")
+     * @return 전송 결과 메시지 ID
+     * @throws IllegalArgumentException 만료된 토큰 (전송하지 않음)
+     */
+    public String sendNotification(String deviceToken, String title, String body, Map<String, String> data, String templateName) {
+        if (deadTokenFilter.isDead(deviceToken)) {
+            throw new IllegalArgumentException("만료된 FCM 토큰입니다");
+        }
+        Message message = messageFactory.notification(deviceToken, title, body, data, templateName);
+        Lane lane = messageFactory.lane(templateName);
+        throttle(lane);
+        long startedAt = System.nanoTime();
+        try {
             // FCM 전송
-            String response = FirebaseMessaging.getInstance().send(message);
+            String response = messagingBackend.send(message);
             log.info("✅ Successfully sent message: {} to token: {}", response, maskToken(deviceToken));
+            metrics.recordResults(SendMethod.SINGLE, 1, 0);
+            auditWriter.record(SendMethod.SINGLE, null, deviceToken, SendResult.success(response));
 
             return response;
 
-        } catch (FirebaseMessagingException e) {
+        } catch (FirebaseMessagingException | FCMSendException e) {
             log.error("❌ Failed to send FCM message to token: {}", maskToken(deviceToken), e);
-            throw new RuntimeException("FCM 전송 실패: " + e.getMessage(), e);
+            recordFailure(SendMethod.SINGLE, e);
+            auditWriter.record(SendMethod.SINGLE, null, deviceToken, SendResult.from(e));
+            tokenFeedbackProcessor.onSendFailure(deviceToken, e);
+            throw failWithRetry(message, deviceToken, lane, FCMSendException.from("FCM 전송 실패", e));
+        } finally {
+            metrics.recordLatency(SendMethod.SINGLE, null, System.nanoTime() - startedAt);
         }
     }
 
+    /**
+     * 단일 디바이스에 데이터와 함께 푸시 알림 비동기 전송
+     * 디스패처 큐에 넣고 즉시 반환하며, 실제 전송은 배치로 묶여 처리됩니다.
+     * 일시적 오류는 백오프 후 재시도되며 Future는 최종 결과로 완료됩니다.
+     *
+     * @param deviceToken FCM 디바이스 토큰
+     * @param title 알림 제목
+     * @param body 알림 내용
+     * @param data 추가 데이터 (nullable)
+     * @return 전송 완료 시 메시지 ID로 완료되는 Future
+     */
+    public CompletableFuture<String> sendNotificationAsync(String deviceToken, String title, String body, Map<String, String> data) {
+        return sendNotificationAsync(deviceToken, title, body, data, NotificationTemplateRegistry.DEFAULT);
+    }
+
+    /**
+     * 단일 디바이스에 지정한 템플릿으로 푸시 알림 비동기 전송
+     *
+     * @param templateName 알림 템플릿 이름 (예: "default")
+     * @return 전송 완료 시 메시지 ID로 완료되는 Future
+     */
+    public CompletableFuture<String> sendNotificationAsync(String deviceToken, String title, String body,
+                                                           Map<String, String> data, String templateName) {
+        return sendNotificationAsync(deviceToken, null, title, body, data, templateName);
+    }
+
+    /**
+     * 수신 플랫폼을 알고 있는 디바이스에 푸시 알림 비동기 전송 (플랫폼별 메트릭 집계)
+     *
+     * @param platform "android", "ios" 또는 null
+     * @return 전송 완료 시 메시지 ID로 완료되는 Future
+     */
+    public CompletableFuture<String> sendNotificationAsync(String deviceToken, String platform, String title, String body,
+                                                           Map<String, String> data, String templateName) {
+        if (deadTokenFilter.isDead(deviceToken)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("만료된 FCM 토큰입니다"));
+        }
+        return withFeedback(deviceToken, retryScheduler.send(
+                messageFactory.notification(deviceToken, title, body, data, templateName),
+                deviceToken, platform, messageFactory.lane(templateName)));
+    }
+
     /**
      * 여러 디바이스에 푸시 알림 전송 (배치)
      *
@@ -94,86 +162,81 @@ public class FCMService {
      * @param body 알림 내용
      * @return 전송 결과 (성공/실패 개수)
      */
-    public BatchResponse sendBatchNotification(List<String> deviceTokens, String title, String body) {
+    public FanOutResult sendBatchNotification(List<String> deviceTokens, String title, String body) {
         return sendBatchNotification(deviceTokens, title, body, null);
     }
 
     /**
      * 여러 디바이스에 데이터와 함께 푸시 알림 전송 (배치)
+     * 토큰 수 제한 없이 500개 단위 청크로 나누어 병렬 전송합니다.
      *
      * @param deviceTokens FCM 디바이스 토큰 리스트
      * @param title 알림 제목
      * @param body 알림 내용
      * @param data 추가 데이터 (nullable)
-     * @return 전송 결과 (성공/실패 개수)
+     * @return 전송 결과 (성공/실패 개수, 원래 토큰 순서 유지)
      */
-    public BatchResponse sendBatchNotification(List<String> deviceTokens, String title, String body, Map<String, String> data) {
-        try {
-            if (deviceTokens == null || deviceTokens.isEmpty()) {
-                log.warn("⚠️ No device tokens provided for batch notification");
-                return null;
-            }
-
-            // 멀티캐스트 메시지 빌더 생성
-            MulticastMessage.Builder messageBuilder = MulticastMessage.builder()
-                    .addAllTokens(deviceTokens)
-                    .setNotification(Notification.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .build());
-
-            // 추가 데이터가 있으면 추가
-            if (data != null && !data.isEmpty()) {
-                messageBuilder.putAllData(data);
-            }
+    public FanOutResult sendBatchNotification(List<String> deviceTokens, String title, String body, Map<String, String> data) {
+        return sendBatchNotification(deviceTokens, title, body, data, NotificationTemplateRegistry.DEFAULT);
+    }
 
-            // Android 설정
-            messageBuilder.setAndroidConfig(AndroidConfig.builder()
-                    .setPriority(AndroidConfig.Priority.HIGH)
-                    .setNotification(AndroidNotification.builder()
-                            .setSound("default")
-                            .setColor("#3b82f6")
-                            .setChannelId("default")
-                            .build())
-                    .build());
-
-            // iOS 설정
-            messageBuilder.setApnsConfig(ApnsConfig.builder()
-                    .setAps(Aps.builder()
-                            .setSound("default")
-                            .setBadge(1)
-                            .setContentAvailable(true)
-                            .build())
-                    .build());
-
-            MulticastMessage message = messageBuilder.build();
-
-            // FCM 배치 전송
-            BatchResponse response = FirebaseMessaging.getInstance().sendMulticast(message);
-
-            log.info("✅ Batch notification sent: {} success, {} failures out of {} tokens",
-                    response.getSuccessCount(),
-                    response.getFailureCount(),
-                    deviceTokens.size());
-
-            // 실패한 토큰 로깅
-            if (response.getFailureCount() > 0) {
-                List<SendResponse> responses = response.getResponses();
-                for (int i = 0; i < responses.size(); i++) {
-                    if (!responses.get(i).isSuccessful()) {
-                        log.error("❌ Failed to send to token {}: {}",
-                                maskToken(deviceTokens.get(i)),
-                                responses.get(i).getException().getMessage());
-                    }
-                }
-            }
+    /**
+     * 여러 디바이스에 지정한 템플릿으로 푸시 알림 전송 (배치)
+     *
+     * @param templateName 알림 템플릿 이름 (예: "default")
+     * @return 전송 결과 (성공/실패 개수, 원래 토큰 순서 유지)
+     */
+    public FanOutResult sendBatchNotification(List<String> deviceTokens, String title, String body,
+                                              Map<String, String> data, String templateName) {
+        return sendBatchNotification(deviceTokens, title, body, data, templateName, undelivered -> {
+        });
+    }
 
-            return response;
+    /**
+     * 여러 디바이스에 지정한 템플릿으로 푸시 알림 전송 (배치, 일시적 오류의 최종 실패 통보)
+     *
+     * @param onUndelivered 일시적 오류로 실패했지만 끝내 전달하지 못한 토큰을 받는 콜백
+     *                      (재시도를 예약하지 못한 토큰은 반환 전에 한 번에, 재시도를 포기한 토큰은 그때마다 호출)
+     * @return 전송 결과 (성공/실패 개수, 원래 토큰 순서 유지)
+     */
+    public FanOutResult sendBatchNotification(List<String> deviceTokens, String title, String body,
+                                              Map<String, String> data, String templateName,
+                                              Consumer<List<String>> onUndelivered) {
+        if (deviceTokens == null || deviceTokens.isEmpty()) {
+            log.warn("⚠️ No device tokens provided for batch notification");
+            return FanOutResult.empty();
+        }
 
-        } catch (FirebaseMessagingException e) {
-            log.error("❌ Failed to send batch FCM messages", e);
-            throw new RuntimeException("FCM 배치 전송 실패: " + e.getMessage(), e);
+        // 이미 만료된 것으로 알려진 토큰은 메시지를 만들기 전에 제외
+        List<String> liveTokens = deadTokenFilter.filterLive(deviceTokens);
+
+        Lane lane = messageFactory.lane(templateName);
+        long startedAt = System.nanoTime();
+        FanOutResult result = multicastFanOut.send(liveTokens, lane,
+                chunk -> messageFactory.multicast(chunk, title, body, data, templateName));
+        metrics.recordLatency(SendMethod.BATCH, null, System.nanoTime() - startedAt);
+        metrics.recordBatchSize(SendMethod.BATCH, liveTokens.size());
+
+        log.info("✅ Batch notification sent: {} success, {} failures out of {} tokens ({} skipped as dead)",
+                result.getSuccessCount(),
+                result.getFailureCount(),
+                deviceTokens.size(),
+                deviceTokens.size() - liveTokens.size());
+
+        // 만료 토큰 정리
+        tokenFeedbackProcessor.process(result);
+
+        // 감사 기록 (큐에 넣기만 하고 저장은 백그라운드에서 일괄 처리)
+        auditWriter.recordFanOut(SendMethod.BATCH, result);
+
+        // 일시적 오류로 실패한 토큰은 개별 메시지로 재시도 예약
+        List<String> unscheduled = scheduleTransientRetries(result, lane,
+                token -> messageFactory.notification(token, title, body, data, templateName), onUndelivered);
+        if (!unscheduled.isEmpty()) {
+            onUndelivered.accept(unscheduled);
         }
+
+        return result;
     }
 
     /**
@@ -183,33 +246,72 @@ public class FCMService {
      * @param deviceToken FCM 디바이스 토큰
      * @param data 전송할 데이터
      * @return 전송 결과 메시지 ID
+     * @throws IllegalArgumentException 만료된 토큰 (전송하지 않음)
      */
     public String sendDataMessage(String deviceToken, Map<String, String> data) {
+        if (deadTokenFilter.isDead(deviceToken)) {
+            throw new IllegalArgumentException("만료된 FCM 토큰입니다");
+        }
+        Message message = messageFactory.data(deviceToken, data, NotificationTemplateRegistry.DATA);
+        Lane lane = messageFactory.lane(NotificationTemplateRegistry.DATA);
+        throttle(lane);
+        long startedAt = System.nanoTime();
         try {
-            Message message = Message.builder()
-                    .setToken(deviceToken)
-                    .putAllData(data)
-                    .setAndroidConfig(AndroidConfig.builder()
-                            .setPriority(AndroidConfig.Priority.HIGH)
-                            .build())
-                    .setApnsConfig(ApnsConfig.builder()
-                            .setAps(Aps.builder()
-                                    .setContentAvailable(true)
-                                    .build())
-                            .build())
-                    .build();
-
-            String response = FirebaseMessaging.getInstance().send(message);
+            String response = messagingBackend.send(message);
             log.info("✅ Data message sent: {} to token: {}", response, maskToken(deviceToken));
+            metrics.recordResults(SendMethod.DATA, 1, 0);
+            auditWriter.record(SendMethod.DATA, null, deviceToken, SendResult.success(response));
 
             return response;
 
-        } catch (FirebaseMessagingException e) {
+        } catch (FirebaseMessagingException | FCMSendException e) {
             log.error("❌ Failed to send data message to token: {}", maskToken(deviceToken), e);
-            throw new RuntimeException("FCM 데이터 메시지 전송 실패: " + e.getMessage(), e);
+            recordFailure(SendMethod.DATA, e);
+            auditWriter.record(SendMethod.DATA, null, deviceToken, SendResult.from(e));
+            tokenFeedbackProcessor.onSendFailure(deviceToken, e);
+            throw failWithRetry(message, deviceToken, lane, FCMSendException.from("FCM 데이터 메시지 전송 실패", e));
+        } finally {
+            metrics.recordLatency(SendMethod.DATA, null, System.nanoTime() - startedAt);
         }
     }
 
+    /**
+     * 데이터 전용 메시지 비동기 전송
+     *
+     * @param deviceToken FCM 디바이스 토큰
+     * @param data 전송할 데이터
+     * @return 전송 완료 시 메시지 ID로 완료되는 Future
+     */
+    public CompletableFuture<String> sendDataMessageAsync(String deviceToken, Map<String, String> data) {
+        return sendDataMessageAsync(deviceToken, null, data);
+    }
+
+    /**
+     * 수신 플랫폼을 알고 있는 디바이스에 데이터 전용 메시지 비동기 전송
+     *
+     * @param platform "android", "ios" 또는 null
+     * @return 전송 완료 시 메시지 ID로 완료되는 Future
+     */
+    public CompletableFuture<String> sendDataMessageAsync(String deviceToken, String platform, Map<String, String> data) {
+        return sendDataMessageAsync(deviceToken, platform, data, NotificationTemplateRegistry.DATA);
+    }
+
+    /**
+     * 지정한 템플릿(레인)으로 데이터 전용 메시지 비동기 전송
+     *
+     * @param templateName 알림 템플릿 이름 (예: "alert"는 critical 레인)
+     * @return 전송 완료 시 메시지 ID로 완료되는 Future
+     */
+    public CompletableFuture<String> sendDataMessageAsync(String deviceToken, String platform, Map<String, String> data,
+                                                          String templateName) {
+        if (deadTokenFilter.isDead(deviceToken)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("만료된 FCM 토큰입니다"));
+        }
+        return withFeedback(deviceToken, retryScheduler.send(
+                messageFactory.data(deviceToken, data, templateName),
+                deviceToken, platform, messageFactory.lane(templateName)));
+    }
+
     /**
      * 특정 토픽에 푸시 알림 전송
      *
@@ -219,43 +321,138 @@ public class FCMService {
      * @return 전송 결과 메시지 ID
      */
     public String sendToTopic(String topic, String title, String body) {
+        return sendToTopic(topic, title, body, null);
+    }
+
+    /**
+     * 특정 토픽에 데이터와 함께 푸시 알림 전송
+     *
+     * @param data 추가 데이터 (없으면 null)
+     * @return 전송 결과 메시지 ID
+     */
+    public String sendToTopic(String topic, String title, String body, Map<String, String> data) {
+        return sendToTopic(topic, title, body, data, NotificationTemplateRegistry.TOPIC);
+    }
+
+    /**
+     * 지정한 템플릿으로 토픽 알림 전송 (예: "bulk"는 FCM NORMAL 우선순위)
+     *
+     * @param templateName 알림 템플릿 이름
+     * @return 전송 결과 메시지 ID
+     */
+    public String sendToTopic(String topic, String title, String body, Map<String, String> data, String templateName) {
+        Message message = messageFactory.topic(topic, title, body, data, templateName);
+        Lane lane = messageFactory.lane(templateName);
+
+        throttle(lane);
+        long startedAt = System.nanoTime();
         try {
-            Message message = Message.builder()
-                    .setTopic(topic)
-                    .setNotification(Notification.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .build())
-                    .setAndroidConfig(AndroidConfig.builder()
-                            .setPriority(AndroidConfig.Priority.HIGH)
-                            .setNotification(AndroidNotification.builder()
-                                    .setSound("default")
-                                    .setColor("#3b82f6")
-                                    .build())
-                            .build())
-                    .setApnsConfig(ApnsConfig.builder()
-                            .setAps(Aps.builder()
-                                    .setSound("default")
-                                    .build())
-                            .build())
-                    .build();
-
-            String response = FirebaseMessaging.getInstance().send(message);
+            String response = messagingBackend.send(message);
             log.info("✅ Topic message sent: {} to topic: {}", response, topic);
+            metrics.recordResults(SendMethod.TOPIC, 1, 0);
+            auditWriter.record(SendMethod.TOPIC, null, "/topics/" + topic, SendResult.success(response));
 
             return response;
 
-        } catch (FirebaseMessagingException e) {
+        } catch (FirebaseMessagingException | FCMSendException e) {
             log.error("❌ Failed to send topic message to: {}", topic, e);
-            throw new RuntimeException("FCM 토픽 메시지 전송 실패: " + e.getMessage(), e);
+            recordFailure(SendMethod.TOPIC, e);
+            auditWriter.record(SendMethod.TOPIC, null, "/topics/" + topic, SendResult.from(e));
+            throw failWithRetry(message, null, lane, FCMSendException.from("FCM 토픽 메시지 전송 실패", e));
+        } finally {
+            metrics.recordLatency(SendMethod.TOPIC, null, System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * 동기 전송 경로의 전역 속도 제한 (한도를 넘으면 호출 스레드가 기다림)
+     */
+    private void throttle(Lane lane) {
+        try {
+            rateLimiter.acquire(1, lane);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FCMSendException("FCM 전송 대기 중 중단되었습니다", null, null, false, e);
         }
     }
 
+    /**
+     * 실패 지표 기록 (FirebaseMessagingException 또는 전송 계층이 변환한 FCMSendException)
+     */
+    private void recordFailure(SendMethod method, Exception e) {
+        metrics.recordResults(method, 0, 1);
+        metrics.recordError(method, SendResult.from(e).errorCode());
+    }
+
+    /**
+     * 동기 전송 실패 처리
+     * 일시적 오류면 백그라운드 재시도를 예약하고, 예약 여부를 담은 예외를 반환합니다.
+     */
+    private FCMSendException failWithRetry(Message message, String deviceToken, Lane lane, FCMSendException failure) {
+        if (retryScheduler.scheduleRetry(message, deviceToken, lane, failure)) {
+            log.warn("🔁 Transient FCM error ({}), retry scheduled", failure.getErrorCode());
+            return failure.withRetryScheduled();
+        }
+        return failure;
+    }
+
+    /**
+     * 일시적 오류로 실패한 토큰을 개별 메시지로 재시도 예약 (재시도를 포기하면 onRetryFailed 호출)
+     *
+     * @return 재시도를 예약하지 못한 토큰 (대기열이 가득 찼거나 종료 중)
+     */
+    private List<String> scheduleTransientRetries(FanOutResult result, Lane lane, Function<String, Message> messageFactory,
+                                                  Consumer<List<String>> onRetryFailed) {
+        List<String> unscheduled = new ArrayList<>();
+        int scheduled = 0;
+        List<SendResult> results = result.getResults();
+        for (int i = 0; i < results.size(); i++) {
+            SendResult sendResult = results.get(i);
+            if (sendResult.isSuccessful()) {
+                continue;
+            }
+            FCMSendException failure = sendResult.toException();
+            String token = result.getTokens().get(i);
+            if (!failure.isTransient()) {
+                continue;
+            }
+            CompletableFuture<String> retried = new CompletableFuture<>();
+            if (retryScheduler.scheduleRetry(messageFactory.apply(token), token, lane, failure, retried)) {
+                retried.whenComplete((messageId, e) -> {
+                    if (e != null) {
+                        onRetryFailed.accept(List.of(token));
+                    }
+                });
+                scheduled++;
+            } else {
+                unscheduled.add(token);
+            }
+        }
+        if (scheduled > 0) {
+            log.warn("🔁 {} tokens failed with transient errors, retries scheduled", scheduled);
+        }
+        if (!unscheduled.isEmpty()) {
+            log.warn("⚠️ {} tokens failed with transient errors but could not be retried", unscheduled.size());
+        }
+        return unscheduled;
+    }
+
+    /**
+     * 전송 실패 시 만료 토큰 여부를 피드백 처리기에 전달
+     */
+    private CompletableFuture<String> withFeedback(String deviceToken, CompletableFuture<String> future) {
+        return future.whenComplete((messageId, e) -> {
+            if (e != null) {
+                tokenFeedbackProcessor.onSendFailure(deviceToken, e);
+            }
+        });
+    }
+
     /**
      * 토큰 마스킹 (로그용)
      * 토큰의 앞 10자와 뒤 10자만 표시
      */
-    private String maskToken(String token) {
+    public static String maskToken(String token) {
         if (token == null || token.length() < 20) {
             return "***";
         }
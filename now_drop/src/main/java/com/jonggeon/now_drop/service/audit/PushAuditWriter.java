@@ -0,0 +1,231 @@
+package com.jonggeon.now_drop.service.audit;
+
+import com.jonggeon.now_drop.service.FCMService;
+import com.jonggeon.now_drop.service.dispatch.FanOutResult;
+import com.jonggeon.now_drop.service.dispatch.SendResult;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics.SendMethod;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 푸시 전송 감사 기록 (write-behind)
+ *
+ * 전송 경로에서는 결과를 메모리 큐에 넣기만 하고, 전용 스레드가 모아서 push_audit에 JDBC 배치로 기록합니다.
+ * 성공/실패를 나눠 각각 한 문장의 배치로 보내며, 드라이버의 reWriteBatchedInserts로 여러 행 INSERT가 되므로
+ * 5만 토큰 팬아웃의 감사 기록도 Hibernate 엔티티 저장 없이 수십 번의 왕복으로 끝납니다.
+ * 큐가 가득 차면 전송을 늦추지 않고 감사 기록을 버리며 push.audit.dropped로 집계합니다.
+ * 토큰은 로그와 같은 방식으로 마스킹해서 저장하고, 토픽 대상("/topics/...")만 그대로 남깁니다.
+ */
+@Slf4j
+@Component
+public class PushAuditWriter {
+
+    private static final String TOPIC_TARGET_PREFIX = "/topics/";
+
+    private static final String INSERT_SENT_SQL = """
+            INSERT INTO push_audit (batch_id, method, target, status, message_id, created_at)
+            VALUES (?, ?, ?, 'sent', ?, ?)
+            """;
+
+    private static final String INSERT_FAILED_SQL = """
+            INSERT INTO push_audit (batch_id, method, target, status, error_code, created_at)
+            VALUES (?, ?, ?, 'failed', ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int flushBatchSize;
+    private final Duration flushInterval;
+    private final BlockingQueue<AuditRecord> queue;
+
+    private final Counter dropped;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PushAuditWriter(JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${fcm.audit.enabled:true}") boolean enabled,
+                           @Value("${fcm.audit.queue-capacity:200000}") int queueCapacity,
+                           @Value("${fcm.audit.flush-batch-size:5000}") int flushBatchSize,
+                           @Value("${fcm.audit.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.flushBatchSize = Math.max(flushBatchSize, 1);
+        this.flushInterval = Duration.ofMillis(Math.max(flushIntervalMillis, 1));
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, this.flushBatchSize));
+
+        this.dropped = Counter.builder("push.audit.dropped")
+                .description("큐가 가득 차서 버린 감사 기록 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("push.audit.flush")
+                .description("감사 기록 배치 저장 시간")
+                .register(meterRegistry);
+        Gauge.builder("push.audit.pending", queue::size)
+                .description("저장 대기 중인 감사 기록 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("ℹ️ Push audit disabled");
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("push-audit-writer")
+                .daemon(true)
+                .start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // 남은 기록 저장
+        List<AuditRecord> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * 메시지 한 건의 결과 기록
+     *
+     * @param target 토큰 또는 "/topics/{topic}" (토큰은 마스킹되어 저장됨)
+     */
+    public void record(SendMethod method, UUID batchId, String target, SendResult result) {
+        if (!enabled) {
+            return;
+        }
+        offer(new AuditRecord(batchId, method, auditTarget(target), result, Instant.now()));
+    }
+
+    /**
+     * 팬아웃 결과 전체 기록 (같은 batch_id로 묶임)
+     */
+    public void recordFanOut(SendMethod method, FanOutResult result) {
+        if (!enabled || result.getTokens().isEmpty()) {
+            return;
+        }
+        UUID batchId = UUID.randomUUID();
+        Instant now = Instant.now();
+        List<String> tokens = result.getTokens();
+        List<SendResult> results = result.getResults();
+        for (int i = 0; i < tokens.size(); i++) {
+            offer(new AuditRecord(batchId, method, auditTarget(tokens.get(i)), results.get(i), now));
+        }
+    }
+
+    private static String auditTarget(String target) {
+        if (target != null && target.startsWith(TOPIC_TARGET_PREFIX)) {
+            return target;
+        }
+        return FCMService.maskToken(target);
+    }
+
+    private void offer(AuditRecord record) {
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(flushBatchSize);
+        while (running) {
+            try {
+                AuditRecord first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, flushBatchSize - 1);
+                flush(batch);
+                batch.clear();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 상태별로 나눠 배치 INSERT (실패해도 전송에는 영향 없음)
+     *
+     * 두 문장은 따로 커밋되므로 실패한 문장의 기록만 버린 것으로 집계합니다.
+     */
+    private void flush(List<AuditRecord> batch) {
+        List<AuditRecord> sent = new ArrayList<>(batch.size());
+        List<AuditRecord> failed = new ArrayList<>();
+        for (AuditRecord record : batch) {
+            (record.result().isSuccessful() ? sent : failed).add(record);
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            boolean sentWritten = insert(INSERT_SENT_SQL, sent, record -> record.result().messageId());
+            boolean failedWritten = insert(INSERT_FAILED_SQL, failed, record ->
+                    record.result().errorCode() != null ? record.result().errorCode().name() : "UNKNOWN");
+            if (sentWritten && failedWritten) {
+                log.debug("💾 Audited {} sent, {} failed pushes", sent.size(), failed.size());
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean insert(String sql, List<AuditRecord> records, Function<AuditRecord, String> detail) {
+        if (records.isEmpty()) {
+            return true;
+        }
+        try {
+            jdbcTemplate.batchUpdate(sql, records, records.size(), (ps, record) -> {
+                ps.setObject(1, record.batchId());
+                ps.setString(2, methodTag(record.method()));
+                ps.setString(3, record.target());
+                ps.setString(4, detail.apply(record));
+                ps.setTimestamp(5, Timestamp.from(record.recordedAt()));
+            });
+            return true;
+
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to write {} push audit records", records.size(), e);
+            dropped.increment(records.size());
+            return false;
+        }
+    }
+
+    private static String methodTag(SendMethod method) {
+        return method.name().toLowerCase(Locale.ROOT);
+    }
+
+    private record AuditRecord(UUID batchId, SendMethod method, String target, SendResult result, Instant recordedAt) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.jonggeon.now_drop.service.backend;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.ThreadManager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 크기가 제한된 Firebase SDK 스레드 관리자
+ *
+ * SDK 기본 관리자는 캐시 스레드 풀을 써서, sendEach가 메시지마다 넣는 비동기 요청 수만큼 스레드가 늘어납니다
+ * (500개 청크 8개가 동시에 나가면 수천 개).
+ * 스레드 수를 HTTP 연결 수에 맞춰 고정하고 대기열도 제한하며, 대기열이 가득 차면 요청한 스레드(팬아웃 전송 스레드)가
+ * 직접 실행하므로 작업을 버리지 않고 제출 속도만 늦춥니다.
+ */
+public class BoundedThreadManager extends ThreadManager {
+
+    private final int threads;
+    private final int queueCapacity;
+    private final ThreadFactory threadFactory = Thread.ofPlatform()
+            .name("firebase-sdk-", 0)
+            .daemon(true)
+            .factory();
+
+    public BoundedThreadManager(int threads, int queueCapacity) {
+        this.threads = Math.max(threads, 1);
+        this.queueCapacity = Math.max(queueCapacity, 1);
+    }
+
+    @Override
+    protected ExecutorService getExecutor(FirebaseApp app) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    protected void releaseExecutor(FirebaseApp app, ExecutorService executor) {
+        executor.shutdownNow();
+    }
+
+    @Override
+    protected ThreadFactory getThreadFactory() {
+        return threadFactory;
+    }
+}
@@ -0,0 +1,199 @@
+package com.jonggeon.now_drop.service.backend;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.jonggeon.now_drop.service.dispatch.FCMSendException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 관리형 FirebaseMessaging 클라이언트
+ *
+ * 서비스 계정 읽기와 FirebaseApp 초기화를 시작 경로 밖의 전용 스레드에서 하고,
+ * 초기화 직후 dry-run 전송 한 번으로 OAuth 액세스 토큰 발급과 FCM HTTPS 연결을 미리 해 둡니다.
+ * 예열이 끝나야 준비 완료(READY)로 보고하므로 콜드 파드의 첫 알림이 토큰 발급을 기다리지 않습니다.
+ * 이후에도 keep-warm 주기마다 dry-run을 보내, 만료가 가까운 토큰은 전송 요청이 아닌 이 호출에서 갱신되고
+ * 유휴 연결도 닫히지 않게 합니다.
+ * 초기화가 끝나기 전의 전송은 await-timeout만큼 기다리고, 그래도 안 되면 원인을 담은 FCMSendException을 던집니다.
+ * HTTP 전송 계층, 타임아웃, SDK 스레드 풀은 optionsCustomizer로 설정 클래스에서 지정합니다.
+ */
+@Slf4j
+public class FirebaseClient implements Supplier<FirebaseMessaging> {
+
+    /**
+     * 예열용 dry-run 메시지 토픽 (dry-run이므로 실제로 전달되지 않음)
+     */
+    static final String WARM_UP_TOPIC = "now-drop-warm-up";
+
+    public enum State {
+        INITIALIZING, WARMING_UP, READY, FAILED
+    }
+
+    private final Resource credentialsResource;
+    private final Duration awaitTimeout;
+    private final Duration keepWarmInterval;
+    private final UnaryOperator<FirebaseOptions.Builder> optionsCustomizer;
+
+    private final CompletableFuture<FirebaseMessaging> initialized = new CompletableFuture<>();
+    private volatile FirebaseMessaging messaging;
+    private volatile State state = State.INITIALIZING;
+    private volatile Throwable failure;
+    private volatile Duration initDuration;
+    private volatile Instant lastWarmUpAt;
+
+    private ScheduledExecutorService executor;
+
+    public FirebaseClient(Resource credentialsResource, Duration awaitTimeout, Duration keepWarmInterval,
+                          UnaryOperator<FirebaseOptions.Builder> optionsCustomizer) {
+        this.credentialsResource = credentialsResource;
+        this.awaitTimeout = awaitTimeout;
+        this.keepWarmInterval = keepWarmInterval;
+        this.optionsCustomizer = optionsCustomizer;
+    }
+
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("firebase-client")
+                .daemon(true)
+                .factory());
+        executor.execute(this::initialize);
+        executor.scheduleWithFixedDelay(this::keepWarm,
+                keepWarmInterval.toMillis(), keepWarmInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 전송에 쓸 FirebaseMessaging (초기화 중이면 await-timeout까지 기다림)
+     *
+     * @throws FCMSendException 초기화가 끝나지 않았으면 UNAVAILABLE(일시적 오류), 초기화에 실패했으면 오류 코드 없음
+     */
+    @Override
+    public FirebaseMessaging get() {
+        FirebaseMessaging current = messaging;
+        if (current != null) {
+            return current;
+        }
+        try {
+            return initialized.get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            throw new FCMSendException("Firebase 초기화가 아직 끝나지 않았습니다", MessagingErrorCode.UNAVAILABLE, null, false, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FCMSendException("Firebase 초기화 대기 중 중단되었습니다", null, null, false, e);
+        } catch (ExecutionException e) {
+            throw new FCMSendException("Firebase 초기화 실패: " + e.getCause().getMessage(), null, null, false, e.getCause());
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public Duration getInitDuration() {
+        return initDuration;
+    }
+
+    public Instant getLastWarmUpAt() {
+        return lastWarmUpAt;
+    }
+
+    private void initialize() {
+        long startedAt = System.nanoTime();
+        try {
+            if (!credentialsResource.exists()) {
+                throw new FileNotFoundException(credentialsResource.getDescription() + "을(를) 찾을 수 없습니다");
+            }
+
+            GoogleCredentials credentials;
+            try (InputStream in = credentialsResource.getInputStream()) {
+                credentials = GoogleCredentials.fromStream(in);
+            }
+
+            FirebaseApp app = FirebaseApp.getApps().stream()
+                    .filter(existing -> FirebaseApp.DEFAULT_APP_NAME.equals(existing.getName()))
+                    .findFirst()
+                    .orElseGet(() -> FirebaseApp.initializeApp(optionsCustomizer
+                            .apply(FirebaseOptions.builder().setCredentials(credentials))
+                            .build()));
+            FirebaseMessaging instance = FirebaseMessaging.getInstance(app);
+
+            messaging = instance;
+            state = State.WARMING_UP;
+            initialized.complete(instance);
+            log.info("✅ Firebase initialized in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            state = State.FAILED;
+            initialized.completeExceptionally(e);
+            log.error("❌ Failed to initialize Firebase: {}", e.getMessage(), e);
+            return;
+        }
+
+        keepWarm();
+        initDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+    }
+
+    /**
+     * dry-run 전송으로 액세스 토큰과 연결을 예열
+     * FCM이 응답했다면 오류 응답이어도 토큰 발급과 연결은 된 것이므로 예열로 봅니다.
+     */
+    private void keepWarm() {
+        FirebaseMessaging current = messaging;
+        if (current == null) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            current.send(Message.builder().setTopic(WARM_UP_TOPIC).build(), true);
+            warmedUp(startedAt);
+
+        } catch (FirebaseMessagingException e) {
+            if (e.getHttpResponse() != null) {
+                warmedUp(startedAt);
+            } else {
+                log.warn("⚠️ Firebase warm-up failed, will retry in {}: {}", keepWarmInterval, e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Firebase warm-up failed, will retry in {}: {}", keepWarmInterval, e.getMessage());
+        }
+    }
+
+    private void warmedUp(long startedAt) {
+        lastWarmUpAt = Instant.now();
+        if (state != State.READY) {
+            state = State.READY;
+            log.info("🔥 Firebase access token and connection warmed up in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+}
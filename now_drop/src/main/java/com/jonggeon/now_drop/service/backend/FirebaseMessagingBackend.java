@@ -0,0 +1,50 @@
+package com.jonggeon.now_drop.service.backend;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.TopicManagementResponse;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Firebase Admin SDK 기반 전송 백엔드
+ *
+ * FirebaseApp은 백그라운드에서 나중에 초기화될 수 있으므로 FirebaseMessaging은 전송 시점에 가져옵니다.
+ */
+public class FirebaseMessagingBackend implements MessagingBackend {
+
+    private final Supplier<FirebaseMessaging> firebaseMessaging;
+
+    public FirebaseMessagingBackend(Supplier<FirebaseMessaging> firebaseMessaging) {
+        this.firebaseMessaging = firebaseMessaging;
+    }
+
+    @Override
+    public String send(Message message) throws FirebaseMessagingException {
+        return firebaseMessaging.get().send(message);
+    }
+
+    @Override
+    public BatchResponse sendEach(List<Message> messages) throws FirebaseMessagingException {
+        return firebaseMessaging.get().sendEach(messages);
+    }
+
+    @Override
+    public BatchResponse sendEachForMulticast(MulticastMessage message) throws FirebaseMessagingException {
+        return firebaseMessaging.get().sendEachForMulticast(message);
+    }
+
+    @Override
+    public TopicManagementResponse subscribeToTopic(List<String> tokens, String topic) throws FirebaseMessagingException {
+        return firebaseMessaging.get().subscribeToTopic(tokens, topic);
+    }
+
+    @Override
+    public TopicManagementResponse unsubscribeFromTopic(List<String> tokens, String topic) throws FirebaseMessagingException {
+        return firebaseMessaging.get().unsubscribeFromTopic(tokens, topic);
+    }
+}
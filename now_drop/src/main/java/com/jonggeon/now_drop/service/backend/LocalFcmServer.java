@@ -0,0 +1,217 @@
+package com.jonggeon.now_drop.service.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로컬 가짜 FCM HTTP v1 서버 (부하 테스트용)
+ *
+ * localhost에서 messages:send 요청을 받아 설정된 지연 시간 후 FCM과 같은 형식으로 응답합니다.
+ * 오류율(UNAVAILABLE/INTERNAL), 초당 처리 한도(초과 시 429 + Retry-After),
+ * "unregistered-"로 시작하는 토큰에 대한 UNREGISTERED 응답을 흉내 내므로
+ * (토픽 구독 API인 iid batchAdd/batchRemove도 같은 방식으로 응답)
+ * 재시도, 만료 토큰 정리 경로까지 네트워크 없이 실행해 볼 수 있습니다.
+ */
+@Slf4j
+public class LocalFcmServer {
+
+    public static final String PROJECT_ID = "now-drop-local";
+
+    /**
+     * 이 접두사로 시작하는 토큰은 UNREGISTERED로 응답
+     */
+    public static final String UNREGISTERED_TOKEN_PREFIX = "unregistered-";
+
+    private static final String MESSAGE_NAME_PREFIX = "projects/" + PROJECT_ID + "/messages/";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final int requestedPort;
+    private final Duration latency;
+    private final Duration latencyJitter;
+    private final double errorRate;
+    private final int throttlePerSecond;
+    private final Duration retryAfter;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong currentWindow = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public LocalFcmServer(int port, Duration latency, Duration latencyJitter,
+                          double errorRate, int throttlePerSecond, Duration retryAfter) {
+        this.requestedPort = port;
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.errorRate = Math.min(Math.max(errorRate, 0.0), 1.0);
+        this.throttlePerSecond = throttlePerSecond;
+        this.retryAfter = retryAfter;
+    }
+
+    public void start() throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort), 1024);
+        server.createContext("/v1/projects/", this::handle);
+        server.createContext("/iid/", this::handleTopicManagement);
+        server.setExecutor(executor);
+        server.start();
+        log.info("🧪 Local FCM server listening on port {} (latency {}±{}ms, error rate {}, throttle {}/s)",
+                getPort(), latency.toMillis(), latencyJitter.toMillis(), errorRate, throttlePerSecond);
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            log.info("🧪 Local FCM server stopped ({} accepted, {} failed, {} throttled)",
+                    accepted.sum(), failed.sum(), throttled.sum());
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * FCM 요청 URL을 로컬 서버 주소로 바꿈 (경로와 쿼리는 유지)
+     */
+    public URL rewrite(URL url) throws MalformedURLException {
+        return new URL("http", server.getAddress().getHostString(), getPort(), url.getFile());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error(405, "Method not allowed", "INVALID_ARGUMENT", "INVALID_ARGUMENT"));
+                return;
+            }
+
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            simulateLatency();
+
+            if (isThrottled()) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(retryAfter.toSeconds()));
+                respond(exchange, 429, error(429, "Quota exceeded", "RESOURCE_EXHAUSTED", "QUOTA_EXCEEDED"));
+                return;
+            }
+
+            if (body.contains("\"token\":\"" + UNREGISTERED_TOKEN_PREFIX)) {
+                failed.increment();
+                respond(exchange, 404, error(404, "Requested entity was not found.", "NOT_FOUND", "UNREGISTERED"));
+                return;
+            }
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failed.increment();
+                if (ThreadLocalRandom.current().nextBoolean()) {
+                    respond(exchange, 503, error(503, "The service is currently unavailable.", "UNAVAILABLE", "UNAVAILABLE"));
+                } else {
+                    respond(exchange, 500, error(500, "Internal error encountered.", "INTERNAL", "INTERNAL"));
+                }
+                return;
+            }
+
+            accepted.increment();
+            respond(exchange, 200, "{\"name\":\"" + MESSAGE_NAME_PREFIX + sequence.incrementAndGet() + "\"}");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 토픽 구독/해제 ({"results": [{}, {"error": "NOT_FOUND"}, ...]}, 토큰 순서대로)
+     */
+    private void handleTopicManagement(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            List<String> tokens = new ArrayList<>();
+            try (InputStream in = exchange.getRequestBody()) {
+                OBJECT_MAPPER.readTree(in).path("registration_tokens").forEach(token -> tokens.add(token.asText()));
+            }
+
+            simulateLatency();
+
+            StringBuilder results = new StringBuilder("{\"results\":[");
+            for (int i = 0; i < tokens.size(); i++) {
+                if (i > 0) {
+                    results.append(',');
+                }
+                results.append(tokens.get(i).startsWith(UNREGISTERED_TOKEN_PREFIX) ? "{\"error\":\"NOT_FOUND\"}" : "{}");
+            }
+            respond(exchange, 200, results.append("]}").toString());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long millis = latency.toMillis();
+        if (!latencyJitter.isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(latencyJitter.toMillis() + 1);
+        }
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * 1초 고정 윈도우 카운터로 초당 처리 한도 적용
+     */
+    private boolean isThrottled() {
+        if (throttlePerSecond <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long window = currentWindow.get();
+        if (window != second && currentWindow.compareAndSet(window, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() > throttlePerSecond;
+    }
+
+    private static String error(int code, String message, String status, String fcmErrorCode) {
+        return """
+                {"error":{"code":%d,"message":"%s","status":"%s","details":[\
+                {"@type":"type.googleapis.com/google.firebase.fcm.v1.FcmError","errorCode":"%s"}]}}"""
+                .formatted(code, message, status, fcmErrorCode);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.jonggeon.now_drop.service.backend;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.TopicManagementResponse;
+
+import java.util.List;
+
+/**
+ * FCM 전송 백엔드
+ *
+ * 전송 경로(FCMService, 디스패처, 팬아웃)는 FirebaseMessaging 싱글턴 대신 이 인터페이스를 사용합니다.
+ * fcm.backend 설정으로 실제 FCM(firebase, 기본값)과 로컬 가짜 FCM 서버(local) 중에서 고릅니다.
+ */
+public interface MessagingBackend {
+
+    /**
+     * 단일 메시지 전송
+     *
+     * @return FCM 메시지 ID
+     */
+    String send(Message message) throws FirebaseMessagingException;
+
+    /**
+     * 메시지 목록 전송 (최대 500개, 응답은 요청 순서와 같음)
+     */
+    BatchResponse sendEach(List<Message> messages) throws FirebaseMessagingException;
+
+    /**
+     * 멀티캐스트 메시지 전송 (최대 500개 토큰, 응답은 토큰 순서와 같음)
+     */
+    BatchResponse sendEachForMulticast(MulticastMessage message) throws FirebaseMessagingException;
+
+    /**
+     * 토큰을 토픽에 구독 (최대 1000개, 오류는 토큰 인덱스로 보고됨)
+     */
+    TopicManagementResponse subscribeToTopic(List<String> tokens, String topic) throws FirebaseMessagingException;
+
+    /**
+     * 토큰의 토픽 구독 해제 (최대 1000개)
+     */
+    TopicManagementResponse unsubscribeFromTopic(List<String> tokens, String topic) throws FirebaseMessagingException;
+}
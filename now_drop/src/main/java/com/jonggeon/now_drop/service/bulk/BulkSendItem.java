@@ -0,0 +1,12 @@
+package com.jonggeon.now_drop.service.bulk;
+
+import java.util.Map;
+
+/**
+ * 대량 개인화 전송의 항목 한 건 (수신자마다 제목/내용/데이터가 다름)
+ *
+ * @param id 호출한 쪽의 식별자 (없으면 null, 결과에 그대로 돌려줌)
+ * @param data 추가 데이터 (없으면 빈 맵)
+ */
+public record BulkSendItem(String id, String token, String title, String body, Map<String, String> data) {
+}
@@ -0,0 +1,134 @@
+package com.jonggeon.now_drop.service.bulk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 대량 개인화 전송 스트리밍 파서
+ *
+ * JSON 배열과 NDJSON을 모두 받으며, 요청 전체를 DTO로 바인딩하지 않고 항목을 읽는 대로 넘기므로
+ * 항목 수와 관계없이 메모리 사용량이 일정합니다.
+ * 항목 형식은 {"id": "...", "token": "...", "title": "...", "body": "...", "data": {"k": "v"}} 입니다.
+ */
+@Component
+public class BulkSendReader {
+
+    private final JsonFactory jsonFactory;
+
+    public BulkSendReader(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 요청 본문의 항목을 순서대로 consumer로 전달
+     *
+     * @return 읽은 항목 수
+     * @throws JsonParseException JSON 형식 자체가 깨졌거나 배열 뒤에 다른 값이 있는 경우
+     */
+    public int read(InputStream in, ItemConsumer consumer) throws IOException {
+        int index = 0;
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "전송 항목은 JSON 객체여야 합니다");
+                }
+                consumer.accept(index++, readItem(parser));
+                token = parser.nextToken();
+            }
+
+            if (array && (token != JsonToken.END_ARRAY || parser.nextToken() != null)) {
+                throw new JsonParseException(parser, "전송 배열이 닫히지 않았거나 뒤에 다른 값이 있습니다");
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 현재 START_OBJECT부터 END_OBJECT까지 읽음
+     *
+     * @return 토큰이 없거나 제목/내용/데이터가 모두 비었거나 데이터 값이 문자열이 아니면 null
+     */
+    private static BulkSendItem readItem(JsonParser parser) throws IOException {
+        String id = null;
+        String token = null;
+        String title = null;
+        String body = null;
+        Map<String, String> data = Map.of();
+        boolean valid = true;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = value.isScalarValue() ? parser.getText() : null;
+                case "token" -> token = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "title" -> title = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "body" -> body = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "data" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        data = readData(parser);
+                    } else {
+                        // 배열 등은 건너뛰어야 다음 필드를 제대로 읽음
+                        parser.skipChildren();
+                        data = null;
+                    }
+                    valid &= data != null || value == JsonToken.VALUE_NULL;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!valid || token == null || token.isBlank()) {
+            return null;
+        }
+        if (data == null) {
+            data = Map.of();
+        }
+        if (title == null && body == null && data.isEmpty()) {
+            return null;
+        }
+        return new BulkSendItem(id, token, title, body, data);
+    }
+
+    /**
+     * data 객체 읽기 (FCM 데이터는 문자열만 허용하므로 숫자/불리언은 문자열로 바꾸고, 중첩 값이 있으면 null)
+     */
+    private static Map<String, String> readData(JsonParser parser) throws IOException {
+        Map<String, String> data = new HashMap<>();
+        boolean valid = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                data.put(key, parser.getText());
+            } else if (value != JsonToken.VALUE_NULL) {
+                parser.skipChildren();
+                valid = false;
+            }
+        }
+        return valid ? data : null;
+    }
+
+    /**
+     * 항목 처리 (잘못된 항목은 null로 전달되어 결과에 실패로 기록됨)
+     */
+    @FunctionalInterface
+    public interface ItemConsumer {
+        void accept(int index, BulkSendItem item) throws IOException;
+    }
+}
@@ -0,0 +1,334 @@
+package com.jonggeon.now_drop.service.bulk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.jonggeon.now_drop.service.audit.PushAuditWriter;
+import com.jonggeon.now_drop.service.dispatch.FCMSendException;
+import com.jonggeon.now_drop.service.dispatch.FanOutResult;
+import com.jonggeon.now_drop.service.dispatch.Lane;
+import com.jonggeon.now_drop.service.dispatch.MulticastFanOut;
+import com.jonggeon.now_drop.service.dispatch.SendResult;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics.SendMethod;
+import com.jonggeon.now_drop.service.retry.RetryScheduler;
+import com.jonggeon.now_drop.service.template.FCMMessageFactory;
+import com.jonggeon.now_drop.service.token.DeadTokenFilter;
+import com.jonggeon.now_drop.service.token.TokenFeedbackProcessor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 대량 개인화 전송
+ *
+ * 요청 본문에서 항목을 읽는 대로 메시지를 만들어 500개 청크가 차면 sendEach로 보내고,
+ * 청크가 끝날 때마다 항목별 결과를 NDJSON으로 바로 응답에 씁니다.
+ * 동시에 전송 중인 청크 수를 max-in-flight-chunks로 제한해 전송이 밀리면 본문 읽기를 멈추므로,
+ * 한 요청에 1만 건이 들어와도 메모리에는 청크 몇 개만 남습니다.
+ * 결과 줄은 청크가 끝난 순서로 나오므로 index(또는 id)로 요청 항목과 맞춥니다.
+ */
+@Slf4j
+@Component
+public class BulkSender {
+
+    private final BulkSendReader reader;
+    private final FCMMessageFactory messageFactory;
+    private final MulticastFanOut multicastFanOut;
+    private final DeadTokenFilter deadTokenFilter;
+    private final TokenFeedbackProcessor tokenFeedbackProcessor;
+    private final RetryScheduler retryScheduler;
+    private final PushAuditWriter auditWriter;
+    private final JsonFactory jsonFactory;
+    private final int maxInFlightChunks;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BulkSender(BulkSendReader reader,
+                      FCMMessageFactory messageFactory,
+                      MulticastFanOut multicastFanOut,
+                      DeadTokenFilter deadTokenFilter,
+                      TokenFeedbackProcessor tokenFeedbackProcessor,
+                      RetryScheduler retryScheduler,
+                      PushAuditWriter auditWriter,
+                      ObjectMapper objectMapper,
+                      @Value("${fcm.bulk-send.max-in-flight-chunks:4}") int maxInFlightChunks) {
+        this.reader = reader;
+        this.messageFactory = messageFactory;
+        this.multicastFanOut = multicastFanOut;
+        this.deadTokenFilter = deadTokenFilter;
+        this.tokenFeedbackProcessor = tokenFeedbackProcessor;
+        this.retryScheduler = retryScheduler;
+        this.auditWriter = auditWriter;
+        this.jsonFactory = objectMapper.getFactory();
+        this.maxInFlightChunks = Math.max(maxInFlightChunks, 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 본문의 항목을 모두 전송하고 항목별 결과와 마지막 요약 줄을 out에 NDJSON으로 씀
+     *
+     * 본문 형식이 중간에 깨지면 그때까지 읽은 항목만 전송하고 요약 줄에 오류를 남깁니다.
+     *
+     * @param templateName 알림 템플릿 이름 (레인도 템플릿을 따름)
+     * @return 전송 요약
+     * @throws IllegalArgumentException 등록되지 않은 템플릿 (응답을 쓰기 전에 던짐)
+     */
+    public Summary send(InputStream in, OutputStream out, String templateName) throws IOException {
+        Session session = new Session(templateName, new ResultWriter(jsonFactory.createGenerator(out)));
+        String error = null;
+        try {
+            reader.read(in, session::accept);
+            session.flush();
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Malformed bulk send body: {}", e.getOriginalMessage());
+            error = "잘못된 전송 데이터 형식입니다: " + e.getOriginalMessage();
+            session.flush();
+        } finally {
+            // 이미 넘긴 청크의 결과는 끝까지 기록
+            session.awaitInFlight();
+        }
+
+        Summary summary = session.summary(error);
+        session.writer.summary(summary);
+        log.info("✅ Bulk send finished: {} success, {} failures, {} rejected ({} retries scheduled)",
+                summary.successCount(), summary.failureCount(), summary.rejectedCount(), summary.retryScheduledCount());
+        return summary;
+    }
+
+    /**
+     * 요청 하나의 전송 상태
+     */
+    private final class Session {
+
+        private final String templateName;
+        private final Lane lane;
+        private final ResultWriter writer;
+        private final UUID batchId = UUID.randomUUID();
+        private final Semaphore inFlight = new Semaphore(maxInFlightChunks);
+
+        private final AtomicInteger successCount = new AtomicInteger();
+        private final AtomicInteger failureCount = new AtomicInteger();
+        private final AtomicInteger retryScheduledCount = new AtomicInteger();
+        private int rejectedCount;
+
+        private List<Entry> chunk = new ArrayList<>(MulticastFanOut.FCM_MAX_MULTICAST_TOKENS);
+
+        private Session(String templateName, ResultWriter writer) {
+            this.templateName = templateName;
+            this.lane = messageFactory.lane(templateName);
+            this.writer = writer;
+        }
+
+        private void accept(int index, BulkSendItem item) throws IOException {
+            writer.ensureOpen();
+            if (item == null) {
+                rejectedCount++;
+                writer.result(index, null, SendResult.failure(MessagingErrorCode.INVALID_ARGUMENT, "잘못된 전송 항목입니다"), false);
+                return;
+            }
+            if (deadTokenFilter.isDead(item.token())) {
+                failureCount.incrementAndGet();
+                writer.result(index, item.id(), SendResult.failure(MessagingErrorCode.UNREGISTERED, "만료된 FCM 토큰입니다"), false);
+                return;
+            }
+
+            Message message;
+            try {
+                message = messageFactory.notification(item.token(), item.title(), item.body(), item.data(), templateName);
+            } catch (IllegalArgumentException e) {
+                // 예약된 데이터 키 등 SDK 검증 실패
+                rejectedCount++;
+                writer.result(index, item.id(), SendResult.failure(MessagingErrorCode.INVALID_ARGUMENT, e.getMessage()), false);
+                return;
+            }
+
+            chunk.add(new Entry(index, item.id(), item.token(), message));
+            if (chunk.size() == MulticastFanOut.FCM_MAX_MULTICAST_TOKENS) {
+                flush();
+            }
+        }
+
+        /**
+         * 모인 청크를 전송 스레드로 넘김 (전송 중인 청크가 한도만큼 있으면 자리가 날 때까지 기다림)
+         */
+        private void flush() throws InterruptedIOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Entry> entries = chunk;
+            chunk = new ArrayList<>(MulticastFanOut.FCM_MAX_MULTICAST_TOKENS);
+
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("대량 전송 대기 중 중단되었습니다");
+            }
+            executor.execute(() -> {
+                try {
+                    sendChunk(entries);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        private void awaitInFlight() {
+            inFlight.acquireUninterruptibly(maxInFlightChunks);
+            inFlight.release(maxInFlightChunks);
+        }
+
+        private void sendChunk(List<Entry> entries) {
+            List<Message> messages = new ArrayList<>(entries.size());
+            List<String> tokens = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                messages.add(entry.message());
+                tokens.add(entry.token());
+            }
+
+            List<SendResult> results = multicastFanOut.sendEach(messages, lane);
+            tokenFeedbackProcessor.process(new FanOutResult(tokens, results));
+
+            boolean[] retryScheduled = new boolean[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                SendResult result = results.get(i);
+                auditWriter.record(SendMethod.PERSONALIZED, batchId, entry.token(), result);
+
+                if (result.isSuccessful()) {
+                    successCount.incrementAndGet();
+                    continue;
+                }
+                failureCount.incrementAndGet();
+                FCMSendException failure = result.toException();
+                if (retryScheduler.scheduleRetry(entry.message(), entry.token(), lane, failure)) {
+                    retryScheduled[i] = true;
+                    retryScheduledCount.incrementAndGet();
+                }
+            }
+            writer.chunk(entries, results, retryScheduled);
+        }
+
+        private Summary summary(String error) {
+            return new Summary(successCount.get(), failureCount.get(), rejectedCount, retryScheduledCount.get(), error);
+        }
+    }
+
+    /**
+     * 결과 NDJSON 출력 (전송 스레드들이 청크 단위로 번갈아 쓰므로 동기화)
+     * 클라이언트 연결이 끊기면 이후 쓰기는 버리고, 본문 읽기는 다음 항목에서 멈춥니다.
+     */
+    private static final class ResultWriter {
+
+        private final JsonGenerator generator;
+        private IOException failure;
+
+        private ResultWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        private synchronized void ensureOpen() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private synchronized void result(int index, String id, SendResult result, boolean retryScheduled) {
+            try {
+                writeResult(index, id, result, retryScheduled);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private synchronized void chunk(List<Entry> entries, List<SendResult> results, boolean[] retryScheduled) {
+            try {
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    writeResult(entry.index(), entry.id(), results.get(i), retryScheduled[i]);
+                }
+                generator.flush();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private synchronized void summary(Summary summary) throws IOException {
+            ensureOpen();
+            generator.writeStartObject();
+            generator.writeBooleanField("done", true);
+            generator.writeNumberField("successCount", summary.successCount());
+            generator.writeNumberField("failureCount", summary.failureCount());
+            generator.writeNumberField("rejectedCount", summary.rejectedCount());
+            generator.writeNumberField("retryScheduledCount", summary.retryScheduledCount());
+            if (summary.error() != null) {
+                generator.writeStringField("error", summary.error());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+
+        private void writeResult(int index, String id, SendResult result, boolean retryScheduled) throws IOException {
+            if (failure != null) {
+                return;
+            }
+            generator.writeStartObject();
+            generator.writeNumberField("index", index);
+            if (id != null) {
+                generator.writeStringField("id", id);
+            }
+            generator.writeBooleanField("success", result.isSuccessful());
+            if (result.isSuccessful()) {
+                generator.writeStringField("messageId", result.messageId());
+            } else {
+                generator.writeStringField("errorCode", String.valueOf(result.errorCode()));
+                generator.writeStringField("error", result.errorMessage());
+                if (retryScheduled) {
+                    generator.writeBooleanField("retryScheduled", true);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void fail(IOException e) {
+            if (failure == null) {
+                log.warn("⚠️ Bulk send client disconnected, results discarded: {}", e.getMessage());
+                failure = e;
+            }
+        }
+    }
+
+    private record Entry(int index, String id, String token, Message message) {
+    }
+
+    /**
+     * 대량 전송 요약
+     *
+     * @param rejectedCount 형식이 잘못되어 전송하지 않은 항목 수
+     * @param retryScheduledCount 일시적 오류로 재시도가 예약된 항목 수 (failureCount에 포함)
+     * @param error 본문 형식 오류 (없으면 null)
+     */
+    public record Summary(int successCount, int failureCount, int rejectedCount, int retryScheduledCount, String error) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.jonggeon.now_drop.service.cluster;
+
+import com.jonggeon.now_drop.service.location.LocationFix;
+
+import java.util.UUID;
+
+/**
+ * 소유 인스턴스로 넘기는 여정 구간 이벤트
+ *
+ * @param stop STOP 이벤트의 정류장 순번 (그 외 0)
+ * @param recordedAt FIX 이벤트의 측정 시각 (epoch millis, 그 외 0)
+ */
+public record ClusterEvent(Type type, UUID segmentId, int stop, double lat, double lon, long recordedAt) {
+
+    public enum Type {
+        /** 구간 추적 시작 */
+        TRACK,
+        /** 정류장 도착 */
+        STOP,
+        /** GPS 위치 */
+        FIX
+    }
+
+    public static ClusterEvent track(UUID segmentId) {
+        return new ClusterEvent(Type.TRACK, segmentId, 0, 0, 0, 0);
+    }
+
+    public static ClusterEvent stop(UUID segmentId, int stop) {
+        return new ClusterEvent(Type.STOP, segmentId, stop, 0, 0, 0);
+    }
+
+    public static ClusterEvent fix(LocationFix fix) {
+        return new ClusterEvent(Type.FIX, fix.segmentId(), 0, fix.lat(), fix.lon(), fix.recordedAt());
+    }
+}
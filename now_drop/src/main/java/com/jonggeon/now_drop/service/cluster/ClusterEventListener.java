@@ -0,0 +1,65 @@
+package com.jonggeon.now_drop.service.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.service.trip.TripProgressEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 다른 인스턴스가 넘긴 구간 이벤트 수신
+ *
+ * 보낸 쪽이 이 인스턴스를 소유자로 골랐으므로 소유권을 다시 확인하지 않고 로컬에서 처리합니다
+ * (링이 바뀌는 순간 양쪽 판단이 달라도 이벤트가 인스턴스 사이를 오가지 않게 하기 위함).
+ * 아직 적재하지 않은 구간이면 DB에서 적재한 뒤 처리합니다 (TripProgressEngine.applyLocal).
+ */
+@Slf4j
+@Component
+public class ClusterEventListener implements MessageListener {
+
+    private static final TypeReference<List<ClusterEvent>> EVENTS = new TypeReference<>() {
+    };
+
+    private final TripProgressEngine tripProgressEngine;
+    private final ObjectMapper objectMapper;
+    private final Counter received;
+
+    public ClusterEventListener(TripProgressEngine tripProgressEngine, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.tripProgressEngine = tripProgressEngine;
+        this.objectMapper = objectMapper;
+        this.received = Counter.builder("cluster.events.received")
+                .description("다른 인스턴스에서 넘겨받은 구간 이벤트 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        List<ClusterEvent> events;
+        try {
+            events = objectMapper.readValue(message.getBody(), EVENTS);
+        } catch (IOException e) {
+            log.warn("⚠️ Malformed cluster event message: {}", e.getMessage());
+            return;
+        }
+
+        received.increment(events.size());
+        for (ClusterEvent event : events) {
+            try {
+                if (event.type() == ClusterEvent.Type.TRACK) {
+                    tripProgressEngine.trackLocal(event.segmentId());
+                } else {
+                    tripProgressEngine.applyLocal(event);
+                }
+            } catch (RuntimeException e) {
+                log.error("❌ Failed to apply forwarded {} event for segment {}", event.type(), event.segmentId(), e);
+            }
+        }
+    }
+}
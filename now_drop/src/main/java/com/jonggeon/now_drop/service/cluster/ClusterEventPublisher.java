@@ -0,0 +1,108 @@
+package com.jonggeon.now_drop.service.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 다른 인스턴스가 소유한 구간의 이벤트를 소유 인스턴스 채널(cluster:events:{instanceId})로 전달
+ *
+ * 소유 인스턴스별로 묶은 이벤트를 JSON 배열 하나로 보내고, 여러 인스턴스로 가는 메시지는 파이프라인 한 번에 보냅니다.
+ * Pub/Sub은 구독자가 없으면 메시지를 버리므로(소유 인스턴스가 죽었지만 아직 링에 있는 동안),
+ * PUBLISH가 0명에게 전달했거나 보내지 못한 이벤트는 호출한 쪽에 돌려주어 이 인스턴스에서 처리하게 합니다.
+ */
+@Slf4j
+@Component
+public class ClusterEventPublisher {
+
+    private static final String CHANNEL_PREFIX = "cluster:events:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter forwarded;
+    private final Counter failed;
+
+    public ClusterEventPublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.forwarded = Counter.builder("cluster.events.forwarded")
+                .description("소유 인스턴스로 전달한 구간 이벤트 수")
+                .register(meterRegistry);
+        this.failed = Counter.builder("cluster.events.forward-failed")
+                .description("전달하지 못한 구간 이벤트 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 인스턴스의 이벤트 수신 채널
+     */
+    public static String channel(String instanceId) {
+        return CHANNEL_PREFIX + instanceId;
+    }
+
+    /**
+     * 이벤트 한 건 전달
+     *
+     * @return 소유 인스턴스가 받았으면 true, 아니면 호출한 쪽이 직접 처리해야 함
+     */
+    public boolean publish(String owner, ClusterEvent event) {
+        return publish(Map.of(owner, List.of(event))).isEmpty();
+    }
+
+    /**
+     * 소유 인스턴스별 이벤트 묶음 전달
+     *
+     * @return 받는 인스턴스가 없었거나 보내지 못한 이벤트 (호출한 쪽이 직접 처리해야 함)
+     */
+    public List<ClusterEvent> publish(Map<String, List<ClusterEvent>> eventsByOwner) {
+        if (eventsByOwner.isEmpty()) {
+            return List.of();
+        }
+        List<List<ClusterEvent>> batches = new ArrayList<>(eventsByOwner.size());
+        List<String> channels = new ArrayList<>(eventsByOwner.size());
+        List<String> payloads = new ArrayList<>(eventsByOwner.size());
+        try {
+            for (Map.Entry<String, List<ClusterEvent>> entry : eventsByOwner.entrySet()) {
+                batches.add(entry.getValue());
+                channels.add(channel(entry.getKey()));
+                payloads.add(objectMapper.writeValueAsString(entry.getValue()));
+            }
+            List<Object> receivers = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (int i = 0; i < channels.size(); i++) {
+                    stringConnection.publish(channels.get(i), payloads.get(i));
+                }
+                return null;
+            });
+
+            List<ClusterEvent> undelivered = new ArrayList<>();
+            for (int i = 0; i < batches.size(); i++) {
+                if (receivers.get(i) instanceof Long count && count > 0) {
+                    forwarded.increment(batches.get(i).size());
+                } else {
+                    log.warn("⚠️ No subscriber on {}, handling {} segment events locally", channels.get(i), batches.get(i).size());
+                    failed.increment(batches.get(i).size());
+                    undelivered.addAll(batches.get(i));
+                }
+            }
+            return undelivered;
+
+        } catch (JsonProcessingException | RuntimeException e) {
+            List<ClusterEvent> all = eventsByOwner.values().stream().flatMap(List::stream).toList();
+            log.warn("⚠️ Failed to forward {} segment events to {}, handling locally: {}",
+                    all.size(), eventsByOwner.keySet(), e.getMessage());
+            failed.increment(all.size());
+            return all;
+        }
+    }
+}
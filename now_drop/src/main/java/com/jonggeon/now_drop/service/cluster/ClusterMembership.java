@@ -0,0 +1,224 @@
+package com.jonggeon.now_drop.service.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 클러스터 멤버십과 여정 구간 소유권
+ *
+ * 인스턴스마다 Redis 정렬 집합(cluster:members)에 마지막 하트비트 시각을 점수로 기록하고,
+ * member-ttl 동안 하트비트가 없는 멤버는 지운 뒤 남은 멤버로 일관된 해시 링을 만듭니다.
+ * 모든 인스턴스가 같은 멤버 목록에서 같은 링을 만들므로 구간마다 정확히 한 인스턴스가 소유하며,
+ * 하트비트(등록, 만료 정리, 조회)는 스크립트 한 번이고 시각은 Redis TIME을 쓰므로 인스턴스 시계가 어긋나도
+ * 살아 있는 멤버를 지우지 않습니다.
+ * 인스턴스가 늘면 다음 하트비트(기본 1초)에, 정상 종료하면 즉시, 죽으면 member-ttl(기본 5초) 안에 링이 바뀌고
+ * 리스너(여정 진행 엔진)가 소유 구간을 다시 맞춥니다. 리스너는 별도 스레드에서 실행하므로
+ * 리밸런스가 오래 걸려도 하트비트가 멈춰 이 인스턴스가 링에서 빠지지 않습니다.
+ * Redis에 연결할 수 없으면 마지막으로 본 링을 유지하며, 처음부터 연결할 수 없으면 혼자 모든 구간을 소유합니다.
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+
+    static final String MEMBERS_KEY = "cluster:members";
+
+    /**
+     * Redis 시각으로 등록하고 만료 멤버를 정리한 뒤 멤버 조회
+     * KEYS[1] = 멤버 집합, ARGV[1] = instanceId, ARGV[2] = member-ttl (ms)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HEARTBEAT_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('ZADD', KEYS[1], now, ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2]))
+            return redis.call('ZRANGE', KEYS[1], 0, -1)
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final String instanceId;
+    private final Duration heartbeatInterval;
+    private final Duration memberTtl;
+    private final int virtualNodes;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("cluster-rebalance").daemon(true).factory());
+    /**
+     * 아직 실행되지 않은 리밸런스가 있으면 새로 넣지 않음 (실행될 때 최신 링을 보므로 한 번이면 충분)
+     */
+    private final AtomicBoolean rebalanceQueued = new AtomicBoolean();
+    private volatile HashRing ring;
+    private volatile boolean running;
+    private Thread heartbeat;
+
+    public ClusterMembership(StringRedisTemplate redisTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${cluster.enabled:true}") boolean enabled,
+                             @Value("${cluster.instance-id:}") String instanceId,
+                             @Value("${cluster.heartbeat-interval-ms:1000}") long heartbeatIntervalMillis,
+                             @Value("${cluster.member-ttl-ms:5000}") long memberTtlMillis,
+                             @Value("${cluster.virtual-nodes:256}") int virtualNodes) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.instanceId = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        this.heartbeatInterval = Duration.ofMillis(Math.max(heartbeatIntervalMillis, 100));
+        this.memberTtl = Duration.ofMillis(Math.max(memberTtlMillis, this.heartbeatInterval.toMillis() * 2));
+        this.virtualNodes = virtualNodes;
+        this.ring = new HashRing(List.of(this.instanceId), virtualNodes);
+
+        Gauge.builder("cluster.members", () -> ring.members().size())
+                .description("링에 있는 클러스터 인스턴스 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 첫 하트비트는 시작 경로에서 해서, 다른 빈이 시작할 때 이미 클러스터 전체 링을 보게 함
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("ℹ️ Cluster coordination disabled, instance {} owns every segment", instanceId);
+            return;
+        }
+        beat();
+        log.info("✅ Joined cluster as {} ({} members)", instanceId, ring.members().size());
+
+        running = true;
+        heartbeat = Thread.ofPlatform()
+                .name("cluster-heartbeat")
+                .daemon(true)
+                .start(this::heartbeatLoop);
+    }
+
+    /**
+     * 정상 종료 시 바로 탈퇴해서 다른 인스턴스가 member-ttl을 기다리지 않고 구간을 넘겨받게 함
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (heartbeat != null) {
+            heartbeat.interrupt();
+        }
+        listenerExecutor.shutdownNow();
+        if (enabled) {
+            try {
+                redisTemplate.opsForZSet().remove(MEMBERS_KEY, instanceId);
+                log.info("👋 Left cluster as {}", instanceId);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Failed to leave cluster, membership expires in {}: {}", memberTtl, e.getMessage());
+            }
+        }
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * 이 인스턴스가 구간을 소유하는지 확인
+     */
+    public boolean owns(UUID segmentId) {
+        return !enabled || instanceId.equals(ring.owner(segmentId));
+    }
+
+    /**
+     * 구간을 소유한 인스턴스
+     */
+    public String ownerOf(UUID segmentId) {
+        return enabled ? ring.owner(segmentId) : instanceId;
+    }
+
+    public Set<String> getMembers() {
+        return ring.members();
+    }
+
+    /**
+     * 링이 바뀔 때 호출할 리스너 등록 (cluster-rebalance 스레드에서 호출됨)
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    private void heartbeatLoop() {
+        while (running) {
+            try {
+                Thread.sleep(heartbeatInterval);
+                beat();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 등록, 만료 멤버 정리, 멤버 조회를 스크립트 한 번으로 처리하고 멤버가 바뀌었으면 링을 새로 만듦
+     */
+    @SuppressWarnings("unchecked")
+    private void beat() {
+        Set<String> members;
+        try {
+            List<String> result = redisTemplate.execute(HEARTBEAT_SCRIPT, List.of(MEMBERS_KEY),
+                    instanceId, Long.toString(memberTtl.toMillis()));
+            members = result != null ? new TreeSet<>(result) : null;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Cluster heartbeat failed, keeping {} members: {}", ring.members().size(), e.getMessage());
+            return;
+        }
+
+        if (members == null || members.isEmpty() || members.equals(ring.members())) {
+            return;
+        }
+        Set<String> previous = ring.members();
+        ring = new HashRing(members, virtualNodes);
+        log.info("🔄 Cluster membership changed: {} -> {}", previous, members);
+
+        if (rebalanceQueued.compareAndSet(false, true)) {
+            listenerExecutor.execute(this::notifyListeners);
+        }
+    }
+
+    private void notifyListeners() {
+        rebalanceQueued.set(false);
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.error("❌ Cluster rebalance listener failed", e);
+            }
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "now-drop";
+        }
+        // 같은 호스트에서 여러 인스턴스를 띄워도 겹치지 않게 함
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
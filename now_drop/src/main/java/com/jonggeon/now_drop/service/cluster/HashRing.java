@@ -0,0 +1,85 @@
+package com.jonggeon.now_drop.service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * 일관된 해시 링 (불변)
+ *
+ * 인스턴스마다 가상 노드를 virtualNodes개씩(기본 256) 링에 두고, 키의 해시에서 시계 방향으로 처음 만나는 가상 노드의 인스턴스가 소유합니다.
+ * 인스턴스가 하나 늘거나 줄면 전체 키의 약 1/n만 소유자가 바뀌며,
+ * 같은 멤버 목록이면 어느 인스턴스에서 만들어도 같은 링이 되므로 따로 합의할 필요가 없습니다.
+ */
+final class HashRing {
+
+    private final Set<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    HashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("해시 링에는 멤버가 하나 이상 있어야 합니다");
+        }
+        String[] sortedMembers = new TreeSet<>(members).toArray(String[]::new);
+        this.members = Set.of(sortedMembers);
+        int replicas = Math.max(virtualNodes, 1);
+
+        long[][] entries = new long[sortedMembers.length * replicas][];
+        int n = 0;
+        for (int m = 0; m < sortedMembers.length; m++) {
+            for (int i = 0; i < replicas; i++) {
+                entries[n++] = new long[]{hash(sortedMembers[m] + "#" + i), m};
+            }
+        }
+        // 같은 해시 값이면 멤버 이름 순으로 정해 모든 인스턴스가 같은 링을 만듦
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        this.points = new long[entries.length];
+        this.owners = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = sortedMembers[(int) entries[i][1]];
+        }
+    }
+
+    /**
+     * 키를 소유한 인스턴스
+     */
+    String owner(UUID key) {
+        long hash = mix(key.getMostSignificantBits() ^ mix(key.getLeastSignificantBits()));
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    Set<String> members() {
+        return members;
+    }
+
+    /**
+     * FNV-1a 64비트 해시 후 비트 섞기
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,575 @@
+package com.jonggeon.now_drop.service.dispatch;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.SendResponse;
+import com.jonggeon.now_drop.service.audit.PushAuditWriter;
+import com.jonggeon.now_drop.service.backend.MessagingBackend;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics.SendMethod;
+import com.jonggeon.now_drop.service.ratelimit.SendRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FCM 비동기 배치 디스패처
+ *
+ * 메시지를 레인(critical, normal, bulk)별로 제한된 크기의 메모리 큐에 넣고 즉시 반환합니다.
+ * 전용 드레인 스레드가 레인 가중치만큼 번갈아 꺼내 최대 500개씩 묶어 sendEach 배치로 전송하며,
+ * 배치 전송은 가상 스레드에서 실행되고 동시에 진행되는 배치 수는 설정값으로 제한됩니다.
+ * 동시 배치 중 일부는 critical 메시지가 든 배치 전용으로 남겨 두고, critical 메시지가 있으면 linger 없이 바로 보내므로
+ * bulk 큐가 가득 차 있어도 하차 알림의 대기 시간은 배치 한두 개 전송 시간을 넘지 않습니다.
+ * 전송 전에 속도 제한을 적용하며, 디바이스 한도를 넘은 메시지는 지연 큐로 옮겼다가 한도가 풀리면 배치에 넣고,
+ * 전역 한도를 넘으면 드레인 스레드가 기다리는 동안 메시지가 큐에 쌓입니다(거절하지 않음).
+ * 다만 critical이 없는 배치가 기다리는 동안에도 critical 메시지는 짧은 간격으로 꺼내 먼저 보냅니다.
+ * 지연 큐에 옮겨진 메시지도 원래 레인의 큐 용량을 차지한 것으로 세므로 레인별 대기 메시지 수는 큐 크기를 넘지 않습니다.
+ */
+@Slf4j
+@Component
+public class FCMDispatcher {
+
+    /**
+     * FCM sendEach 한 번에 보낼 수 있는 최대 메시지 수
+     */
+    public static final int FCM_MAX_BATCH_SIZE = 500;
+
+    /**
+     * 지연 큐에 메시지가 없을 때 새 메시지를 기다리는 최대 시간
+     */
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 일반 배치가 전송 슬롯을 기다리는 동안 critical 큐를 확인하는 주기
+     */
+    private static final long CRITICAL_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final Lane[] LANES = Lane.values();
+
+    private final BlockingQueue<PendingMessage>[] queues;
+    private final int[] weights;
+    private final DelayQueue<DeferredMessage> deferred = new DelayQueue<>();
+
+    /**
+     * 레인별로 지연 큐에 있는 메시지 수 (레인 큐 용량에 포함)
+     */
+    private final AtomicInteger[] deferredCounts = new AtomicInteger[LANES.length];
+
+    /**
+     * 드레인 스레드가 큐에서 꺼냈지만 종료로 중단되어 넘기지 못한 메시지 (stop()이 마지막 배치로 보냄)
+     */
+    private final Queue<PendingMessage> interrupted = new ConcurrentLinkedQueue<>();
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 새 메시지 도착 신호 (개수가 아니라 깨우기 용도)
+     */
+    private final Semaphore arrivals = new Semaphore(0);
+
+    /**
+     * 전체 동시 배치 수 제한
+     */
+    private final Semaphore inFlightBatches;
+
+    /**
+     * critical 메시지가 없는 배치가 쓸 수 있는 동시 배치 수 (나머지는 critical 전용)
+     */
+    private final Semaphore sharedBatches;
+    private final int maxInFlightBatches;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    private final MessagingBackend messagingBackend;
+    private final SendRateLimiter rateLimiter;
+    private final FCMMetrics metrics;
+    private final PushAuditWriter auditWriter;
+
+    @SuppressWarnings("unchecked")
+    public FCMDispatcher(MessagingBackend messagingBackend,
+                         SendRateLimiter rateLimiter,
+                         FCMMetrics metrics,
+                         PushAuditWriter auditWriter,
+                         @Value("${fcm.dispatch.queue-capacity:10000}") int queueCapacity,
+                         @Value("${fcm.dispatch.max-batch-size:500}") int maxBatchSize,
+                         @Value("${fcm.dispatch.linger-ms:5}") long lingerMillis,
+                         @Value("${fcm.dispatch.max-in-flight-batches:8}") int maxInFlightBatches,
+                         @Value("${fcm.dispatch.critical.queue-capacity:2000}") int criticalCapacity,
+                         @Value("${fcm.dispatch.critical.weight:8}") int criticalWeight,
+                         @Value("${fcm.dispatch.critical.reserved-batches:2}") int reservedBatches,
+                         @Value("${fcm.dispatch.normal.weight:4}") int normalWeight,
+                         @Value("${fcm.dispatch.bulk.queue-capacity:50000}") int bulkCapacity,
+                         @Value("${fcm.dispatch.bulk.weight:1}") int bulkWeight) {
+        this.queues = new BlockingQueue[LANES.length];
+        this.queues[Lane.CRITICAL.ordinal()] = new ArrayBlockingQueue<>(criticalCapacity);
+        this.queues[Lane.NORMAL.ordinal()] = new ArrayBlockingQueue<>(queueCapacity);
+        this.queues[Lane.BULK.ordinal()] = new ArrayBlockingQueue<>(bulkCapacity);
+
+        for (Lane lane : LANES) {
+            this.deferredCounts[lane.ordinal()] = new AtomicInteger();
+        }
+
+        this.weights = new int[LANES.length];
+        this.weights[Lane.CRITICAL.ordinal()] = Math.max(criticalWeight, 1);
+        this.weights[Lane.NORMAL.ordinal()] = Math.max(normalWeight, 1);
+        this.weights[Lane.BULK.ordinal()] = Math.max(bulkWeight, 1);
+
+        this.maxBatchSize = Math.min(Math.max(maxBatchSize, 1), FCM_MAX_BATCH_SIZE);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(lingerMillis, 0));
+        this.maxInFlightBatches = Math.max(maxInFlightBatches, 2);
+        this.inFlightBatches = new Semaphore(this.maxInFlightBatches);
+        this.sharedBatches = new Semaphore(this.maxInFlightBatches - Math.min(Math.max(reservedBatches, 1), this.maxInFlightBatches - 1));
+        this.messagingBackend = messagingBackend;
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.auditWriter = auditWriter;
+
+        for (Lane lane : LANES) {
+            metrics.gauge("fcm.dispatch.queue.depth", "디스패치 큐에 대기 중인 메시지 수",
+                    "lane", lane.tag, () -> queues[lane.ordinal()].size());
+        }
+        metrics.gauge("fcm.dispatch.in-flight", "전송 중인 디스패치 배치 수", this::getInFlightBatches);
+        metrics.gauge("fcm.dispatch.deferred", "디바이스 한도로 늦춰진 메시지 수", deferred::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainer = Thread.ofPlatform()
+                .name("fcm-dispatcher")
+                .daemon(true)
+                .start(this::drainLoop);
+        log.info("✅ FCM dispatcher started (batch size: {}, in-flight batches: {}, critical reserved: {})",
+                maxBatchSize, maxInFlightBatches, maxInFlightBatches - sharedBatches.availablePermits());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (drainer != null) {
+            drainer.interrupt();
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        // 남은 메시지는 드레인 스레드가 들고 있던 것부터 레인 순서대로 마지막 배치로 전송 시도
+        List<PendingMessage> remaining = new ArrayList<>(interrupted);
+        interrupted.clear();
+        for (BlockingQueue<PendingMessage> queue : queues) {
+            queue.drainTo(remaining);
+        }
+        deferred.forEach(d -> remaining.add(d.pending()));
+        deferred.clear();
+        for (AtomicInteger count : deferredCounts) {
+            count.set(0);
+        }
+        for (int from = 0; from < remaining.size(); from += maxBatchSize) {
+            List<PendingMessage> batch = remaining.subList(from, Math.min(from + maxBatchSize, remaining.size()));
+            executor.execute(() -> sendBatch(batch));
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("⚠️ FCM dispatcher did not finish in-flight batches before shutdown");
+        }
+    }
+
+    /**
+     * 메시지를 normal 레인에 추가하고 즉시 반환
+     *
+     * @param message 전송할 FCM 메시지
+     * @return 전송 완료 시 메시지 ID로 완료되는 Future
+     *         (큐가 가득 찬 경우 RejectedExecutionException으로 실패)
+     */
+    public CompletableFuture<String> submit(Message message) {
+        return submit(message, null, null, Lane.NORMAL);
+    }
+
+    /**
+     * 수신 디바이스를 알고 있는 메시지를 normal 레인에 추가 (디바이스별 속도 제한, 플랫폼별 지연 시간 메트릭용)
+     *
+     * @param token 수신 디바이스 토큰 (토픽 메시지 등은 null)
+     * @param platform "android", "ios" 또는 null
+     */
+    public CompletableFuture<String> submit(Message message, String token, String platform) {
+        return submit(message, token, platform, Lane.NORMAL);
+    }
+
+    /**
+     * 메시지를 지정한 레인에 추가
+     *
+     * @param lane 디스패치 레인 (레인마다 큐 크기가 따로 제한되며, 지연 큐에 있는 메시지도 포함)
+     */
+    public CompletableFuture<String> submit(Message message, String token, String platform, Lane lane) {
+        PendingMessage pending = new PendingMessage(message, token, platform, lane, System.nanoTime(), new CompletableFuture<>());
+
+        BlockingQueue<PendingMessage> queue = queues[lane.ordinal()];
+        if (!running
+                || deferredCounts[lane.ordinal()].get() >= queue.remainingCapacity()
+                || !queue.offer(pending)) {
+            pending.future().completeExceptionally(
+                    new RejectedExecutionException("FCM 디스패치 큐가 가득 찼습니다 (" + lane.tag + ")"));
+        } else {
+            arrivals.release();
+        }
+        return pending.future();
+    }
+
+    /**
+     * 현재 모든 레인에 대기 중인 메시지 수
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (BlockingQueue<PendingMessage> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * 레인에 대기 중인 메시지 수
+     */
+    public int getQueueDepth(Lane lane) {
+        return queues[lane.ordinal()].size();
+    }
+
+    /**
+     * 현재 전송 중인 배치 수
+     */
+    public int getInFlightBatches() {
+        return maxInFlightBatches - inFlightBatches.availablePermits();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                Batch batch = nextBatch();
+                if (batch.lane() == Lane.CRITICAL) {
+                    dispatchNow(batch);
+                } else {
+                    dispatchYielding(batch);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * critical 배치를 전역 한도만큼 기다린 뒤 바로 전송
+     */
+    private void dispatchNow(Batch batch) throws InterruptedException {
+        try {
+            rateLimiter.acquire(batch.messages().size(), batch.lane());
+            dispatch(batch);
+        } catch (InterruptedException e) {
+            interrupted.addAll(batch.messages());
+            throw e;
+        }
+    }
+
+    /**
+     * critical이 없는 배치 전송
+     * 공유 슬롯을 먼저 잡은 뒤 전역 한도를 예약하고, 슬롯과 한도를 기다리는 동안에도 CRITICAL_CHECK_NANOS마다
+     * critical 메시지를 전용 슬롯으로 먼저 보내므로 bulk 배치가 드레인 스레드를 재워 하차 알림을 막지 않습니다.
+     */
+    private void dispatchYielding(Batch batch) throws InterruptedException {
+        boolean slotHeld = false;
+        try {
+            while (!sharedBatches.tryAcquire(CRITICAL_CHECK_NANOS, TimeUnit.NANOSECONDS)) {
+                dispatchCritical();
+            }
+            slotHeld = true;
+
+            long readyAt = System.nanoTime() + rateLimiter.reserve(batch.messages().size(), batch.lane());
+            long remaining;
+            while ((remaining = readyAt - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, CRITICAL_CHECK_NANOS));
+                dispatchCritical();
+            }
+
+            slotHeld = false;
+            dispatch(batch);
+        } catch (InterruptedException e) {
+            if (slotHeld) {
+                sharedBatches.release();
+            }
+            interrupted.addAll(batch.messages());
+            throw e;
+        }
+    }
+
+    /**
+     * critical 레인만 모아 바로 전송 (일반 배치가 슬롯이나 전역 한도를 기다리는 동안)
+     */
+    private void dispatchCritical() throws InterruptedException {
+        List<PendingMessage> polled = new ArrayList<>(maxBatchSize);
+        queues[Lane.CRITICAL.ordinal()].drainTo(polled, maxBatchSize);
+        if (polled.isEmpty()) {
+            return;
+        }
+
+        List<PendingMessage> messages = new ArrayList<>(polled.size());
+        for (PendingMessage pending : polled) {
+            admit(pending, messages);
+        }
+        if (!messages.isEmpty()) {
+            try {
+                rateLimiter.acquire(messages.size(), Lane.CRITICAL);
+                dispatch(new Batch(messages, Lane.CRITICAL));
+            } catch (InterruptedException e) {
+                interrupted.addAll(messages);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 배치를 가상 스레드로 넘김
+     * critical 배치는 전체 슬롯만, 그 외 배치는 미리 잡은 공유 슬롯과 전체 슬롯을 함께 씁니다.
+     */
+    private void dispatch(Batch batch) throws InterruptedException {
+        boolean shared = batch.lane() != Lane.CRITICAL;
+        try {
+            inFlightBatches.acquire();
+        } catch (InterruptedException e) {
+            if (shared) {
+                sharedBatches.release();
+            }
+            throw e;
+        }
+
+        long now = System.nanoTime();
+        for (PendingMessage pending : batch.messages()) {
+            metrics.recordQueueWait(pending.lane(), now - pending.enqueuedAt());
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    sendBatch(batch.messages());
+                } finally {
+                    releaseSlots(shared);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            releaseSlots(shared);
+            batch.messages().forEach(p -> p.future().completeExceptionally(e));
+        }
+    }
+
+    private void releaseSlots(boolean shared) {
+        inFlightBatches.release();
+        if (shared) {
+            sharedBatches.release();
+        }
+    }
+
+    /**
+     * 레인 큐에서 다음 배치를 꺼냄
+     * 지연 시간이 끝난 메시지를 먼저 넣고, 첫 메시지가 들어오면 linger 시간 동안 추가 메시지를 기다려 배치를 채웁니다.
+     * critical 메시지가 들어 있으면 기다리지 않고 바로 반환합니다.
+     */
+    private Batch nextBatch() throws InterruptedException {
+        List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+        try {
+            return fillBatch(batch);
+        } catch (InterruptedException e) {
+            interrupted.addAll(batch);
+            throw e;
+        }
+    }
+
+    private Batch fillBatch(List<PendingMessage> batch) throws InterruptedException {
+        List<PendingMessage> polled = new ArrayList<>(maxBatchSize);
+
+        while (batch.isEmpty()) {
+            arrivals.drainPermits();
+            drainDeferred(batch);
+            fill(batch, polled);
+            if (batch.isEmpty()) {
+                arrivals.tryAcquire(nextDeferredDelayNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize && !containsCritical(batch)) {
+            if (fill(batch, polled) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !arrivals.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                break;
+            }
+        }
+        return new Batch(batch, highestLane(batch));
+    }
+
+    /**
+     * 가중치 라운드 로빈으로 레인 큐에서 꺼내 배치를 채움
+     * 한 바퀴에 레인마다 가중치만큼 꺼내므로 모든 레인이 밀려 있으면 배치가 가중치 비율로 나뉘고,
+     * 비어 있는 레인의 몫은 다른 레인이 가져갑니다.
+     *
+     * @return 큐에서 꺼낸 메시지 수 (디바이스 한도로 지연 큐에 옮긴 것 포함)
+     */
+    private int fill(List<PendingMessage> batch, List<PendingMessage> polled) {
+        int taken = 0;
+        boolean progress = true;
+        while (progress && batch.size() < maxBatchSize) {
+            progress = false;
+            for (Lane lane : LANES) {
+                int room = Math.min(weights[lane.ordinal()], maxBatchSize - batch.size());
+                if (room <= 0) {
+                    break;
+                }
+                polled.clear();
+                queues[lane.ordinal()].drainTo(polled, room);
+                for (PendingMessage pending : polled) {
+                    admit(pending, batch);
+                }
+                if (!polled.isEmpty()) {
+                    taken += polled.size();
+                    progress = true;
+                }
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * 디바이스 한도 안이면 배치에 넣고, 넘었으면 한도가 풀릴 때까지 지연 큐에 보관
+     */
+    private void admit(PendingMessage pending, List<PendingMessage> batch) {
+        long waitNanos = rateLimiter.tryAcquireDevice(pending.token());
+        if (waitNanos > 0) {
+            deferredCounts[pending.lane().ordinal()].incrementAndGet();
+            deferred.put(new DeferredMessage(pending, System.nanoTime() + waitNanos));
+        } else {
+            batch.add(pending);
+        }
+    }
+
+    private void drainDeferred(List<PendingMessage> batch) {
+        DeferredMessage due;
+        while (batch.size() < maxBatchSize && (due = deferred.poll()) != null) {
+            deferredCounts[due.pending().lane().ordinal()].decrementAndGet();
+            admit(due.pending(), batch);
+        }
+    }
+
+    private long nextDeferredDelayNanos() {
+        DeferredMessage head = deferred.peek();
+        if (head == null) {
+            return IDLE_POLL_NANOS;
+        }
+        return Math.max(head.getDelay(TimeUnit.NANOSECONDS), 0);
+    }
+
+    private static boolean containsCritical(List<PendingMessage> batch) {
+        return highestLane(batch) == Lane.CRITICAL;
+    }
+
+    /**
+     * 배치에서 가장 우선순위가 높은 레인 (속도 제한 여유와 전송 슬롯 선택 기준)
+     */
+    private static Lane highestLane(List<PendingMessage> batch) {
+        Lane highest = Lane.BULK;
+        for (PendingMessage pending : batch) {
+            if (pending.lane().ordinal() < highest.ordinal()) {
+                highest = pending.lane();
+                if (highest == Lane.CRITICAL) {
+                    break;
+                }
+            }
+        }
+        return highest;
+    }
+
+    private void sendBatch(List<PendingMessage> batch) {
+        List<Message> messages = new ArrayList<>(batch.size());
+        for (PendingMessage pending : batch) {
+            messages.add(pending.message());
+        }
+
+        metrics.recordBatchSize(SendMethod.DISPATCH, batch.size());
+        UUID batchId = UUID.randomUUID();
+        try {
+            BatchResponse response = messagingBackend.sendEach(messages);
+            List<SendResponse> responses = response.getResponses();
+            long now = System.nanoTime();
+
+            for (int i = 0; i < batch.size(); i++) {
+                PendingMessage pending = batch.get(i);
+                SendResponse sendResponse = responses.get(i);
+                metrics.recordLatency(SendMethod.DISPATCH, pending.platform(), now - pending.enqueuedAt());
+                auditWriter.record(SendMethod.DISPATCH, batchId, pending.token(), SendResult.from(sendResponse));
+
+                if (sendResponse.isSuccessful()) {
+                    pending.future().complete(sendResponse.getMessageId());
+                } else {
+                    metrics.recordError(SendMethod.DISPATCH, sendResponse.getException().getMessagingErrorCode());
+                    pending.future().completeExceptionally(sendResponse.getException());
+                }
+            }
+
+            metrics.recordResults(SendMethod.DISPATCH, response.getSuccessCount(), response.getFailureCount());
+            log.debug("📦 Dispatched batch: {} success, {} failures", response.getSuccessCount(), response.getFailureCount());
+
+        } catch (FirebaseMessagingException | RuntimeException e) {
+            log.error("❌ Failed to dispatch FCM batch of {} messages", batch.size(), e);
+            metrics.recordResults(SendMethod.DISPATCH, 0, batch.size());
+            SendResult failure = SendResult.from(e);
+            metrics.recordError(SendMethod.DISPATCH, failure.errorCode());
+            batch.forEach(p -> {
+                auditWriter.record(SendMethod.DISPATCH, batchId, p.token(), failure);
+                p.future().completeExceptionally(e);
+            });
+        }
+    }
+
+    private record Batch(List<PendingMessage> messages, Lane lane) {
+    }
+
+    private record PendingMessage(Message message, String token, String platform, Lane lane, long enqueuedAt,
+                                  CompletableFuture<String> future) {
+    }
+
+    private record DeferredMessage(PendingMessage pending, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof DeferredMessage message) {
+                return Long.compare(dueNanos, message.dueNanos);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.jonggeon.now_drop.service.dispatch;
+
+import com.google.firebase.IncomingHttpResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FCM 전송 실패
+ *
+ * FirebaseMessagingException의 MessagingErrorCode와 Retry-After 헤더 값을 보존하고,
+ * 재시도가 예약되었는지 여부를 함께 전달합니다.
+ */
+@Getter
+public class FCMSendException extends RuntimeException {
+
+    private final MessagingErrorCode errorCode;
+    private final Duration retryAfter;
+    private final boolean retryScheduled;
+
+    public FCMSendException(String message, MessagingErrorCode errorCode, Duration retryAfter,
+                            boolean retryScheduled, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+        this.retryAfter = retryAfter;
+        this.retryScheduled = retryScheduled;
+    }
+
+    /**
+     * FirebaseMessagingException 변환
+     *
+     * @param prefix 메시지 접두사 (예: "FCM 전송 실패")
+     */
+    public static FCMSendException from(String prefix, FirebaseMessagingException e) {
+        return new FCMSendException(prefix + ": " + e.getMessage(),
+                e.getMessagingErrorCode(), retryAfterOf(e), false, e);
+    }
+
+    /**
+     * 임의의 전송 실패 변환 (CompletionException 등으로 감싸진 경우 원인을 찾음)
+     */
+    public static FCMSendException from(String prefix, Throwable e) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof FCMSendException sendException) {
+                return sendException;
+            }
+            if (cause instanceof FirebaseMessagingException messagingException) {
+                return from(prefix, messagingException);
+            }
+            cause = cause.getCause();
+        }
+        return new FCMSendException(prefix + ": " + e.getMessage(), null, null, false, e);
+    }
+
+    /**
+     * 재시도가 예약되었음을 표시한 복사본
+     */
+    public FCMSendException withRetryScheduled() {
+        return new FCMSendException(getMessage(), errorCode, retryAfter, true, getCause());
+    }
+
+    /**
+     * 일시적인 오류 여부 (재시도하면 성공할 수 있는 오류)
+     */
+    public boolean isTransient() {
+        return errorCode == MessagingErrorCode.UNAVAILABLE
+                || errorCode == MessagingErrorCode.QUOTA_EXCEEDED
+                || errorCode == MessagingErrorCode.INTERNAL;
+    }
+
+    /**
+     * 응답의 Retry-After 헤더 (초 또는 HTTP 날짜) 파싱
+     */
+    static Duration retryAfterOf(FirebaseMessagingException e) {
+        IncomingHttpResponse response = e.getHttpResponse();
+        if (response == null || response.getHeaders() == null) {
+            return null;
+        }
+
+        String value = null;
+        for (Map.Entry<String, Object> header : response.getHeaders().entrySet()) {
+            if ("retry-after".equalsIgnoreCase(header.getKey())) {
+                Object headerValue = header.getValue();
+                if (headerValue instanceof List<?> values && !values.isEmpty()) {
+                    headerValue = values.get(0);
+                }
+                value = headerValue != null ? headerValue.toString().trim() : null;
+                break;
+            }
+        }
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Duration.ofSeconds(Long.parseLong(value));
+        } catch (NumberFormatException ignored) {
+            // HTTP 날짜 형식
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.jonggeon.now_drop.service.dispatch;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 멀티캐스트 팬아웃 집계 결과
+ *
+ * 청크별 응답을 병합한 결과로, results의 인덱스는 요청한 tokens의 인덱스와 일치합니다.
+ */
+@Getter
+public class FanOutResult {
+
+    private final List<String> tokens;
+    private final List<SendResult> results;
+    private final int successCount;
+    private final int failureCount;
+
+    public FanOutResult(List<String> tokens, List<SendResult> results) {
+        if (tokens.size() != results.size()) {
+            throw new IllegalArgumentException("토큰 수와 결과 수가 일치하지 않습니다");
+        }
+        this.tokens = tokens;
+        this.results = results;
+
+        int success = 0;
+        for (SendResult result : results) {
+            if (result.isSuccessful()) {
+                success++;
+            }
+        }
+        this.successCount = success;
+        this.failureCount = results.size() - success;
+    }
+
+    public static FanOutResult empty() {
+        return new FanOutResult(List.of(), List.of());
+    }
+
+    /**
+     * 전송에 실패한 토큰 목록
+     */
+    public List<String> getFailedTokens() {
+        List<String> failed = new ArrayList<>(failureCount);
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isSuccessful()) {
+                failed.add(tokens.get(i));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 재시도해도 성공할 수 없는 오류로 실패한 토큰 목록 (일시적 오류는 재시도 스케줄러가 다시 보냄)
+     */
+    public List<String> getPermanentlyFailedTokens() {
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            SendResult result = results.get(i);
+            if (!result.isSuccessful() && !result.toException().isTransient()) {
+                failed.add(tokens.get(i));
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,38 @@
+package com.jonggeon.now_drop.service.dispatch;
+
+import java.util.Locale;
+
+/**
+ * 전송 레인 (우선순위)
+ *
+ * 레인마다 큐를 따로 두고 가중치만큼 번갈아 꺼내므로,
+ * 대량 전송이 밀려 있어도 하차 알림이 그 뒤에 줄 서지 않습니다.
+ */
+public enum Lane {
+
+    /**
+     * 하차 알림처럼 늦으면 의미가 없는 알림
+     */
+    CRITICAL,
+
+    /**
+     * 일반 알림
+     */
+    NORMAL,
+
+    /**
+     * 마케팅, 테스트, 대량 브로드캐스트 (FCM NORMAL 우선순위)
+     */
+    BULK;
+
+    public final String tag = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * 설정값 문자열로 레인 조회 (대소문자 무시)
+     *
+     * @throws IllegalArgumentException 알 수 없는 레인
+     */
+    public static Lane from(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,177 @@
+package com.jonggeon.now_drop.service.dispatch;
+
+import com.google.common.collect.Lists;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.SendResponse;
+import com.jonggeon.now_drop.service.backend.MessagingBackend;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics.SendMethod;
+import com.jonggeon.now_drop.service.ratelimit.SendRateLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * 멀티캐스트 팬아웃
+ *
+ * 개수 제한 없는 토큰 목록을 500개 단위 청크로 나누어 sendEachForMulticast로 동시에 전송하고,
+ * 청크별 응답을 원래 토큰 인덱스를 유지한 하나의 결과로 병합합니다.
+ * bulk 레인 팬아웃은 별도의 작은 동시 실행 한도를 쓰므로 수십만 토큰 브로드캐스트 중에도 다른 전송의 몫을 가져가지 않습니다.
+ * 수신자마다 내용이 다른 메시지 청크(sendEach)도 같은 동시 실행 한도와 속도 제한을 거칩니다.
+ */
+@Slf4j
+@Component
+public class MulticastFanOut {
+
+    /**
+     * 멀티캐스트 메시지 한 건에 담을 수 있는 최대 토큰 수
+     */
+    public static final int FCM_MAX_MULTICAST_TOKENS = 500;
+
+    private final Semaphore parallelism;
+    private final Semaphore bulkParallelism;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final MessagingBackend messagingBackend;
+    private final SendRateLimiter rateLimiter;
+    private final FCMMetrics metrics;
+
+    public MulticastFanOut(MessagingBackend messagingBackend,
+                           SendRateLimiter rateLimiter,
+                           FCMMetrics metrics,
+                           @Value("${fcm.fanout.parallelism:8}") int parallelism,
+                           @Value("${fcm.fanout.bulk-parallelism:2}") int bulkParallelism) {
+        this.messagingBackend = messagingBackend;
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.parallelism = new Semaphore(Math.max(parallelism, 1));
+        this.bulkParallelism = new Semaphore(Math.max(bulkParallelism, 1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 토큰 목록 전체에 팬아웃 전송
+     *
+     * @param tokens 전송 대상 토큰 (크기 제한 없음)
+     * @param messageFactory 청크 토큰 목록으로 멀티캐스트 메시지를 만드는 함수
+     * @return 원래 토큰 순서를 유지한 집계 결과
+     */
+    public FanOutResult send(List<String> tokens, Function<List<String>, MulticastMessage> messageFactory) {
+        return send(tokens, Lane.NORMAL, messageFactory);
+    }
+
+    /**
+     * 레인을 지정한 팬아웃 전송 (bulk는 별도 동시 실행 한도와 줄어든 속도 제한 버스트를 사용)
+     */
+    public FanOutResult send(List<String> tokens, Lane lane, Function<List<String>, MulticastMessage> messageFactory) {
+        if (tokens == null || tokens.isEmpty()) {
+            return FanOutResult.empty();
+        }
+
+        SendResult[] results = new SendResult[tokens.size()];
+        List<List<String>> chunks = Lists.partition(tokens, FCM_MAX_MULTICAST_TOKENS);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(chunks.size());
+
+        for (int i = 0; i < chunks.size(); i++) {
+            List<String> chunk = chunks.get(i);
+            int offset = i * FCM_MAX_MULTICAST_TOKENS;
+            futures.add(CompletableFuture.runAsync(() -> sendChunk(SendMethod.MULTICAST, chunk.size(), lane, results, offset,
+                    () -> messagingBackend.sendEachForMulticast(messageFactory.apply(chunk))), executor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        log.debug("📦 Fan-out finished: {} tokens in {} chunks", tokens.size(), chunks.size());
+        return new FanOutResult(tokens, Arrays.asList(results));
+    }
+
+    /**
+     * 수신자마다 내용이 다른 메시지 청크 전송 (sendEach, 호출 스레드에서 전송)
+     *
+     * @param messages 최대 500개
+     * @return 메시지 순서와 같은 전송 결과
+     */
+    public List<SendResult> sendEach(List<Message> messages, Lane lane) {
+        if (messages.size() > FCM_MAX_MULTICAST_TOKENS) {
+            throw new IllegalArgumentException("sendEach 한 번에 보낼 수 있는 메시지는 최대 " + FCM_MAX_MULTICAST_TOKENS + "개입니다");
+        }
+        SendResult[] results = new SendResult[messages.size()];
+        sendChunk(SendMethod.PERSONALIZED, messages.size(), lane, results, 0, () -> messagingBackend.sendEach(messages));
+        return Arrays.asList(results);
+    }
+
+    private void sendChunk(SendMethod method, int size, Lane lane, SendResult[] results, int offset, ChunkSender sender) {
+        Semaphore parallelism = lane == Lane.BULK ? bulkParallelism : this.parallelism;
+        try {
+            parallelism.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fillFailure(results, offset, size, SendResult.from(e));
+            return;
+        }
+
+        try {
+            // 전역 한도를 넘으면 청크 전송을 늦춤 (거절하지 않음)
+            rateLimiter.acquire(size, lane);
+        } catch (InterruptedException e) {
+            parallelism.release();
+            Thread.currentThread().interrupt();
+            fillFailure(results, offset, size, SendResult.from(e));
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        metrics.recordBatchSize(method, size);
+        try {
+            BatchResponse response = sender.send();
+            List<SendResponse> responses = response.getResponses();
+            for (int i = 0; i < responses.size(); i++) {
+                SendResult result = SendResult.from(responses.get(i));
+                if (!result.isSuccessful()) {
+                    metrics.recordError(method, result.errorCode());
+                }
+                results[offset + i] = result;
+            }
+            metrics.recordResults(method, response.getSuccessCount(), response.getFailureCount());
+
+        } catch (FirebaseMessagingException | RuntimeException e) {
+            log.error("❌ Failed to send {} chunk of {} messages", method, size, e);
+            SendResult failure = SendResult.from(e);
+            metrics.recordError(method, failure.errorCode());
+            metrics.recordResults(method, 0, size);
+            fillFailure(results, offset, size, failure);
+        } finally {
+            metrics.recordLatency(method, null, System.nanoTime() - startedAt);
+            parallelism.release();
+        }
+    }
+
+    private void fillFailure(SendResult[] results, int offset, int length, SendResult failure) {
+        Arrays.fill(results, offset, offset + length, failure);
+    }
+
+    /**
+     * 청크 한 번의 FCM 호출 (멀티캐스트 또는 sendEach)
+     */
+    @FunctionalInterface
+    private interface ChunkSender {
+        BatchResponse send() throws FirebaseMessagingException;
+    }
+}
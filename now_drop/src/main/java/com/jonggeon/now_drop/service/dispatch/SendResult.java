@@ -0,0 +1,60 @@
+package com.jonggeon.now_drop.service.dispatch;
+
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.SendResponse;
+
+import java.time.Duration;
+
+/**
+ * 메시지 한 건의 전송 결과
+ *
+ * 성공 시 messageId가, 실패 시 errorCode(알 수 없으면 null)와 errorMessage가 채워집니다.
+ *
+ * @param retryAfter 실패 응답의 Retry-After (없으면 null)
+ */
+public record SendResult(String messageId, MessagingErrorCode errorCode, String errorMessage, Duration retryAfter) {
+
+    public static SendResult success(String messageId) {
+        return new SendResult(messageId, null, null, null);
+    }
+
+    public static SendResult failure(MessagingErrorCode errorCode, String errorMessage) {
+        return new SendResult(null, errorCode, errorMessage, null);
+    }
+
+    /**
+     * Firebase SendResponse 변환
+     */
+    public static SendResult from(SendResponse response) {
+        if (response.isSuccessful()) {
+            return success(response.getMessageId());
+        }
+        return from(response.getException());
+    }
+
+    /**
+     * 전송 예외 변환
+     * FirebaseMessagingException이나 FCMSendException이면 MessagingErrorCode와 Retry-After를 보존합니다.
+     */
+    public static SendResult from(Throwable e) {
+        if (e instanceof FirebaseMessagingException fme) {
+            return new SendResult(null, fme.getMessagingErrorCode(), fme.getMessage(), FCMSendException.retryAfterOf(fme));
+        }
+        if (e instanceof FCMSendException sendException) {
+            return new SendResult(null, sendException.getErrorCode(), sendException.getMessage(), sendException.getRetryAfter());
+        }
+        return failure(null, e.getMessage());
+    }
+
+    /**
+     * 실패 결과를 재시도 예약용 예외로 변환
+     */
+    public FCMSendException toException() {
+        return new FCMSendException(errorMessage, errorCode, retryAfter, false, null);
+    }
+
+    public boolean isSuccessful() {
+        return messageId != null;
+    }
+}
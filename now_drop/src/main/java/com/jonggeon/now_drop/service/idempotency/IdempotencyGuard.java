@@ -0,0 +1,117 @@
+package com.jonggeon.now_drop.service.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Redis 기반 중복 전송 방지
+ *
+ * 멱등성 키를 SET NX EX로 선점한 호출만 전송을 진행합니다.
+ * 배치는 항목별 키를 파이프라인 한 번으로 선점하므로 메시지 수와 관계없이 Redis 왕복은 한 번입니다.
+ * Redis 장애 시에는 알림이 누락되지 않도록 중복 검사를 건너뛰고 전송을 허용합니다(fail-open).
+ */
+@Slf4j
+@Component
+public class IdempotencyGuard {
+
+    private static final String KEY_PREFIX = "fcm:idem:";
+    private static final String CLAIMED = "1";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Expiration ttl;
+
+    public IdempotencyGuard(StringRedisTemplate redisTemplate,
+                            @Value("${fcm.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Expiration.from(Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * 멱등성 키 선점
+     *
+     * @return 처음 보는 키이면 true, TTL 안에 이미 선점된 키이면 false
+     */
+    public boolean claim(String key) {
+        try {
+            Boolean claimed = redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    ((StringRedisConnection) connection).set(KEY_PREFIX + key, CLAIMED, ttl, SetOption.SET_IF_ABSENT));
+            return !Boolean.FALSE.equals(claimed);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Idempotency check skipped for {}: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 배치 항목별 키를 파이프라인 한 번으로 선점
+     *
+     * @param scope 배치의 멱등성 키 (항목 키는 scope:id)
+     * @param ids 항목 id 목록 (예: 디바이스 토큰)
+     * @return 이번에 처음 선점된 항목만, 입력 순서대로
+     */
+    public List<String> claimEach(String scope, List<String> ids) {
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        String prefix = KEY_PREFIX + scope + ":";
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String id : ids) {
+                    stringConnection.set(prefix + id, CLAIMED, ttl, SetOption.SET_IF_ABSENT);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Idempotency check skipped for batch {}: {}", scope, e.getMessage());
+            return ids;
+        }
+
+        List<String> claimed = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (!Boolean.FALSE.equals(results.get(i))) {
+                claimed.add(ids.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * 전송이 확정적으로 실패한 경우 키를 풀어 클라이언트가 다시 시도할 수 있게 함
+     */
+    public void release(String key) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + key);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 배치 항목 키 해제 (DEL 한 번)
+     */
+    public void releaseEach(String scope, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String prefix = KEY_PREFIX + scope + ":";
+        try {
+            redisTemplate.delete(ids.stream().map(id -> prefix + id).toList());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to release {} idempotency keys of batch {}: {}", ids.size(), scope, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.jonggeon.now_drop.service.location;
+
+import java.util.UUID;
+
+/**
+ * 구간 진행 중인 디바이스의 GPS 위치 한 건
+ *
+ * @param recordedAt 디바이스에서 측정한 시각 (epoch millis, 없으면 수신 시각)
+ */
+public record LocationFix(UUID segmentId, double lat, double lon, long recordedAt) {
+}
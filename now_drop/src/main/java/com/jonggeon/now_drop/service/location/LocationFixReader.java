@@ -0,0 +1,125 @@
+package com.jonggeon.now_drop.service.location;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * 위치 배치 스트리밍 파서
+ *
+ * JSON 배열([{...}, {...}])과 NDJSON(줄마다 객체 하나)을 모두 받으며,
+ * DTO 바인딩 없이 Jackson 토큰 스트림에서 바로 LocationFix를 만들어 넘깁니다.
+ * 필드가 빠졌거나 값이 잘못된 항목은 건너뛰고 rejected로 셉니다.
+ * 본문이 중간에 끊겼거나 배열 뒤에 다른 값이 있으면 이미 넘긴 항목과 관계없이 형식 오류로 처리합니다.
+ */
+@Component
+public class LocationFixReader {
+
+    private final JsonFactory jsonFactory;
+
+    public LocationFixReader(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 요청 본문의 위치를 하나씩 consumer로 전달
+     *
+     * @param consumer 받아들이면 true, 거절하면 false
+     * @return 받아들인 수와 거절한 수
+     * @throws JsonParseException JSON 형식 자체가 깨졌거나 본문이 중간에 끊긴 경우
+     */
+    public ReadResult read(InputStream in, Predicate<LocationFix> consumer) throws IOException {
+        int accepted = 0;
+        int rejected = 0;
+        long receivedAt = System.currentTimeMillis();
+
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "위치 항목은 JSON 객체여야 합니다");
+                }
+
+                LocationFix fix = readFix(parser, receivedAt);
+                if (fix != null && consumer.test(fix)) {
+                    accepted++;
+                } else {
+                    rejected++;
+                }
+                token = parser.nextToken();
+            }
+
+            if (array && (token != JsonToken.END_ARRAY || parser.nextToken() != null)) {
+                throw new JsonParseException(parser, "위치 배열이 닫히지 않았거나 뒤에 다른 값이 있습니다");
+            }
+        }
+        return new ReadResult(accepted, rejected);
+    }
+
+    /**
+     * 현재 START_OBJECT부터 END_OBJECT까지 읽음
+     *
+     * 객체나 배열 값은 건너뛰고, 알려진 필드의 값이면 잘못된 값으로 봅니다.
+     *
+     * @return 필수 필드가 없거나 값이 잘못되었으면 null
+     * @throws JsonParseException 객체가 닫히기 전에 본문이 끝난 경우
+     */
+    private static LocationFix readFix(JsonParser parser, long receivedAt) throws IOException {
+        String segmentId = null;
+        double lat = Double.NaN;
+        double lon = Double.NaN;
+        long recordedAt = receivedAt;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == null) {
+                break;
+            }
+            if (value.isStructStart()) {
+                parser.skipChildren();
+            }
+            switch (field) {
+                case "segmentId" -> segmentId = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "lat" -> lat = value.isNumeric() ? parser.getDoubleValue() : Double.NaN;
+                case "lon" -> lon = value.isNumeric() ? parser.getDoubleValue() : Double.NaN;
+                case "ts" -> recordedAt = value.isNumeric() ? parser.getLongValue() : receivedAt;
+                default -> {
+                }
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "위치 항목이 닫히지 않았습니다");
+        }
+
+        if (segmentId == null || !isValid(lat, -90, 90) || !isValid(lon, -180, 180)) {
+            return null;
+        }
+        try {
+            return new LocationFix(UUID.fromString(segmentId), lat, lon, recordedAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isValid(double value, double min, double max) {
+        return value >= min && value <= max;
+    }
+
+    public record ReadResult(int accepted, int rejected) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.jonggeon.now_drop.service.location;
+
+import com.jonggeon.now_drop.service.cluster.ClusterEvent;
+import com.jonggeon.now_drop.service.cluster.ClusterEventPublisher;
+import com.jonggeon.now_drop.service.cluster.ClusterMembership;
+import com.jonggeon.now_drop.service.trip.ProgressResult;
+import com.jonggeon.now_drop.service.trip.TripProgressEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GPS 위치 수집기
+ *
+ * 요청 스레드는 위치를 구간별 최신 위치 맵에 넣고 바로 돌아가며,
+ * 전용 스레드가 맵을 비우면서 TripProgressEngine에 전달합니다.
+ * 처리 전에 같은 구간의 위치가 여러 번 들어오면 가장 최근 측정값만 남기므로
+ * 엔진으로 가는 호출 수는 디바이스 수에 비례하고 보고 빈도와는 무관합니다.
+ * 다른 인스턴스가 소유한 구간의 위치도 같은 방식으로 합친 뒤, 한 번 비울 때마다 소유 인스턴스별로 묶어 넘깁니다.
+ * 전용 스레드는 메모리 처리만 하며, DB에서 구간을 적재해야 할 수 있는 처리(소유 인스턴스가 받지 못한 위치)는
+ * 가상 스레드로 넘깁니다.
+ */
+@Slf4j
+@Component
+public class LocationIngestor {
+
+    private final TripProgressEngine tripProgressEngine;
+    private final ClusterMembership clusterMembership;
+    private final ClusterEventPublisher clusterEventPublisher;
+    private final int capacity;
+    private final Duration idleInterval;
+
+    private final ConcurrentHashMap<UUID, LocationFix> latest;
+    private volatile boolean running;
+    private Thread drainer;
+    private final ExecutorService fallbackExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("location-fallback-", 0).factory());
+
+    private final Counter accepted;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final Counter unknownSegments;
+
+    public LocationIngestor(TripProgressEngine tripProgressEngine,
+                            ClusterMembership clusterMembership,
+                            ClusterEventPublisher clusterEventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${location.ingest.capacity:200000}") int capacity,
+                            @Value("${location.ingest.idle-interval-ms:20}") long idleIntervalMillis) {
+        this.tripProgressEngine = tripProgressEngine;
+        this.clusterMembership = clusterMembership;
+        this.clusterEventPublisher = clusterEventPublisher;
+        this.capacity = capacity;
+        this.idleInterval = Duration.ofMillis(idleIntervalMillis);
+        this.latest = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+
+        this.accepted = Counter.builder("location.ingest.fixes").tag("result", "accepted").register(meterRegistry);
+        this.coalesced = Counter.builder("location.ingest.fixes").tag("result", "coalesced").register(meterRegistry);
+        this.dropped = Counter.builder("location.ingest.fixes").tag("result", "dropped").register(meterRegistry);
+        this.unknownSegments = Counter.builder("location.ingest.unknown-segments").register(meterRegistry);
+        Gauge.builder("location.ingest.pending", latest, Map::size)
+                .description("엔진 전달을 기다리는 구간 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainer = Thread.ofPlatform()
+                .name("location-ingest")
+                .daemon(true)
+                .start(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (drainer != null) {
+            drainer.interrupt();
+            drainer.join(Duration.ofSeconds(5));
+        }
+        fallbackExecutor.close();
+    }
+
+    /**
+     * 위치 한 건 추가
+     *
+     * 추적 여부는 이 인스턴스가 소유한 구간만 확인하고, 다른 인스턴스 소유 구간은 소유 인스턴스가 확인합니다.
+     *
+     * @return 추적 중인 구간이 아니거나 대기 중인 구간이 한도를 넘어 받아들이지 못하면 false
+     */
+    public boolean offer(LocationFix fix) {
+        if (clusterMembership.owns(fix.segmentId()) && !tripProgressEngine.isTracking(fix.segmentId())) {
+            unknownSegments.increment();
+            return false;
+        }
+        if (latest.size() >= capacity && !latest.containsKey(fix.segmentId())) {
+            dropped.increment();
+            return false;
+        }
+
+        // 늦게 도착한 과거 위치로 최신 위치를 덮어쓰지 않음
+        boolean[] replaced = new boolean[1];
+        latest.compute(fix.segmentId(), (segmentId, current) -> {
+            if (current == null) {
+                return fix;
+            }
+            replaced[0] = true;
+            return fix.recordedAt() >= current.recordedAt() ? fix : current;
+        });
+        (replaced[0] ? coalesced : accepted).increment();
+        return true;
+    }
+
+    public int getPendingCount() {
+        return latest.size();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                if (latest.isEmpty()) {
+                    Thread.sleep(idleInterval);
+                    continue;
+                }
+                drain();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Location ingest iteration failed", e);
+            }
+        }
+    }
+
+    private void drain() {
+        Map<String, List<ClusterEvent>> forwards = new HashMap<>();
+        for (Iterator<UUID> it = latest.keySet().iterator(); it.hasNext(); ) {
+            UUID segmentId = it.next();
+            LocationFix fix = latest.remove(segmentId);
+            if (fix == null) {
+                continue;
+            }
+            if (!clusterMembership.owns(segmentId)) {
+                forwards.computeIfAbsent(clusterMembership.ownerOf(segmentId), owner -> new ArrayList<>())
+                        .add(ClusterEvent.fix(fix));
+                continue;
+            }
+            ProgressResult result = tripProgressEngine.onPosition(segmentId, fix.lat(), fix.lon());
+            if (result == ProgressResult.UNKNOWN_SEGMENT) {
+                unknownSegments.increment();
+            }
+        }
+        // 소유 인스턴스가 받지 못한 위치는 여기서 처리 (구간을 DB에서 적재할 수 있으므로 가상 스레드에서)
+        List<ClusterEvent> undelivered = clusterEventPublisher.publish(forwards);
+        if (!undelivered.isEmpty()) {
+            fallbackExecutor.execute(() -> applyUndelivered(undelivered));
+        }
+    }
+
+    private void applyUndelivered(List<ClusterEvent> events) {
+        for (ClusterEvent event : events) {
+            try {
+                if (tripProgressEngine.applyLocal(event) == ProgressResult.UNKNOWN_SEGMENT) {
+                    unknownSegments.increment();
+                }
+            } catch (RuntimeException e) {
+                log.error("❌ Failed to apply undelivered fix for segment {}", event.segmentId(), e);
+            }
+        }
+    }
+}
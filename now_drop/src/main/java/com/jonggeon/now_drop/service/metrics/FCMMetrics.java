@@ -0,0 +1,180 @@
+package com.jonggeon.now_drop.service.metrics;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.jonggeon.now_drop.service.dispatch.Lane;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * FCM 전송 메트릭
+ *
+ * 전송 경로에서 매번 미터를 조회하지 않도록 태그 조합별 미터를 시작 시 모두 만들어 배열로 보관합니다.
+ * Actuator의 /actuator/prometheus로 노출됩니다.
+ */
+@Component
+public class FCMMetrics {
+
+    /**
+     * 전송 방식 (method 태그)
+     */
+    public enum SendMethod {
+        SINGLE, DATA, TOPIC, BATCH, MULTICAST, DISPATCH, PERSONALIZED;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final String[] PLATFORMS = {"android", "ios", "unknown"};
+    private static final int UNKNOWN_PLATFORM = 2;
+    private static final MessagingErrorCode[] ERROR_CODES = MessagingErrorCode.values();
+
+    private final MeterRegistry registry;
+
+    private final Timer[][] latency;
+    private final DistributionSummary[] batchSize;
+    private final Counter[] successes;
+    private final Counter[] failures;
+    private final Counter[][] errors;
+    private final Counter retriesScheduled;
+    private final Timer[] queueWait;
+
+    public FCMMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        SendMethod[] methods = SendMethod.values();
+        latency = new Timer[methods.length][PLATFORMS.length];
+        batchSize = new DistributionSummary[methods.length];
+        successes = new Counter[methods.length];
+        failures = new Counter[methods.length];
+        errors = new Counter[methods.length][ERROR_CODES.length + 1];
+
+        for (SendMethod method : methods) {
+            int m = method.ordinal();
+            for (int p = 0; p < PLATFORMS.length; p++) {
+                latency[m][p] = Timer.builder("fcm.send.latency")
+                        .description("FCM 전송 지연 시간")
+                        .tag("method", method.tag)
+                        .tag("platform", PLATFORMS[p])
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+            batchSize[m] = DistributionSummary.builder("fcm.batch.size")
+                    .description("FCM 배치당 메시지 수")
+                    .tag("method", method.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            successes[m] = Counter.builder("fcm.messages")
+                    .description("FCM 전송 메시지 수")
+                    .tag("method", method.tag)
+                    .tag("result", "success")
+                    .register(registry);
+            failures[m] = Counter.builder("fcm.messages")
+                    .description("FCM 전송 메시지 수")
+                    .tag("method", method.tag)
+                    .tag("result", "failure")
+                    .register(registry);
+            for (int e = 0; e <= ERROR_CODES.length; e++) {
+                String code = e < ERROR_CODES.length ? ERROR_CODES[e].name() : "UNKNOWN";
+                errors[m][e] = Counter.builder("fcm.send.errors")
+                        .description("MessagingErrorCode별 FCM 전송 실패 수")
+                        .tag("method", method.tag)
+                        .tag("code", code)
+                        .register(registry);
+            }
+        }
+
+        retriesScheduled = Counter.builder("fcm.retry.scheduled")
+                .description("예약된 FCM 재시도 수")
+                .register(registry);
+
+        Lane[] lanes = Lane.values();
+        queueWait = new Timer[lanes.length];
+        for (Lane lane : lanes) {
+            queueWait[lane.ordinal()] = Timer.builder("fcm.dispatch.queue.wait")
+                    .description("레인 큐에 들어와서 배치로 나가기까지 걸린 시간")
+                    .tag("lane", lane.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 전송 지연 시간 기록
+     *
+     * @param platform "android", "ios" 또는 null (알 수 없음)
+     */
+    public void recordLatency(SendMethod method, String platform, long nanos) {
+        latency[method.ordinal()][platformIndex(platform)].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatchSize(SendMethod method, int size) {
+        batchSize[method.ordinal()].record(size);
+    }
+
+    public void recordResults(SendMethod method, int successCount, int failureCount) {
+        if (successCount > 0) {
+            successes[method.ordinal()].increment(successCount);
+        }
+        if (failureCount > 0) {
+            failures[method.ordinal()].increment(failureCount);
+        }
+    }
+
+    /**
+     * 실패 기록 (errorCode가 null이면 UNKNOWN)
+     */
+    public void recordError(SendMethod method, MessagingErrorCode errorCode) {
+        int index = errorCode != null ? errorCode.ordinal() : ERROR_CODES.length;
+        errors[method.ordinal()][index].increment();
+    }
+
+    public void recordRetryScheduled() {
+        retriesScheduled.increment();
+    }
+
+    /**
+     * 레인별 큐 대기 시간 기록 (critical 레인의 지연 목표 확인용)
+     */
+    public void recordQueueWait(Lane lane, long nanos) {
+        queueWait[lane.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 큐 깊이, 처리 중 개수 등 게이지 등록
+     */
+    public void gauge(String name, String description, Supplier<Number> supplier) {
+        Gauge.builder(name, supplier)
+                .description(description)
+                .register(registry);
+    }
+
+    /**
+     * 태그 하나가 붙은 게이지 등록 (예: 레인별 큐 깊이)
+     */
+    public void gauge(String name, String description, String tagKey, String tagValue, Supplier<Number> supplier) {
+        Gauge.builder(name, supplier)
+                .description(description)
+                .tag(tagKey, tagValue)
+                .register(registry);
+    }
+
+    private static int platformIndex(String platform) {
+        if (platform == null) {
+            return UNKNOWN_PLATFORM;
+        }
+        if ("android".equalsIgnoreCase(platform)) {
+            return 0;
+        }
+        if ("ios".equalsIgnoreCase(platform)) {
+            return 1;
+        }
+        return UNKNOWN_PLATFORM;
+    }
+}
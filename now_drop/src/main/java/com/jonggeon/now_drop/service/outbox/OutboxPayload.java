@@ -0,0 +1,9 @@
+package com.jonggeon.now_drop.service.outbox;
+
+import java.util.Map;
+
+/**
+ * push_requests.message 컬럼에 JSON으로 저장되는 알림 내용
+ */
+public record OutboxPayload(String title, String body, Map<String, String> data) {
+}
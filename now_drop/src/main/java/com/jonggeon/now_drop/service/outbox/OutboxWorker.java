@@ -0,0 +1,318 @@
+package com.jonggeon.now_drop.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.service.FCMService;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import com.jonggeon.now_drop.service.token.DeviceTokenRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 아웃박스 워커
+ *
+ * 여러 워커가 SELECT ... FOR UPDATE SKIP LOCKED로 pending 행을 배치 단위로 가져가므로
+ * 인스턴스를 늘려도 같은 행을 두 번 전송하지 않습니다.
+ * 가져간 행은 FCMService로 전송하고, 결과는 상태별로 묶어 일괄 갱신합니다.
+ * 토큰 조회가 실패한 행은 실패로 확정하지 않고 pending으로 되돌려 다음 배치에서 다시 시도합니다.
+ */
+@Slf4j
+@Component
+public class OutboxWorker {
+
+    /**
+     * pending 행을 processing으로 바꾸면서 가져감 (다른 워커가 잡고 있는 행은 건너뜀)
+     */
+    private static final String CLAIM_SQL = """
+            UPDATE push_requests
+            SET status = 'processing', claimed_at = now()
+            WHERE id IN (
+                SELECT id FROM push_requests
+                WHERE status = 'pending'
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, user_id, message
+            """;
+
+    private static final String MARK_SENT_SQL = """
+            UPDATE push_requests
+            SET status = 'sent', sent_at = now(), error_message = NULL
+            WHERE id = ANY(?)
+            """;
+
+    private static final String MARK_FAILED_SQL = """
+            UPDATE push_requests
+            SET status = 'failed', error_message = ?
+            WHERE id = ?
+            """;
+
+    private static final String MARK_PENDING_SQL = """
+            UPDATE push_requests
+            SET status = 'pending', claimed_at = NULL
+            WHERE id = ANY(?)
+            """;
+
+    /**
+     * 처리 중 워커가 죽어 processing에 남은 행을 다시 pending으로 돌림
+     */
+    private static final String RECLAIM_SQL = """
+            UPDATE push_requests
+            SET status = 'pending', claimed_at = NULL
+            WHERE status = 'processing' AND claimed_at < now() - make_interval(secs => ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final FCMService fcmService;
+    private final DeviceTokenRegistry deviceTokenRegistry;
+
+    private final boolean enabled;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration claimTimeout;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OutboxWorker(JdbcTemplate jdbcTemplate,
+                        ObjectMapper objectMapper,
+                        FCMService fcmService,
+                        DeviceTokenRegistry deviceTokenRegistry,
+                        @Value("${fcm.outbox.enabled:true}") boolean enabled,
+                        @Value("${fcm.outbox.workers:2}") int workerCount,
+                        @Value("${fcm.outbox.batch-size:200}") int batchSize,
+                        @Value("${fcm.outbox.poll-interval-ms:500}") long pollIntervalMillis,
+                        @Value("${fcm.outbox.claim-timeout-seconds:300}") long claimTimeoutSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fcmService = fcmService;
+        this.deviceTokenRegistry = deviceTokenRegistry;
+        this.enabled = enabled;
+        this.workerCount = Math.max(workerCount, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.pollInterval = Duration.ofMillis(pollIntervalMillis);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("ℹ️ Outbox worker disabled");
+            return;
+        }
+
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("outbox-worker-" + i).start(this::pollLoop));
+        }
+        log.info("✅ Outbox worker started ({} workers, batch size {})", workerCount, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * 오래된 processing 행 회수
+     */
+    @Scheduled(fixedDelayString = "${fcm.outbox.reclaim-interval-ms:60000}")
+    public void reclaimStaleClaims() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int reclaimed = jdbcTemplate.update(RECLAIM_SQL, claimTimeout.toSeconds());
+            if (reclaimed > 0) {
+                log.warn("⚠️ Reclaimed {} stale outbox rows", reclaimed);
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to reclaim stale outbox rows", e);
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                int processed = processBatch();
+                if (processed < batchSize) {
+                    Thread.sleep(pollInterval);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Outbox worker iteration failed", e);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * pending 행 한 배치를 가져와 전송하고 결과를 반영
+     *
+     * @return 처리한 행 수
+     */
+    int processBatch() {
+        List<ClaimedRequest> claimed = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedRequest(
+                        rs.getObject("id", UUID.class),
+                        rs.getLong("user_id"),
+                        rs.getString("message")),
+                batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(claimed.size());
+        for (ClaimedRequest request : claimed) {
+            outcomes.add(dispatch(request));
+        }
+        CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new)).join();
+
+        List<UUID> sent = new ArrayList<>();
+        List<UUID> retry = new ArrayList<>();
+        List<Outcome> failed = new ArrayList<>();
+        for (CompletableFuture<Outcome> future : outcomes) {
+            Outcome outcome = future.join();
+            if (outcome.success()) {
+                sent.add(outcome.id());
+            } else if (outcome.retry()) {
+                retry.add(outcome.id());
+            } else {
+                failed.add(outcome);
+            }
+        }
+
+        markSent(sent);
+        markFailed(failed);
+        updateByIds(MARK_PENDING_SQL, retry);
+
+        log.info("📮 Outbox batch processed: {} sent, {} failed, {} retried", sent.size(), failed.size(), retry.size());
+        return claimed.size();
+    }
+
+    /**
+     * 요청 한 건을 사용자의 모든 디바이스로 전송
+     * 하나 이상의 디바이스에 전송되면 성공으로 봅니다.
+     */
+    private CompletableFuture<Outcome> dispatch(ClaimedRequest request) {
+        OutboxPayload payload;
+        try {
+            payload = objectMapper.readValue(request.message(), OutboxPayload.class);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(Outcome.failure(request.id(), "알림 내용을 읽을 수 없습니다: " + e.getMessage()));
+        }
+
+        Map<String, String> tokens;
+        try {
+            tokens = deviceTokenRegistry.findTokens(request.userId());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to look up device tokens for user {}, push request {} returned to pending: {}",
+                    request.userId(), request.id(), e.getMessage());
+            return CompletableFuture.completedFuture(Outcome.retry(request.id()));
+        }
+        if (tokens.isEmpty()) {
+            return CompletableFuture.completedFuture(Outcome.failure(request.id(), "등록된 디바이스 토큰이 없습니다"));
+        }
+
+        List<CompletableFuture<String>> sends = new ArrayList<>(tokens.size());
+        tokens.forEach((token, platform) -> sends.add(fcmService.sendNotificationAsync(
+                token, platform, payload.title(), payload.body(), payload.data(), NotificationTemplateRegistry.DEFAULT)));
+
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> {
+                    String lastError = null;
+                    for (CompletableFuture<String> send : sends) {
+                        if (!send.isCompletedExceptionally()) {
+                            return Outcome.success(request.id());
+                        }
+                        lastError = errorMessage(send);
+                    }
+                    return Outcome.failure(request.id(), lastError);
+                });
+    }
+
+    private void markSent(List<UUID> ids) {
+        updateByIds(MARK_SENT_SQL, ids);
+    }
+
+    private void updateByIds(String sql, List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        });
+    }
+
+    private void markFailed(List<Outcome> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failed, failed.size(), (ps, outcome) -> {
+            ps.setString(1, outcome.errorMessage());
+            ps.setObject(2, outcome.id());
+        });
+    }
+
+    private static String errorMessage(CompletableFuture<String> failedFuture) {
+        try {
+            failedFuture.join();
+            return null;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage();
+        }
+    }
+
+    private record ClaimedRequest(UUID id, Long userId, String message) {
+    }
+
+    private record Outcome(UUID id, boolean success, boolean retry, String errorMessage) {
+
+        static Outcome success(UUID id) {
+            return new Outcome(id, true, false, null);
+        }
+
+        static Outcome failure(UUID id, String errorMessage) {
+            return new Outcome(id, false, false, errorMessage);
+        }
+
+        /**
+         * 전송 여부를 판단하지 못함 (pending으로 되돌림)
+         */
+        static Outcome retry(UUID id) {
+            return new Outcome(id, false, true, null);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.jonggeon.now_drop.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.domain.PushStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 푸시 아웃박스
+ *
+ * 푸시 전송을 push_requests 행 삽입으로 예약합니다.
+ * (user_id, trip_id, notification_type) 유니크 제약이 중복 제거 키 역할을 하므로
+ * 같은 알림을 여러 번 예약해도 한 번만 전송됩니다.
+ * trip_id가 없는 알림도 중복 제거되도록 NULLS NOT DISTINCT 유니크 인덱스(schema.sql)를 함께 둡니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PushOutbox {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO push_requests (user_id, trip_id, notification_type, message, status, created_at)
+            VALUES (?, ?, ?, ?, ?, now())
+            ON CONFLICT (user_id, trip_id, notification_type) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 푸시 전송 예약
+     *
+     * @param userId 수신 사용자 ID
+     * @param tripId 관련 여정 ID (nullable)
+     * @param notificationType 알림 종류 (중복 제거 키의 일부)
+     * @param title 알림 제목
+     * @param body 알림 내용
+     * @param data 추가 데이터 (nullable)
+     * @return 새로 예약되었으면 true, 이미 같은 알림이 있으면 false
+     */
+    public boolean enqueue(Long userId, UUID tripId, String notificationType,
+                           String title, String body, Map<String, String> data) {
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(new OutboxPayload(title, body, data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("알림 내용을 직렬화할 수 없습니다: " + e.getMessage(), e);
+        }
+
+        int inserted = jdbcTemplate.update(INSERT_SQL,
+                userId, tripId, notificationType, message, PushStatus.PENDING.getValue());
+
+        if (inserted == 0) {
+            log.info("♻️ Duplicate push request ignored: user {}, trip {}, type {}", userId, tripId, notificationType);
+        }
+        return inserted > 0;
+    }
+}
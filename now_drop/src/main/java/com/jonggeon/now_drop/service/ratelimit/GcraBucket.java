@@ -0,0 +1,60 @@
+package com.jonggeon.now_drop.service.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 락 없는 토큰 버킷 (GCRA)
+ *
+ * 다음 허용 시각(TAT) 하나만 AtomicLong으로 두고 CAS로 갱신하므로
+ * 호출 스레드 수와 관계없이 잠금이나 주기적인 리필 작업이 없습니다.
+ */
+final class GcraBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param permitsPerSecond 초당 허용량
+     * @param burst 한 번에 허용하는 최대 몰림
+     */
+    GcraBucket(double permitsPerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * Math.max(burst, 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * permits만큼 예약하고 진행 가능할 때까지 기다려야 하는 시간을 반환 (거절하지 않음)
+     *
+     * @return 대기 시간 (나노초, 바로 진행 가능하면 0)
+     */
+    long reserve(int permits) {
+        return reserve(permits, burstNanos);
+    }
+
+    /**
+     * 허용 몰림을 줄여서 예약 (우선순위가 낮은 전송이 버스트 여유를 남겨 두도록)
+     *
+     * @param toleranceNanos 이번 예약에 허용하는 몰림 (burstNanos 이하)
+     */
+    long reserve(int permits, long toleranceNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + intervalNanos * permits;
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return Math.max(0, next - toleranceNanos - now);
+            }
+        }
+    }
+
+    long intervalNanos() {
+        return intervalNanos;
+    }
+
+    long burstNanos() {
+        return burstNanos;
+    }
+}
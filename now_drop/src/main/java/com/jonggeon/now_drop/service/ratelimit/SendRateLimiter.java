@@ -0,0 +1,142 @@
+package com.jonggeon.now_drop.service.ratelimit;
+
+import com.jonggeon.now_drop.service.dispatch.Lane;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FCM 전송 속도 제한
+ *
+ * 프로젝트 전체 한도(전역 버킷)와 디바이스별 한도(스트라이프 버킷)를 적용합니다.
+ * 한도를 넘은 전송은 거절하지 않고 필요한 만큼 늦춰서 보내므로, 버스트가 와도 QUOTA_EXCEEDED로 한꺼번에 실패하지 않습니다.
+ * fcm.rate-limit.redis.enabled=true이면 전역 한도를 Redis에서 관리해 여러 인스턴스가 한도를 나눠 씁니다.
+ * 배치 단위로 한 번에 예약하므로 Redis 왕복은 배치당 한 번이며, Redis 장애 시에는 로컬 버킷으로 대신합니다.
+ * bulk 레인은 버스트의 일부만 쓸 수 있어서, 대량 전송이 한도를 채우고 있어도 critical 알림은 남은 버스트로 바로 나갑니다.
+ */
+@Slf4j
+@Component
+public class SendRateLimiter {
+
+    private static final String GLOBAL_KEY = "fcm:rate:global";
+
+    /**
+     * Redis 시각 기준 GCRA 예약 (마이크로초 단위, 기다려야 하는 시간을 반환)
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local interval = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            if tat < now then
+                tat = now
+            end
+            local next = tat + interval * tonumber(ARGV[3])
+            redis.call('SET', KEYS[1], string.format('%d', next), 'PX', math.ceil((next - now) / 1000) + 1000)
+            local wait = next - burst - now
+            if wait < 0 then
+                return 0
+            end
+            return math.floor(wait)
+            """, Long.class);
+
+    private final boolean enabled;
+    private final GcraBucket globalBucket;
+    private final long bulkToleranceNanos;
+    private final StripedDeviceLimiter deviceLimiter;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean redisEnabled;
+    private final Timer throttleWait;
+
+    public SendRateLimiter(StringRedisTemplate redisTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${fcm.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${fcm.rate-limit.global-per-second:10000}") double globalPerSecond,
+                           @Value("${fcm.rate-limit.global-burst:2000}") int globalBurst,
+                           @Value("${fcm.rate-limit.bulk-burst-ratio:0.5}") double bulkBurstRatio,
+                           @Value("${fcm.rate-limit.device-per-minute:240}") double devicePerMinute,
+                           @Value("${fcm.rate-limit.device-burst:20}") int deviceBurst,
+                           @Value("${fcm.rate-limit.device-stripes:65536}") int deviceStripes,
+                           @Value("${fcm.rate-limit.redis.enabled:false}") boolean redisEnabled) {
+        this.enabled = enabled;
+        this.globalBucket = new GcraBucket(globalPerSecond, globalBurst);
+        this.bulkToleranceNanos = (long) (globalBucket.burstNanos() * Math.min(Math.max(bulkBurstRatio, 0), 1));
+        this.deviceLimiter = new StripedDeviceLimiter(devicePerMinute, deviceBurst, deviceStripes);
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        this.throttleWait = Timer.builder("fcm.rate-limit.wait")
+                .description("전역 속도 제한으로 전송을 늦춘 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 전역 한도에서 permits만큼 예약하고, 허용될 때까지 현재 스레드를 재움
+     */
+    public void acquire(int permits) throws InterruptedException {
+        acquire(permits, Lane.NORMAL);
+    }
+
+    /**
+     * 레인별 버스트 여유를 적용해 전역 한도에서 예약 (bulk는 줄어든 버스트만 사용)
+     */
+    public void acquire(int permits, Lane lane) throws InterruptedException {
+        long waitNanos = reserve(permits, lane);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 전역 한도에서 예약만 하고 기다려야 하는 시간을 반환 (호출한 쪽이 기다리는 동안 다른 일을 할 수 있도록)
+     *
+     * @return 대기 시간 (나노초, 바로 보낼 수 있으면 0)
+     */
+    public long reserve(int permits, Lane lane) {
+        if (!enabled || permits <= 0) {
+            return 0;
+        }
+
+        long toleranceNanos = lane == Lane.BULK ? bulkToleranceNanos : globalBucket.burstNanos();
+        long waitNanos = redisEnabled
+                ? reserveShared(permits, toleranceNanos)
+                : globalBucket.reserve(permits, toleranceNanos);
+        if (waitNanos > 0) {
+            throttleWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 디바이스 한도 확인
+     *
+     * @return 바로 보낼 수 있으면 0, 아니면 다시 시도할 수 있을 때까지의 시간 (나노초)
+     */
+    public long tryAcquireDevice(String token) {
+        if (!enabled || token == null) {
+            return 0;
+        }
+        return deviceLimiter.tryAcquire(token);
+    }
+
+    private long reserveShared(int permits, long toleranceNanos) {
+        try {
+            Long waitMicros = redisTemplate.execute(RESERVE_SCRIPT, List.of(GLOBAL_KEY),
+                    Long.toString(TimeUnit.NANOSECONDS.toMicros(globalBucket.intervalNanos())),
+                    Long.toString(TimeUnit.NANOSECONDS.toMicros(toleranceNanos)),
+                    Integer.toString(permits));
+            return waitMicros != null ? TimeUnit.MICROSECONDS.toNanos(waitMicros) : 0;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Shared rate limit unavailable, using local bucket: {}", e.getMessage());
+            return globalBucket.reserve(permits, toleranceNanos);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.jonggeon.now_drop.service.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 디바이스별 토큰 버킷 (스트라이프)
+ *
+ * 토큰마다 버킷을 만들지 않고 토큰 해시로 고정 크기 배열의 칸을 골라 GCRA 상태를 둡니다.
+ * 메모리는 디바이스 수와 무관하며, 해시가 겹친 토큰끼리는 한도를 나눠 쓰게 되어 더 보수적으로 동작합니다.
+ */
+final class StripedDeviceLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLongArray theoreticalArrivals;
+    private final int mask;
+
+    StripedDeviceLimiter(double permitsPerMinute, int burst, int stripes) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.MINUTES.toNanos(1) / permitsPerMinute));
+        this.burstNanos = intervalNanos * Math.max(burst, 1);
+
+        int size = Integer.highestOneBit(Math.max(stripes, 1) - 1) << 1;
+        this.theoreticalArrivals = new AtomicLongArray(Math.max(size, 1));
+        this.mask = theoreticalArrivals.length() - 1;
+
+        long now = System.nanoTime();
+        for (int i = 0; i < theoreticalArrivals.length(); i++) {
+            theoreticalArrivals.set(i, now);
+        }
+    }
+
+    /**
+     * 한도 안이면 1개를 사용하고 0, 한도를 넘었으면 사용하지 않고 다시 시도할 수 있을 때까지의 시간을 반환
+     */
+    long tryAcquire(String token) {
+        int slot = spread(token.hashCode()) & mask;
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivals.get(slot);
+            long next = Math.max(tat, now) + intervalNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivals.compareAndSet(slot, tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,246 @@
+package com.jonggeon.now_drop.service.retry;
+
+import com.google.firebase.messaging.Message;
+import com.jonggeon.now_drop.service.dispatch.FCMDispatcher;
+import com.jonggeon.now_drop.service.dispatch.FCMSendException;
+import com.jonggeon.now_drop.service.dispatch.Lane;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 일시적 FCM 오류 재시도 스케줄러
+ *
+ * UNAVAILABLE, QUOTA_EXCEEDED, INTERNAL 오류로 실패한 메시지를 지연 큐에 넣고,
+ * 지수 백오프와 지터(FCM Retry-After가 더 길면 그 값)를 적용해 디스패처로 다시 보냅니다.
+ * 재시도는 전용 타이머 스레드와 디스패처에서만 수행되므로 요청 스레드를 붙잡지 않습니다.
+ */
+@Slf4j
+@Component
+public class RetryScheduler {
+
+    private final FCMDispatcher dispatcher;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int maxPending;
+
+    private final DelayQueue<RetryTask> delayQueue = new DelayQueue<>();
+    private volatile boolean running;
+    private Thread timer;
+
+    private final FCMMetrics metrics;
+
+    public RetryScheduler(FCMDispatcher dispatcher,
+                          FCMMetrics metrics,
+                          @Value("${fcm.retry.max-attempts:5}") int maxAttempts,
+                          @Value("${fcm.retry.base-delay-ms:500}") long baseDelayMillis,
+                          @Value("${fcm.retry.max-delay-ms:60000}") long maxDelayMillis,
+                          @Value("${fcm.retry.max-pending:100000}") int maxPending) {
+        this.dispatcher = dispatcher;
+        this.metrics = metrics;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.baseDelayMillis = Math.max(baseDelayMillis, 1);
+        this.maxDelayMillis = Math.max(maxDelayMillis, this.baseDelayMillis);
+        this.maxPending = maxPending;
+
+        metrics.gauge("fcm.retry.pending", "대기 중인 FCM 재시도 수", this::getPendingRetries);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        timer = Thread.ofPlatform()
+                .name("fcm-retry-timer")
+                .daemon(true)
+                .start(this::timerLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (timer != null) {
+            timer.interrupt();
+        }
+
+        // 기다리는 호출자가 멈추지 않도록 남은 재시도를 실패로 완료
+        // (drainTo는 지연이 끝난 항목만 꺼내므로 반복자로 모두 꺼냄)
+        List<RetryTask> pending = new ArrayList<>();
+        for (Iterator<RetryTask> it = delayQueue.iterator(); it.hasNext(); ) {
+            pending.add(it.next());
+            it.remove();
+        }
+        if (!pending.isEmpty()) {
+            log.warn("⚠️ Dropping {} pending FCM retries on shutdown", pending.size());
+        }
+        for (RetryTask task : pending) {
+            task.result().completeExceptionally(new FCMSendException(
+                    "종료 중이라 FCM 재시도를 취소했습니다", null, null, false, null));
+        }
+    }
+
+    /**
+     * 메시지를 전송하고, 일시적 오류면 재시도 예산 안에서 다시 전송
+     *
+     * @return 최종 성공 시 메시지 ID, 최종 실패 시 FCMSendException으로 완료되는 Future
+     */
+    public CompletableFuture<String> send(Message message) {
+        return send(message, null, null);
+    }
+
+    /**
+     * 수신 디바이스를 알고 있는 메시지 전송 (디바이스별 속도 제한, 플랫폼별 지연 시간 메트릭용)
+     *
+     * @param token 수신 디바이스 토큰 또는 null
+     * @param platform "android", "ios" 또는 null
+     */
+    public CompletableFuture<String> send(Message message, String token, String platform) {
+        return send(message, token, platform, Lane.NORMAL);
+    }
+
+    /**
+     * 지정한 레인으로 전송 (재시도도 같은 레인으로 들어감)
+     */
+    public CompletableFuture<String> send(Message message, String token, String platform, Lane lane) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        attempt(new RetryTarget(message, token, platform, lane), 1, result);
+        return result;
+    }
+
+    /**
+     * 이미 한 번 실패한 메시지의 재시도를 백그라운드로 예약 (동기 전송 경로용)
+     *
+     * @return 재시도가 예약되었으면 true (일시적 오류가 아니거나 대기열이 가득 차면 false)
+     */
+    public boolean scheduleRetry(Message message, FCMSendException failure) {
+        return scheduleRetry(message, null, Lane.NORMAL, failure);
+    }
+
+    /**
+     * 수신 디바이스와 레인을 알고 있는 메시지의 재시도 예약 (디바이스별 속도 제한 적용)
+     */
+    public boolean scheduleRetry(Message message, String token, Lane lane, FCMSendException failure) {
+        return scheduleRetry(message, token, lane, failure, new CompletableFuture<>());
+    }
+
+    /**
+     * 재시도를 예약하고 최종 결과를 result로 전달 (재시도를 포기했을 때 후처리가 필요한 경로용)
+     *
+     * @return 재시도가 예약되었으면 true (false면 result는 완료되지 않음)
+     */
+    public boolean scheduleRetry(Message message, String token, Lane lane, FCMSendException failure,
+                                 CompletableFuture<String> result) {
+        if (!failure.isTransient()) {
+            return false;
+        }
+        result.whenComplete((messageId, e) -> {
+            if (e != null) {
+                log.error("❌ FCM message dropped after retries: {}", e.getMessage());
+            } else {
+                log.info("✅ FCM message delivered on retry: {}", messageId);
+            }
+        });
+        return schedule(new RetryTarget(message, token, null, lane), 2, failure, result);
+    }
+
+    /**
+     * 대기 중인 재시도 수
+     */
+    public int getPendingRetries() {
+        return delayQueue.size();
+    }
+
+    private void attempt(RetryTarget target, int attempt, CompletableFuture<String> result) {
+        dispatcher.submit(target.message(), target.token(), target.platform(), target.lane()).whenComplete((messageId, e) -> {
+            if (e == null) {
+                result.complete(messageId);
+                return;
+            }
+
+            FCMSendException failure = FCMSendException.from("FCM 전송 실패", e);
+            if (!failure.isTransient() || !schedule(target, attempt + 1, failure, result)) {
+                result.completeExceptionally(failure);
+            }
+        });
+    }
+
+    private boolean schedule(RetryTarget target, int nextAttempt, FCMSendException failure,
+                             CompletableFuture<String> result) {
+        if (nextAttempt > maxAttempts || !running) {
+            return false;
+        }
+        if (delayQueue.size() >= maxPending) {
+            log.warn("⚠️ FCM retry queue full ({}), not retrying", maxPending);
+            return false;
+        }
+
+        long delayMillis = backoffMillis(nextAttempt - 1, failure.getRetryAfter());
+        delayQueue.put(new RetryTask(target, nextAttempt, result, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+        metrics.recordRetryScheduled();
+
+        log.debug("🔁 Retry {} of {} scheduled in {}ms ({})", nextAttempt, maxAttempts, delayMillis, failure.getErrorCode());
+        return true;
+    }
+
+    /**
+     * 지수 백오프 + 지터
+     * base * 2^(retry-1)을 상한으로 하고 그 절반 이상에서 무작위로 고르며, Retry-After보다 짧지 않게 합니다.
+     */
+    long backoffMillis(int retry, Duration retryAfter) {
+        long exponential = baseDelayMillis << Math.min(retry - 1, 20);
+        long ceiling = Math.min(maxDelayMillis, exponential);
+        long jittered = ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+
+        if (retryAfter != null) {
+            return Math.max(jittered, retryAfter.toMillis());
+        }
+        return jittered;
+    }
+
+    private void timerLoop() {
+        while (running) {
+            try {
+                RetryTask task = delayQueue.take();
+                attempt(task.target(), task.attempt(), task.result());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ FCM retry timer iteration failed", e);
+            }
+        }
+    }
+
+    private record RetryTarget(Message message, String token, String platform, Lane lane) {
+    }
+
+    private record RetryTask(RetryTarget target, int attempt, CompletableFuture<String> result, long dueNanos)
+            implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof RetryTask task) {
+                return Long.compare(dueNanos, task.dueNanos);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.jonggeon.now_drop.service.schedule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.service.outbox.OutboxPayload;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 예약 푸시 스케줄러
+ *
+ * 예약 알림은 push_requests에 status='scheduled'와 scheduled_at으로 저장하므로 재시작해도 사라지지 않고,
+ * 가까운 시각(load-horizon 이내)의 예약만 메모리 타이밍 휠에 올려 O(1)로 등록/변경/취소합니다.
+ * 휠에서 만료된 예약은 한 번의 UPDATE로 pending으로 바꾸며, 이후 전송은 아웃박스 워커가 맡습니다.
+ * 다른 인스턴스에서 바뀐 예약이나 휠에 없는 예약은 주기적인 스윕이 scheduled_at 기준으로 넘기므로,
+ * 휠은 정확한 시각을 위한 것이고 누락 방지는 DB가 맡습니다.
+ */
+@Slf4j
+@Service
+public class PushScheduler {
+
+    /**
+     * 같은 (user_id, trip_id, notification_type)이 아직 예약 상태면 시각과 내용만 바꾸고 (ETA 변경),
+     * 취소되었거나 전송/실패로 끝난 행은 다시 예약 상태로 되돌림. 전송 대기(pending)나 전송 중인 행은 그대로 둠
+     * trip_id가 NULL인 알림도 NULLS NOT DISTINCT 인덱스(schema.sql)가 같은 키로 묶음
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO push_requests (user_id, trip_id, notification_type, message, status, scheduled_at, created_at)
+            VALUES (?, ?, ?, ?, 'scheduled', ?, now())
+            ON CONFLICT (user_id, trip_id, notification_type) DO UPDATE
+            SET scheduled_at = EXCLUDED.scheduled_at,
+                message = EXCLUDED.message,
+                status = 'scheduled',
+                claimed_at = NULL,
+                sent_at = NULL,
+                error_message = NULL
+            WHERE push_requests.status IN ('scheduled', 'cancelled', 'sent', 'failed')
+            RETURNING id
+            """;
+
+    private static final String RESCHEDULE_SQL = """
+            UPDATE push_requests
+            SET scheduled_at = ?
+            WHERE id = ? AND status = 'scheduled'
+            """;
+
+    private static final String CANCEL_SQL = """
+            UPDATE push_requests
+            SET status = 'cancelled'
+            WHERE id = ? AND status = 'scheduled'
+            """;
+
+    /**
+     * 휠에서 만료된 예약을 pending으로 넘김 (그사이 다른 곳에서 미루거나 취소한 행은 제외)
+     */
+    private static final String PROMOTE_SQL = """
+            UPDATE push_requests
+            SET status = 'pending', claimed_at = NULL
+            WHERE id = ANY(?) AND status = 'scheduled' AND scheduled_at <= now()
+            """;
+
+    private static final String PROMOTE_DUE_SQL = """
+            UPDATE push_requests
+            SET status = 'pending', claimed_at = NULL
+            WHERE status = 'scheduled' AND scheduled_at <= now()
+            """;
+
+    /**
+     * (scheduled_at, id) 키셋 페이지 단위 적재
+     */
+    private static final String LOAD_SQL = """
+            SELECT id, scheduled_at FROM push_requests
+            WHERE status = 'scheduled'
+              AND (scheduled_at, id) > (?, ?)
+              AND scheduled_at <= ?
+            ORDER BY scheduled_at, id
+            LIMIT ?
+            """;
+
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long tickMillis;
+    private final Duration loadHorizon;
+    private final int loadPageSize;
+
+    private final TimingWheel<UUID> wheel;
+
+    /**
+     * 휠에 적재한 구간의 끝 (이 시각 이후 예약은 DB에만 있음)
+     */
+    private volatile Instant loadedUntil;
+    private volatile boolean running;
+    private Thread ticker;
+
+    public PushScheduler(JdbcTemplate jdbcTemplate,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${fcm.schedule.tick-ms:100}") long tickMillis,
+                         @Value("${fcm.schedule.load-horizon-minutes:360}") long loadHorizonMinutes,
+                         @Value("${fcm.schedule.load-page-size:10000}") int loadPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.tickMillis = Math.max(tickMillis, 10);
+        this.loadHorizon = Duration.ofMinutes(Math.max(loadHorizonMinutes, 1));
+        this.loadPageSize = Math.max(loadPageSize, 100);
+        this.wheel = new TimingWheel<>(this.tickMillis, System.currentTimeMillis());
+        this.loadedUntil = Instant.now();
+
+        Gauge.builder("push.schedule.pending", this::getPendingTimers)
+                .description("메모리 타이밍 휠에 걸린 예약 알림 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Instant until = Instant.now().plus(loadHorizon);
+        loadedUntil = until;
+        int loaded = load(Instant.EPOCH, until);
+
+        running = true;
+        ticker = Thread.ofPlatform()
+                .name("push-scheduler")
+                .daemon(true)
+                .start(this::tickLoop);
+        log.info("✅ Push scheduler started ({} timers loaded, horizon {})", loaded, loadHorizon);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * 알림 예약 (같은 사용자/여정/알림 종류가 아직 예약 상태면 시각과 내용을 바꾸고, 취소되었거나 끝난 알림은 다시 예약)
+     *
+     * @param sendAt 전송 시각 (이미 지났으면 다음 틱에 전송)
+     * @return 예약 ID, 같은 알림이 전송 대기 중이거나 전송 중이면 null
+     */
+    public UUID schedule(Long userId, UUID tripId, String notificationType,
+                         String title, String body, Map<String, String> data, Instant sendAt) {
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(new OutboxPayload(title, body, data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("알림 내용을 직렬화할 수 없습니다: " + e.getMessage(), e);
+        }
+
+        List<UUID> ids = jdbcTemplate.query(UPSERT_SQL, (rs, rowNum) -> rs.getObject("id", UUID.class),
+                userId, tripId, notificationType, message, Timestamp.from(sendAt));
+        if (ids.isEmpty()) {
+            log.info("♻️ Push already dispatched, not rescheduled: user {}, trip {}, type {}", userId, tripId, notificationType);
+            return null;
+        }
+
+        UUID id = ids.get(0);
+        arm(id, sendAt);
+        log.debug("⏰ Push {} scheduled at {}", id, sendAt);
+        return id;
+    }
+
+    /**
+     * 예약 시각 변경
+     *
+     * @return 아직 예약 상태여서 바뀌었으면 true
+     */
+    public boolean reschedule(UUID id, Instant sendAt) {
+        if (jdbcTemplate.update(RESCHEDULE_SQL, Timestamp.from(sendAt), id) == 0) {
+            disarm(id);
+            return false;
+        }
+        arm(id, sendAt);
+        return true;
+    }
+
+    /**
+     * 예약 취소
+     *
+     * @return 아직 예약 상태여서 취소되었으면 true
+     */
+    public boolean cancel(UUID id) {
+        disarm(id);
+        return jdbcTemplate.update(CANCEL_SQL, id) > 0;
+    }
+
+    /**
+     * 메모리 휠에 걸린 예약 수
+     */
+    public int getPendingTimers() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * 놓친 예약을 넘기고 적재 구간을 앞으로 늘림
+     * 다른 인스턴스에서 등록/변경한 예약과 휠 밖의 예약은 여기서 처리됩니다.
+     */
+    @Scheduled(fixedDelayString = "${fcm.schedule.sweep-interval-ms:5000}")
+    public void sweep() {
+        if (!running) {
+            return;
+        }
+        try {
+            int promoted = jdbcTemplate.update(PROMOTE_DUE_SQL);
+            if (promoted > 0) {
+                log.info("⏰ Sweep promoted {} due scheduled pushes", promoted);
+            }
+
+            Instant from = loadedUntil;
+            Instant until = Instant.now().plus(loadHorizon);
+            if (until.isAfter(from)) {
+                // 구간을 먼저 늘려서 적재 중에 들어온 예약도 휠에 걸리게 함
+                loadedUntil = until;
+                load(from, until);
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Scheduled push sweep failed", e);
+        }
+    }
+
+    /**
+     * 적재 구간 안의 예약만 휠에 올림 (구간 밖은 스윕이 구간을 늘릴 때 올라옴)
+     */
+    private void arm(UUID id, Instant sendAt) {
+        synchronized (wheel) {
+            if (sendAt.isAfter(loadedUntil)) {
+                wheel.cancel(id);
+            } else {
+                wheel.schedule(id, sendAt.toEpochMilli());
+            }
+        }
+    }
+
+    private void disarm(UUID id) {
+        synchronized (wheel) {
+            wheel.cancel(id);
+        }
+    }
+
+    /**
+     * (from, until] 구간의 예약을 페이지 단위로 휠에 적재
+     */
+    private int load(Instant from, Instant until) {
+        int loaded = 0;
+        Timestamp cursorAt = Timestamp.from(from);
+        UUID cursorId = MIN_UUID;
+        Timestamp untilAt = Timestamp.from(until);
+
+        while (true) {
+            List<ScheduledRow> page = jdbcTemplate.query(LOAD_SQL,
+                    (rs, rowNum) -> new ScheduledRow(rs.getObject("id", UUID.class), rs.getTimestamp("scheduled_at")),
+                    cursorAt, cursorId, untilAt, loadPageSize);
+
+            synchronized (wheel) {
+                for (ScheduledRow row : page) {
+                    wheel.schedule(row.id(), row.scheduledAt().getTime());
+                }
+            }
+            loaded += page.size();
+
+            if (page.size() < loadPageSize) {
+                return loaded;
+            }
+            ScheduledRow last = page.get(page.size() - 1);
+            cursorAt = last.scheduledAt();
+            cursorId = last.id();
+        }
+    }
+
+    private void tickLoop() {
+        List<UUID> expired = new ArrayList<>();
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+
+                synchronized (wheel) {
+                    wheel.advance(System.currentTimeMillis(), expired);
+                }
+                if (!expired.isEmpty()) {
+                    promote(expired);
+                    expired.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // 넘기지 못한 예약은 스윕이 다시 처리
+                log.error("❌ Failed to promote {} scheduled pushes", expired.size(), e);
+                expired.clear();
+            }
+        }
+    }
+
+    private void promote(List<UUID> ids) {
+        int promoted = jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(PROMOTE_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        });
+        log.debug("⏰ {} scheduled pushes due, {} handed to outbox", ids.size(), promoted);
+    }
+
+    private record ScheduledRow(UUID id, Timestamp scheduledAt) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.jonggeon.now_drop.service.schedule;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계층형 타이밍 휠
+ *
+ * 256칸짜리 휠 4단(틱 100ms 기준 약 13년)을 두고, 타이머를 남은 틱 수에 맞는 단의 칸에 이중 연결 리스트로 매답니다.
+ * 등록/취소는 칸 리스트에 붙이고 떼는 것뿐이라 대기 중인 타이머 수와 관계없이 O(1)이며,
+ * 상위 단의 칸은 하위 휠이 한 바퀴 돌 때마다 한 칸씩 아래 단으로 내려옵니다.
+ * 스레드 안전하지 않으므로 호출하는 쪽에서 동기화합니다.
+ *
+ * @param <K> 타이머 키 (같은 키로 다시 등록하면 기존 타이머를 대체)
+ */
+final class TimingWheel<K> {
+
+    private static final int WHEEL_BITS = 8;
+    private static final int SLOTS = 1 << WHEEL_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Entry<K>[][] slots;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = Math.max(tickMillis, 1);
+        this.currentTick = startMillis / this.tickMillis;
+        this.slots = new Entry[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = Entry.sentinel();
+            }
+        }
+    }
+
+    /**
+     * 타이머 등록 (이미 있는 키면 시각만 바꿈)
+     * 이미 지난 시각이면 다음 틱에 만료됩니다.
+     */
+    void schedule(K key, long dueMillis) {
+        Entry<K> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+        } else {
+            entry.unlink();
+        }
+        entry.dueTick = Math.max(ceilDiv(dueMillis, tickMillis), currentTick + 1);
+        place(entry);
+    }
+
+    /**
+     * 타이머 취소
+     *
+     * @return 등록되어 있었으면 true
+     */
+    boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.unlink();
+        return true;
+    }
+
+    boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 지정한 시각까지 휠을 돌리고 만료된 타이머 키를 expired에 담음
+     */
+    void advance(long nowMillis, List<K> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            expire(slots[0][(int) (currentTick & MASK)], expired);
+        }
+    }
+
+    /**
+     * 하위 휠이 한 바퀴 돈 단마다 현재 칸의 타이머를 다시 배치 (남은 틱이 줄었으므로 아래 단으로 내려감)
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Entry<K> head = slots[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & MASK)];
+            Entry<K> entry = head.next;
+            while (entry != head) {
+                Entry<K> next = entry.next;
+                entry.unlink();
+                place(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void expire(Entry<K> head, List<K> expired) {
+        Entry<K> entry = head.next;
+        while (entry != head) {
+            Entry<K> next = entry.next;
+            entry.unlink();
+            if (entry.dueTick <= currentTick) {
+                entries.remove(entry.key);
+                expired.add(entry.key);
+            } else {
+                place(entry);
+            }
+            entry = next;
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        long delta = entry.dueTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        long tick = Math.max(entry.dueTick, currentTick);
+        entry.linkBefore(slots[level][(int) ((tick >>> (WHEEL_BITS * level)) & MASK)]);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Entry<K> {
+
+        private final K key;
+        private long dueTick;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+
+        private static <K> Entry<K> sentinel() {
+            Entry<K> head = new Entry<>(null);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        private void linkBefore(Entry<K> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.jonggeon.now_drop.service.stop;
+
+/**
+ * 위치에서 가장 가까운 정류장과 거리
+ */
+public record NearbyStop(StopPoint stop, double distanceMeters) {
+}
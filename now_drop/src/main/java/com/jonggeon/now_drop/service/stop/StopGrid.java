@@ -0,0 +1,175 @@
+package com.jonggeon.now_drop.service.stop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 정류장 격자 인덱스 (불변)
+ *
+ * 위경도를 고정 크기 격자 칸으로 나누어 칸마다 정류장 배열을 두고,
+ * 노선별로는 stop_sequence 순으로 정렬된 배열을 둡니다.
+ * 조회는 주변 칸만 훑으므로 정류장 수와 무관하게 수 마이크로초 안에 끝납니다.
+ * 갱신 시에는 새 인스턴스를 만들어 통째로 교체합니다.
+ */
+final class StopGrid {
+
+    static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+    /**
+     * 격자 한 칸의 크기 (약 250m)
+     */
+    static final double CELL_DEGREES = 0.0025;
+
+    /**
+     * 위치로 정류장을 찾을 때 현재 정류장부터 살펴볼 정류장 수
+     */
+    private static final int ROUTE_LOOKAHEAD = 8;
+
+    private static final StopPoint[] NO_STOPS = new StopPoint[0];
+
+    static final StopGrid EMPTY = new StopGrid(List.of());
+
+    private final Map<Long, StopPoint[]> cells;
+    private final Map<String, StopPoint[]> routes;
+    private final int size;
+
+    StopGrid(Collection<StopPoint> stops) {
+        Map<Long, List<StopPoint>> cellLists = new HashMap<>();
+        Map<String, List<StopPoint>> routeLists = new HashMap<>();
+        for (StopPoint stop : stops) {
+            cellLists.computeIfAbsent(cellKey(cellOf(stop.lat()), cellOf(stop.lon())), k -> new ArrayList<>()).add(stop);
+            routeLists.computeIfAbsent(stop.routeId(), k -> new ArrayList<>()).add(stop);
+        }
+
+        this.cells = new HashMap<>(cellLists.size() * 2);
+        cellLists.forEach((key, list) -> cells.put(key, list.toArray(StopPoint[]::new)));
+
+        this.routes = new HashMap<>(routeLists.size() * 2);
+        routeLists.forEach((routeId, list) -> {
+            StopPoint[] route = list.toArray(StopPoint[]::new);
+            Arrays.sort(route, Comparator.comparingInt(StopPoint::sequence));
+            routes.put(routeId, route);
+        });
+
+        this.size = stops.size();
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 반경 안에서 가장 가까운 정류장
+     *
+     * @return 없으면 null
+     */
+    NearbyStop nearest(double lat, double lon, double maxMeters) {
+        int latCells = (int) Math.ceil(maxMeters / METERS_PER_DEGREE / CELL_DEGREES);
+        double cosLat = Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        int lonCells = (int) Math.ceil(maxMeters / (METERS_PER_DEGREE * cosLat) / CELL_DEGREES);
+
+        int centerLat = cellOf(lat);
+        int centerLon = cellOf(lon);
+
+        StopPoint best = null;
+        double bestDistance = maxMeters;
+        for (int dy = -latCells; dy <= latCells; dy++) {
+            for (int dx = -lonCells; dx <= lonCells; dx++) {
+                StopPoint[] cell = cells.getOrDefault(cellKey(centerLat + dy, centerLon + dx), NO_STOPS);
+                for (StopPoint stop : cell) {
+                    double distance = distanceMeters(lat, lon, stop.lat(), stop.lon());
+                    if (distance <= bestDistance) {
+                        best = stop;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        return best != null ? new NearbyStop(best, bestDistance) : null;
+    }
+
+    /**
+     * 노선 위의 위치로 마지막으로 지난(도착한) 정류장의 sequence를 판단
+     *
+     * fromSequence부터 몇 정류장 앞까지 중 가장 가까운 정류장을 고른 뒤,
+     * 도착 반경 안이거나 다음 정류장 방향으로 이미 지나쳤으면 그 정류장, 아니면 그 이전 정류장으로 봅니다.
+     *
+     * @return 노선에서 벗어났거나 노선 정보가 없으면 -1
+     */
+    int lastPassedSequence(String routeId, int fromSequence, double lat, double lon,
+                           double arrivalMeters, double offRouteMeters) {
+        StopPoint[] route = routes.get(routeId);
+        if (route == null) {
+            return -1;
+        }
+
+        int from = firstIndexAtOrAfter(route, fromSequence);
+        int to = Math.min(route.length, from + ROUTE_LOOKAHEAD);
+
+        int bestIndex = -1;
+        double bestDistance = offRouteMeters;
+        for (int i = from; i < to; i++) {
+            double distance = distanceMeters(lat, lon, route[i].lat(), route[i].lon());
+            if (distance <= bestDistance) {
+                bestIndex = i;
+                bestDistance = distance;
+            }
+        }
+        if (bestIndex < 0) {
+            return -1;
+        }
+
+        StopPoint best = route[bestIndex];
+        if (bestDistance <= arrivalMeters || bestIndex + 1 == route.length) {
+            return best.sequence();
+        }
+
+        // 정류장 → 현재 위치 벡터가 정류장 → 다음 정류장 방향이면 이미 지나친 것
+        StopPoint next = route[bestIndex + 1];
+        double cosLat = Math.cos(Math.toRadians(best.lat()));
+        double fixX = (lon - best.lon()) * cosLat;
+        double fixY = lat - best.lat();
+        double nextX = (next.lon() - best.lon()) * cosLat;
+        double nextY = next.lat() - best.lat();
+        boolean passed = fixX * nextX + fixY * nextY > 0;
+
+        return passed ? best.sequence() : best.sequence() - 1;
+    }
+
+    /**
+     * 짧은 거리용 등장방형 근사 거리 (수 km 이내에서 오차 0.1% 미만)
+     */
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+
+    private static int firstIndexAtOrAfter(StopPoint[] route, int sequence) {
+        int low = 0;
+        int high = route.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (route[mid].sequence() < sequence) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,7 @@
+package com.jonggeon.now_drop.service.stop;
+
+/**
+ * 메모리 인덱스에 보관하는 정류장 (위경도는 WGS84)
+ */
+public record StopPoint(long id, String routeId, int sequence, String name, double lat, double lon) {
+}
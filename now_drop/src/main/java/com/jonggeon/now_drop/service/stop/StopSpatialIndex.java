@@ -0,0 +1,144 @@
+package com.jonggeon.now_drop.service.stop;
+
+import com.jonggeon.now_drop.domain.RouteStop;
+import com.jonggeon.now_drop.repository.RouteStopRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 정류장 공간 인덱스
+ *
+ * PostGIS의 route_stops를 원본으로 두고, 시작 시 전체를 메모리 격자 인덱스로 적재합니다.
+ * 이후에는 마지막으로 본 updated_at 이후의 행만 주기적으로 읽어 새 격자를 만들어 교체하므로
+ * 조회 경로는 락 없이 volatile 참조 하나만 읽습니다.
+ * 인덱스가 아직 비어 있으면 근접 정류장 조회는 PostGIS(GIST 인덱스)로 대신합니다.
+ */
+@Slf4j
+@Component
+public class StopSpatialIndex {
+
+    private static final String SELECT_CHANGED_SQL = """
+            SELECT id, route_id, stop_sequence, stop_name, ST_Y(location) AS lat, ST_X(location) AS lon,
+                   active, updated_at
+            FROM route_stops
+            WHERE updated_at >= ?
+            ORDER BY updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RouteStopRepository routeStopRepository;
+    private final double arrivalRadiusMeters;
+    private final double offRouteMeters;
+
+    /**
+     * 증분 갱신용 원본 (갱신 스레드에서만 접근)
+     */
+    private final Map<Long, StopPoint> stops = new HashMap<>();
+    private LocalDateTime lastUpdatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private volatile StopGrid grid = StopGrid.EMPTY;
+
+    public StopSpatialIndex(JdbcTemplate jdbcTemplate,
+                            RouteStopRepository routeStopRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${stop-index.arrival-radius-m:40}") double arrivalRadiusMeters,
+                            @Value("${stop-index.off-route-m:300}") double offRouteMeters) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.routeStopRepository = routeStopRepository;
+        this.arrivalRadiusMeters = arrivalRadiusMeters;
+        this.offRouteMeters = offRouteMeters;
+
+        Gauge.builder("stop.index.size", this, index -> index.grid.size())
+                .description("메모리 인덱스에 적재된 정류장 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    /**
+     * 바뀐 정류장만 읽어 인덱스 갱신
+     * 같은 시각에 늦게 커밋된 행을 놓치지 않도록 마지막 시각의 행은 다시 읽고, 실제로 바뀐 경우에만 격자를 다시 만듭니다.
+     */
+    @Scheduled(fixedDelayString = "${stop-index.reload-interval-ms:30000}", initialDelayString = "${stop-index.reload-interval-ms:30000}")
+    public synchronized void reload() {
+        try {
+            int[] changes = new int[2];
+            jdbcTemplate.query(SELECT_CHANGED_SQL, rs -> {
+                long id = rs.getLong("id");
+                if (rs.getBoolean("active")) {
+                    StopPoint stop = new StopPoint(id,
+                            rs.getString("route_id"),
+                            rs.getInt("stop_sequence"),
+                            rs.getString("stop_name"),
+                            rs.getDouble("lat"),
+                            rs.getDouble("lon"));
+                    if (!stop.equals(stops.put(id, stop))) {
+                        changes[0]++;
+                    }
+                } else if (stops.remove(id) != null) {
+                    changes[1]++;
+                }
+                lastUpdatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+            }, Timestamp.valueOf(lastUpdatedAt));
+
+            if (changes[0] + changes[1] > 0) {
+                grid = new StopGrid(stops.values());
+                log.info("🗺️ Stop index updated: {} upserted, {} removed, {} total", changes[0], changes[1], stops.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to reload stop index", e);
+        }
+    }
+
+    /**
+     * 반경 안에서 가장 가까운 정류장
+     */
+    public Optional<NearbyStop> nearest(double lat, double lon, double maxMeters) {
+        StopGrid current = grid;
+        if (current.size() == 0) {
+            return nearestFromDatabase(lat, lon, maxMeters);
+        }
+        return Optional.ofNullable(current.nearest(lat, lon, maxMeters));
+    }
+
+    /**
+     * 노선 위의 위치로 마지막으로 지난 정류장의 sequence 판단
+     *
+     * @param fromSequence 이미 지난 것으로 알려진 정류장 sequence (여기서부터 앞쪽만 살펴봄)
+     * @return 노선에서 벗어났거나 노선이 인덱스에 없으면 -1
+     */
+    public int lastPassedSequence(String routeId, int fromSequence, double lat, double lon) {
+        return grid.lastPassedSequence(routeId, fromSequence, lat, lon, arrivalRadiusMeters, offRouteMeters);
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    private Optional<NearbyStop> nearestFromDatabase(double lat, double lon, double maxMeters) {
+        List<RouteStop> found = routeStopRepository.findNearby(lat, lon, maxMeters, 1);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RouteStop stop = found.get(0);
+        StopPoint point = new StopPoint(stop.getId(), stop.getRouteId(), stop.getStopSequence(), stop.getStopName(),
+                stop.getLocation().getY(), stop.getLocation().getX());
+        return Optional.of(new NearbyStop(point, StopGrid.distanceMeters(lat, lon, point.lat(), point.lon())));
+    }
+}
@@ -0,0 +1,14 @@
+package com.jonggeon.now_drop.service.stream;
+
+import java.util.Map;
+
+/**
+ * 알림 스트림에 넣는 전송 의도 한 건
+ *
+ * 스트림 항목의 필드(token, title, body, template, data)로 그대로 저장하며, data는 JSON 문자열로 바꿔 넣습니다.
+ *
+ * @param data 추가 데이터 (nullable)
+ * @param templateName 알림 템플릿 이름 (예: "default")
+ */
+public record NotificationIntent(String token, String title, String body, Map<String, String> data, String templateName) {
+}
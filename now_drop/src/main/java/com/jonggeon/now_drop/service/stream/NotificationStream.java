@@ -0,0 +1,159 @@
+package com.jonggeon.now_drop.service.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 알림 스트림 생산자 (Redis Streams)
+ *
+ * 요청 스레드는 전송 의도를 스트림(기본 fcm:intents)에 XADD하고 바로 돌아가며, 전송은 소비자 그룹의 워커가 합니다
+ * (NotificationStreamConsumer). 여러 건은 파이프라인 한 번으로 넣습니다.
+ * 소비자는 처리한 항목을 지우므로 스트림 길이가 곧 밀린 양이며, max-backlog를 넘으면 새 의도를 거절해
+ * 호출한 쪽이 속도를 늦추게 합니다 (길이 확인과 추가가 원자적이지 않아 한도는 대략적).
+ */
+@Slf4j
+@Component
+public class NotificationStream {
+
+    static final String FIELD_TOKEN = "token";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_BODY = "body";
+    static final String FIELD_TEMPLATE = "template";
+    static final String FIELD_DATA = "data";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationTemplateRegistry templateRegistry;
+    private final String streamKey;
+    private final long maxBacklog;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter published;
+    private final Counter rejected;
+
+    public NotificationStream(StringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper,
+                              NotificationTemplateRegistry templateRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${fcm.stream.key:fcm:intents}") String streamKey,
+                              @Value("${fcm.stream.max-backlog:1000000}") long maxBacklog) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.templateRegistry = templateRegistry;
+        this.streamKey = streamKey;
+        this.maxBacklog = Math.max(maxBacklog, 1);
+
+        this.published = Counter.builder("notification.stream.intents")
+                .tag("result", "published")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("notification.stream.intents")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("notification.stream.backlog", backlog, AtomicLong::get)
+                .description("마지막으로 확인한 알림 스트림 길이 (아직 확인 응답하지 않은 항목 수)")
+                .register(meterRegistry);
+    }
+
+    public String getStreamKey() {
+        return streamKey;
+    }
+
+    /**
+     * 전송 의도 일괄 추가
+     *
+     * @return 스트림 항목 id (입력 순서)
+     * @throws IllegalArgumentException 토큰이 없거나 등록되지 않은 템플릿
+     * @throws RejectedExecutionException 스트림에 밀린 항목이 max-backlog를 넘음
+     */
+    public List<String> publish(List<NotificationIntent> intents) {
+        if (intents.isEmpty()) {
+            return List.of();
+        }
+
+        // 소비자에서 실패하기 전에 잘못된 요청을 거절
+        Set<String> templates = new HashSet<>();
+        List<Map<String, String>> entries = new ArrayList<>(intents.size());
+        for (NotificationIntent intent : intents) {
+            if (intent.token() == null || intent.token().isBlank()) {
+                throw new IllegalArgumentException("token은 필수입니다");
+            }
+            if (templates.add(intent.templateName())) {
+                templateRegistry.get(intent.templateName());
+            }
+            entries.add(fields(intent));
+        }
+
+        Long length = redisTemplate.opsForStream().size(streamKey);
+        long current = length != null ? length : 0;
+        backlog.set(current);
+        if (current + intents.size() > maxBacklog) {
+            rejected.increment(intents.size());
+            log.warn("⚠️ Notification stream backlog full ({} / {}), {} intents rejected", current, maxBacklog, intents.size());
+            throw new RejectedExecutionException("알림 스트림에 밀린 전송이 너무 많습니다");
+        }
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (Map<String, String> entry : entries) {
+                stringConnection.xAdd(streamKey, entry);
+            }
+            return null;
+        });
+
+        List<String> ids = new ArrayList<>(results.size());
+        for (Object result : results) {
+            ids.add(result instanceof RecordId recordId ? recordId.getValue() : String.valueOf(result));
+        }
+        published.increment(ids.size());
+        backlog.set(current + ids.size());
+        log.debug("📨 Published {} notification intents to {}", ids.size(), streamKey);
+        return ids;
+    }
+
+    /**
+     * 소비자가 마지막으로 확인한 스트림 길이 반영
+     */
+    void recordBacklog(long length) {
+        backlog.set(length);
+    }
+
+    private Map<String, String> fields(NotificationIntent intent) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_TOKEN, intent.token());
+        fields.put(FIELD_TEMPLATE, intent.templateName());
+        if (intent.title() != null) {
+            fields.put(FIELD_TITLE, intent.title());
+        }
+        if (intent.body() != null) {
+            fields.put(FIELD_BODY, intent.body());
+        }
+        if (intent.data() != null && !intent.data().isEmpty()) {
+            try {
+                fields.put(FIELD_DATA, objectMapper.writeValueAsString(intent.data()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("data를 JSON으로 바꿀 수 없습니다: " + e.getMessage(), e);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,518 @@
+package com.jonggeon.now_drop.service.stream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonggeon.now_drop.service.FCMService;
+import com.jonggeon.now_drop.service.cluster.ClusterMembership;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 알림 스트림 소비자 (Redis Streams 소비자 그룹)
+ *
+ * 워커마다 그룹(기본 dispatch)의 소비자 {instanceId}-{n}으로 XREADGROUP해 batch-size건씩 읽고,
+ * FCMService 디스패처에 넘겨 받아들여진 항목은 전송 결과를 기다리지 않고 바로 XACK와 XDEL을 파이프라인 한 번으로 처리합니다.
+ * 이후의 재시도는 RetryScheduler가 맡으므로, 재시도가 min-idle보다 오래 걸려도 다른 소비자가 전송 중인 항목을
+ * 가져가 중복 전송하지 않고 워커도 재시도를 기다리며 멈추지 않습니다 (결과는 완료될 때 지표로만 셈).
+ * 디스패치 큐가 가득 차 넘기지 못한 항목(디스패처가 바로 거절함)만 확인 응답하지 않고 자기 대기 목록(PEL)에 남겨 두며,
+ * 워커는 잠시 쉰 뒤 새 항목 대신 자기 PEL(XREADGROUP id 0)부터 다시 보냅니다. 남은 항목이 없어야 새 항목을 읽으므로
+ * 전송이 밀리면 스트림이 쌓이고 생산자가 max-backlog에서 거절합니다.
+ * 이렇게 미룬 횟수는 {stream}:deferrals 해시에 따로 세어 전달 횟수에서 빼므로, 밀림 때문에 버려지는 항목은 없습니다.
+ *
+ * 읽은 뒤 디스패처에 넘기기 전에 인스턴스가 죽으면 항목은 그룹의 PEL에 남습니다.
+ * 워커 중 하나가 reclaim 주기마다 XPENDING을 id 커서로 넘기며 min-idle 넘게 멈춘 항목을 찾아 XCLAIM으로 가져와 다시 보내고,
+ * 미룬 횟수를 뺀 전달 횟수가 max-deliveries에 이른 항목은 보내지 않고 데드 레터 스트림(기본 fcm:intents:dead)으로 옮깁니다.
+ * 따라서 디스패처가 받아들일 때까지는 최소 한 번(at-least-once) 전달되며,
+ * 받아들인 뒤 메모리 큐나 재시도 대기 중에 인스턴스가 죽은 항목은 다시 보내지 않습니다.
+ * 바쁠 때는 BLOCK 없이 읽어 공유 연결을 쓰고, 읽을 것이 없을 때만 block-ms 동안 기다립니다.
+ */
+@Slf4j
+@Component
+public class NotificationStreamConsumer {
+
+    /**
+     * 데드 레터 항목에 남기는 원래 스트림 id
+     */
+    static final String FIELD_SOURCE_ID = "sourceId";
+
+    /**
+     * reclaim 한 번에 넘겨 볼 XPENDING 페이지 수
+     */
+    private static final int RECLAIM_PAGES = 10;
+
+    private static final TypeReference<Map<String, String>> DATA_TYPE = new TypeReference<>() {
+    };
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final FCMService fcmService;
+    private final NotificationStream notificationStream;
+    private final String streamKey;
+    private final String deferralsKey;
+    private final String deadLetterKey;
+    private final String group;
+    private final String consumerPrefix;
+
+    private final boolean enabled;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration block;
+    private final Duration backoff;
+    private final Duration reclaimMinIdle;
+    private final Duration reclaimInterval;
+    private final long maxDeliveries;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicLong nextReclaimAt = new AtomicLong();
+    /**
+     * 다음 reclaim이 XPENDING을 이어서 볼 id (null이면 처음부터)
+     */
+    private volatile String reclaimCursor;
+    private volatile boolean running;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter deferred;
+    private final Counter reclaimed;
+    private final Counter deadLettered;
+
+    public NotificationStreamConsumer(StringRedisTemplate redisTemplate,
+                                      ObjectMapper objectMapper,
+                                      FCMService fcmService,
+                                      NotificationStream notificationStream,
+                                      ClusterMembership clusterMembership,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${fcm.stream.enabled:true}") boolean enabled,
+                                      @Value("${fcm.stream.group:dispatch}") String group,
+                                      @Value("${fcm.stream.dead-letter-key:fcm:intents:dead}") String deadLetterKey,
+                                      @Value("${fcm.stream.workers:2}") int workerCount,
+                                      @Value("${fcm.stream.batch-size:500}") int batchSize,
+                                      @Value("${fcm.stream.block-ms:2000}") long blockMillis,
+                                      @Value("${fcm.stream.backoff-ms:500}") long backoffMillis,
+                                      @Value("${fcm.stream.reclaim-min-idle-ms:60000}") long reclaimMinIdleMillis,
+                                      @Value("${fcm.stream.reclaim-interval-ms:30000}") long reclaimIntervalMillis,
+                                      @Value("${fcm.stream.max-deliveries:5}") long maxDeliveries) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.fcmService = fcmService;
+        this.notificationStream = notificationStream;
+        this.streamKey = notificationStream.getStreamKey();
+        this.deferralsKey = streamKey + ":deferrals";
+        this.deadLetterKey = deadLetterKey;
+        this.group = group;
+        this.consumerPrefix = clusterMembership.getInstanceId();
+        this.enabled = enabled;
+        this.workerCount = Math.max(workerCount, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.block = Duration.ofMillis(Math.max(blockMillis, 1));
+        this.backoff = Duration.ofMillis(Math.max(backoffMillis, 1));
+        this.reclaimMinIdle = Duration.ofMillis(Math.max(reclaimMinIdleMillis, 1000));
+        this.reclaimInterval = Duration.ofMillis(Math.max(reclaimIntervalMillis, 1000));
+        this.maxDeliveries = Math.max(maxDeliveries, 1);
+
+        this.sent = Counter.builder("notification.stream.entries").tag("result", "sent").register(meterRegistry);
+        this.failed = Counter.builder("notification.stream.entries").tag("result", "failed").register(meterRegistry);
+        this.deferred = Counter.builder("notification.stream.entries").tag("result", "deferred").register(meterRegistry);
+        this.reclaimed = Counter.builder("notification.stream.entries").tag("result", "reclaimed").register(meterRegistry);
+        this.deadLettered = Counter.builder("notification.stream.entries").tag("result", "dead-lettered").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("ℹ️ Notification stream consumer disabled");
+            return;
+        }
+        try {
+            ensureGroup();
+        } catch (RuntimeException e) {
+            // 워커가 읽기에 실패하면 다시 만들어 봄
+            log.warn("⚠️ Failed to create stream group {} on {}: {}", group, streamKey, e.getMessage());
+        }
+
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            String consumer = consumerPrefix + "-" + i;
+            workers.add(Thread.ofVirtual().name("notification-stream-" + i).start(() -> consumeLoop(consumer)));
+        }
+        log.info("✅ Notification stream consumer started ({} workers, batch size {}, group {})", workerCount, batchSize, group);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(Duration.ofSeconds(5));
+        }
+    }
+
+    private void consumeLoop(String consumer) {
+        // 미룬 항목이 PEL에 남아 있으면 새 항목보다 먼저 보냄
+        boolean ownPending = false;
+        boolean idle = true;
+        while (running) {
+            try {
+                if (claimReclaimTurn() && reclaim(consumer) > 0) {
+                    ownPending = true;
+                }
+
+                List<MapRecord<String, Object, Object>> records;
+                if (ownPending) {
+                    records = readOwnPending(consumer);
+                    if (records.isEmpty()) {
+                        ownPending = false;
+                        continue;
+                    }
+                } else {
+                    records = read(consumer, idle);
+                    idle = records.size() < batchSize;
+                }
+
+                if (!records.isEmpty() && process(records) > 0) {
+                    // 디스패처가 밀려 있으므로 새 항목을 읽지 않고 쉬어 스트림에 쌓이게 함
+                    ownPending = true;
+                    Thread.sleep(backoff);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("❌ Notification stream iteration failed", e);
+                // 확인 응답하지 못한 항목이 PEL에 남았을 수 있음
+                ownPending = true;
+                try {
+                    Thread.sleep(backoff);
+                    ensureGroup();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException ignored) {
+                    // 다음 반복에서 다시 시도
+                }
+            }
+        }
+    }
+
+    /**
+     * 새 항목 읽기 (직전 읽기가 배치를 채우지 못했을 때만 BLOCK)
+     */
+    private List<MapRecord<String, Object, Object>> read(String consumer, boolean block) {
+        StreamReadOptions options = StreamReadOptions.empty().count(batchSize);
+        if (block) {
+            options = options.block(this.block);
+        }
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(group, consumer), options, StreamOffset.create(streamKey, ReadOffset.lastConsumed()));
+        return records != null ? records : List.of();
+    }
+
+    /**
+     * 이 소비자가 읽었지만 아직 확인 응답하지 않은 항목 다시 읽기 (XREADGROUP id 0, 기다리지 않음)
+     */
+    private List<MapRecord<String, Object, Object>> readOwnPending(String consumer) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(group, consumer),
+                StreamReadOptions.empty().count(batchSize),
+                StreamOffset.create(streamKey, ReadOffset.from("0")));
+        return records != null ? records : List.of();
+    }
+
+    /**
+     * 항목을 디스패처에 넘기고 받아들여진 항목을 일괄 확인 응답 (전송 결과는 기다리지 않음)
+     *
+     * @return 디스패치 큐가 가득 차 남겨 둔 항목 수
+     */
+    private int process(List<MapRecord<String, Object, Object>> records) {
+        List<String> accepted = new ArrayList<>(records.size());
+        List<String> rejected = new ArrayList<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            CompletableFuture<String> send = dispatch(record);
+            if (decide(send) == Decision.DEFER) {
+                // 확인 응답하지 않고 PEL에 남겨 다음 반복에서 다시 보냄
+                rejected.add(record.getId().getValue());
+                continue;
+            }
+            accepted.add(record.getId().getValue());
+            send.whenComplete((messageId, e) -> (e == null ? sent : failed).increment());
+        }
+
+        acknowledge(accepted);
+        recordDeferrals(rejected);
+        deferred.increment(rejected.size());
+
+        log.debug("📨 Notification stream batch processed: {} dispatched, {} deferred", accepted.size(), rejected.size());
+        return rejected.size();
+    }
+
+    /**
+     * 디스패처에 넘긴 직후의 Future로 확인 응답 여부 결정
+     * 디스패처는 큐가 가득 차면 그 자리에서 거절하므로, 아직 끝나지 않았거나 다른 이유로 끝난 항목은 받아들여진 것입니다.
+     */
+    static Decision decide(CompletableFuture<?> send) {
+        return isRejected(errorOf(send)) ? Decision.DEFER : Decision.ACK;
+    }
+
+    /**
+     * 전달 횟수를 다 썼는지 확인 (밀림 때문에 미룬 횟수는 전달 횟수에서 뺌)
+     */
+    static boolean isExhausted(long totalDeliveries, long deferrals, long maxDeliveries) {
+        return totalDeliveries - deferrals >= maxDeliveries;
+    }
+
+    /**
+     * 밀림 때문에 미룬 횟수 기록 (다시 읽을 때 늘어나는 전달 횟수를 데드 레터 판단에서 빼기 위함)
+     */
+    private void recordDeferrals(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String id : ids) {
+                stringConnection.hIncrBy(deferralsKey, id, 1);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 항목 한 건 전송 (실패는 FCMService가 재시도를 예약하거나 만료 토큰을 정리하므로 여기서는 결과만 셈)
+     * 잘못된 항목은 다시 보내도 실패하므로 실패한 Future를 돌려 확인 응답하게 합니다.
+     */
+    private CompletableFuture<String> dispatch(MapRecord<String, Object, Object> record) {
+        try {
+            Map<Object, Object> fields = record.getValue();
+            String dataJson = stringField(fields, NotificationStream.FIELD_DATA);
+            Map<String, String> data = dataJson != null ? objectMapper.readValue(dataJson, DATA_TYPE) : null;
+            return fcmService.sendNotificationAsync(
+                    stringField(fields, NotificationStream.FIELD_TOKEN),
+                    stringField(fields, NotificationStream.FIELD_TITLE),
+                    stringField(fields, NotificationStream.FIELD_BODY),
+                    data,
+                    stringField(fields, NotificationStream.FIELD_TEMPLATE));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (Exception e) {
+            log.warn("⚠️ Invalid notification stream entry {}: {}", record.getId(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 한 번에 한 워커만 reclaim 주기가 돌아왔는지 확인하고 차례를 가져감
+     */
+    private boolean claimReclaimTurn() {
+        long now = System.currentTimeMillis();
+        long next = nextReclaimAt.get();
+        return now >= next && nextReclaimAt.compareAndSet(next, now + reclaimInterval.toMillis());
+    }
+
+    /**
+     * 다른 소비자(죽은 인스턴스 포함)가 min-idle 넘게 확인 응답하지 않은 항목을 가져와 다시 전송
+     * PEL 앞쪽 항목이 최근에 다시 전달되었어도 뒤쪽 항목을 놓치지 않도록 XPENDING을 id 커서로 넘기며,
+     * 한 번에 최대 RECLAIM_PAGES 페이지를 보고 끝에 닿으면 다음 reclaim은 처음부터 봅니다.
+     *
+     * @return 디스패치 큐가 가득 차 이 소비자의 PEL에 남긴 항목 수
+     */
+    private int reclaim(String consumer) {
+        StreamOperations<String, Object, Object> operations = redisTemplate.opsForStream();
+        Long length = operations.size(streamKey);
+        if (length != null) {
+            notificationStream.recordBacklog(length);
+        }
+
+        List<PendingMessage> idle = new ArrayList<>();
+        String cursor = reclaimCursor;
+        for (int page = 0; page < RECLAIM_PAGES && idle.size() < batchSize; page++) {
+            Range<String> range = cursor == null ? Range.unbounded() : Range.rightUnbounded(Range.Bound.inclusive(nextId(cursor)));
+            PendingMessages pending = operations.pending(streamKey, group, range, batchSize);
+            if (pending == null || pending.isEmpty()) {
+                cursor = null;
+                break;
+            }
+            for (PendingMessage message : pending) {
+                if (message.getElapsedTimeSinceLastDelivery().compareTo(reclaimMinIdle) >= 0) {
+                    idle.add(message);
+                }
+                cursor = message.getIdAsString();
+            }
+            if (pending.size() < batchSize) {
+                cursor = null;
+                break;
+            }
+        }
+        reclaimCursor = cursor;
+        if (idle.isEmpty()) {
+            return 0;
+        }
+
+        // 밀림 때문에 미룬 횟수는 전달 횟수에서 뺌
+        List<Object> deferrals = redisTemplate.opsForHash()
+                .multiGet(deferralsKey, idle.stream().map(message -> (Object) message.getIdAsString()).toList());
+        List<RecordId> stale = new ArrayList<>();
+        List<RecordId> dead = new ArrayList<>();
+        for (int i = 0; i < idle.size(); i++) {
+            PendingMessage message = idle.get(i);
+            Object deferralCount = deferrals != null ? deferrals.get(i) : null;
+            long deferralTotal = deferralCount != null ? Long.parseLong(deferralCount.toString()) : 0;
+            (isExhausted(message.getTotalDeliveryCount(), deferralTotal, maxDeliveries) ? dead : stale).add(message.getId());
+        }
+
+        if (!dead.isEmpty()) {
+            deadLetter(consumer, dead);
+        }
+        if (stale.isEmpty()) {
+            return 0;
+        }
+
+        List<MapRecord<String, Object, Object>> claimed = operations.claim(streamKey, group, consumer,
+                reclaimMinIdle, stale.toArray(RecordId[]::new));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        reclaimed.increment(claimed.size());
+        log.info("♻️ Reclaimed {} stale notification stream entries", claimed.size());
+        return process(claimed);
+    }
+
+    /**
+     * 전달 횟수를 다 쓴 항목을 데드 레터 스트림으로 옮김 (원래 필드 + sourceId, 옮긴 뒤 확인 응답과 삭제)
+     */
+    private void deadLetter(String consumer, List<RecordId> ids) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().claim(streamKey, group, consumer,
+                reclaimMinIdle, ids.toArray(RecordId[]::new));
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+
+        List<String> moved = new ArrayList<>(records.size());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (MapRecord<String, Object, Object> record : records) {
+                Map<String, String> fields = new HashMap<>();
+                record.getValue().forEach((field, value) -> fields.put(field.toString(), String.valueOf(value)));
+                fields.put(FIELD_SOURCE_ID, record.getId().getValue());
+                stringConnection.xAdd(deadLetterKey, fields);
+                moved.add(record.getId().getValue());
+            }
+            return null;
+        });
+        acknowledge(moved);
+
+        deadLettered.increment(moved.size());
+        log.warn("⚠️ Moved {} notification stream entries to {} after {} deliveries: {}",
+                moved.size(), deadLetterKey, maxDeliveries, moved);
+    }
+
+    /**
+     * 확인 응답과 삭제를 파이프라인 한 번으로 처리 (지우므로 스트림 길이가 밀린 양이 됨)
+     */
+    private void acknowledge(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String[] entryIds = ids.toArray(String[]::new);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.xAck(streamKey, group, entryIds);
+            stringConnection.xDel(streamKey, entryIds);
+            stringConnection.hDel(deferralsKey, entryIds);
+            return null;
+        });
+    }
+
+    /**
+     * 소비자 그룹 생성 (스트림이 없으면 함께 만들고, 이미 있으면 무시)
+     */
+    private void ensureGroup() {
+        try {
+            redisTemplate.opsForStream().createGroup(streamKey, ReadOffset.from("0"), group);
+            log.info("✅ Created stream group {} on {}", group, streamKey);
+        } catch (DataAccessException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 스트림 id 바로 다음 id (XPENDING 시작을 커서 다음부터 잡기 위함)
+     */
+    private static String nextId(String id) {
+        int dash = id.indexOf('-');
+        return id.substring(0, dash + 1) + (Long.parseLong(id.substring(dash + 1)) + 1);
+    }
+
+    private static String stringField(Map<Object, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 디스패치 큐가 가득 차 실패했는지 확인 (재시도 경로에서 FCMSendException으로 감싸질 수 있음)
+     */
+    private static boolean isRejected(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable errorOf(CompletableFuture<?> future) {
+        if (!future.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    enum Decision {
+        /** 디스패처가 받아들였거나 잘못된 항목이라 확인 응답 */
+        ACK,
+        /** 디스패치 큐가 가득 차 PEL에 남김 */
+        DEFER
+    }
+}
@@ -0,0 +1,113 @@
+package com.jonggeon.now_drop.service.template;
+
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.jonggeon.now_drop.service.dispatch.Lane;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FCM 메시지 생성기
+ *
+ * 템플릿의 미리 만든 플랫폼 설정을 참조하므로 메시지마다 달라지는 값(토큰, 제목, 내용, 데이터)만 새로 만듭니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class FCMMessageFactory {
+
+    private final NotificationTemplateRegistry templateRegistry;
+
+    /**
+     * 템플릿으로 만든 메시지가 들어갈 디스패치 레인
+     */
+    public Lane lane(String templateName) {
+        return templateRegistry.get(templateName).lane();
+    }
+
+    /**
+     * 단일 디바이스 알림 메시지
+     */
+    public Message notification(String deviceToken, String title, String body,
+                                Map<String, String> data, String templateName) {
+        NotificationTemplate template = templateRegistry.get(templateName);
+        Message.Builder builder = Message.builder()
+                .setToken(deviceToken)
+                .setNotification(Notification.builder()
+                        .setTitle(title)
+                        .setBody(body)
+                        .build())
+                .setAndroidConfig(template.androidConfig())
+                .setApnsConfig(template.apnsConfig());
+
+        // 추가 데이터가 있으면 추가
+        if (data != null && !data.isEmpty()) {
+            builder.putAllData(data);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 멀티캐스트 알림 메시지 (최대 500 토큰)
+     */
+    public MulticastMessage multicast(List<String> deviceTokens, String title, String body,
+                                      Map<String, String> data, String templateName) {
+        NotificationTemplate template = templateRegistry.get(templateName);
+        MulticastMessage.Builder builder = MulticastMessage.builder()
+                .addAllTokens(deviceTokens)
+                .setNotification(Notification.builder()
+                        .setTitle(title)
+                        .setBody(body)
+                        .build())
+                .setAndroidConfig(template.androidConfig())
+                .setApnsConfig(template.apnsConfig());
+
+        if (data != null && !data.isEmpty()) {
+            builder.putAllData(data);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 데이터 전용 메시지
+     */
+    public Message data(String deviceToken, Map<String, String> data, String templateName) {
+        NotificationTemplate template = templateRegistry.get(templateName);
+        return Message.builder()
+                .setToken(deviceToken)
+                .putAllData(data)
+                .setAndroidConfig(template.androidConfig())
+                .setApnsConfig(template.apnsConfig())
+                .build();
+    }
+
+    /**
+     * 토픽 알림 메시지
+     */
+    public Message topic(String topic, String title, String body, String templateName) {
+        return topic(topic, title, body, null, templateName);
+    }
+
+    /**
+     * 데이터를 포함한 토픽 알림 메시지
+     */
+    public Message topic(String topic, String title, String body, Map<String, String> data, String templateName) {
+        NotificationTemplate template = templateRegistry.get(templateName);
+        Message.Builder builder = Message.builder()
+                .setTopic(topic)
+                .setNotification(Notification.builder()
+                        .setTitle(title)
+                        .setBody(body)
+                        .build())
+                .setAndroidConfig(template.androidConfig())
+                .setApnsConfig(template.apnsConfig());
+
+        if (data != null && !data.isEmpty()) {
+            builder.putAllData(data);
+        }
+        return builder.build();
+    }
+}
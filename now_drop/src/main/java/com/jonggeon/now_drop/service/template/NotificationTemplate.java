@@ -0,0 +1,14 @@
+package com.jonggeon.now_drop.service.template;
+
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.ApnsConfig;
+import com.jonggeon.now_drop.service.dispatch.Lane;
+
+/**
+ * 이름이 붙은 플랫폼 설정 템플릿
+ *
+ * AndroidConfig/ApnsConfig는 불변 객체이므로 시작 시 한 번 만들어 모든 메시지가 공유합니다.
+ * lane은 이 템플릿으로 만든 메시지가 들어갈 디스패치 레인입니다.
+ */
+public record NotificationTemplate(String name, AndroidConfig androidConfig, ApnsConfig apnsConfig, Lane lane) {
+}
@@ -0,0 +1,96 @@
+package com.jonggeon.now_drop.service.template;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 알림 템플릿 설정
+ *
+ * fcm.templates.{name}.* 으로 기본 템플릿을 덮어쓰거나 새 템플릿을 추가합니다.
+ * 설정한 항목만 덮어쓰고 나머지는 기본 템플릿 값을 유지합니다 (null = 설정하지 않음).
+ * 예) fcm.templates.arrival.channel-id=arrival
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fcm")
+public class NotificationTemplateProperties {
+
+    private Map<String, TemplateSpec> templates = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class TemplateSpec {
+
+        /**
+         * Android 전송 우선순위 (HIGH or NORMAL, 기본 HIGH)
+         */
+        private String androidPriority;
+
+        /**
+         * 디스패치 레인 (critical, normal, bulk, 기본 normal)
+         */
+        private String lane;
+
+        /**
+         * Android 알림 표시 설정 포함 여부 (데이터 전용 메시지는 false, 기본 true)
+         */
+        private Boolean androidNotification;
+
+        /**
+         * 알림 사운드 (기본 default)
+         */
+        private String sound;
+        private String color;
+        private String channelId;
+
+        /**
+         * iOS 배지 숫자 (null이면 설정하지 않음)
+         */
+        private Integer badge;
+
+        /**
+         * iOS 백그라운드 처리 가능 여부 (기본 false)
+         */
+        private Boolean contentAvailable;
+
+        /**
+         * iOS aps에 사운드 포함 여부 (기본 true)
+         */
+        private Boolean apnsSound;
+
+        /**
+         * 어느 템플릿에도 설정하지 않은 항목의 값
+         */
+        static TemplateSpec fallback() {
+            TemplateSpec spec = new TemplateSpec();
+            spec.setAndroidPriority("HIGH");
+            spec.setLane("normal");
+            spec.setAndroidNotification(true);
+            spec.setSound("default");
+            spec.setContentAvailable(false);
+            spec.setApnsSound(true);
+            return spec;
+        }
+
+        /**
+         * 이 설정에서 값이 있는 항목만 base 위에 덮어쓴 새 설정
+         */
+        TemplateSpec mergedOver(TemplateSpec base) {
+            TemplateSpec merged = new TemplateSpec();
+            merged.setAndroidPriority(androidPriority != null ? androidPriority : base.androidPriority);
+            merged.setLane(lane != null ? lane : base.lane);
+            merged.setAndroidNotification(androidNotification != null ? androidNotification : base.androidNotification);
+            merged.setSound(sound != null ? sound : base.sound);
+            merged.setColor(color != null ? color : base.color);
+            merged.setChannelId(channelId != null ? channelId : base.channelId);
+            merged.setBadge(badge != null ? badge : base.badge);
+            merged.setContentAvailable(contentAvailable != null ? contentAvailable : base.contentAvailable);
+            merged.setApnsSound(apnsSound != null ? apnsSound : base.apnsSound);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.jonggeon.now_drop.service.template;
+
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.AndroidNotification;
+import com.google.firebase.messaging.ApnsConfig;
+import com.google.firebase.messaging.Aps;
+import com.jonggeon.now_drop.service.dispatch.Lane;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 알림 템플릿 레지스트리
+ *
+ * 기본 템플릿(default, data, topic, alert, bulk)에 설정한 항목만 덮어써 시작 시 한 번만 플랫폼 설정을 생성합니다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(NotificationTemplateProperties.class)
+public class NotificationTemplateRegistry {
+
+    /**
+     * 일반 알림 (단일/배치)
+     */
+    public static final String DEFAULT = "default";
+
+    /**
+     * 데이터 전용 메시지 (백그라운드 처리)
+     */
+    public static final String DATA = "data";
+
+    /**
+     * 토픽 알림
+     */
+    public static final String TOPIC = "topic";
+
+    /**
+     * 하차 알림 (데이터 전용, critical 레인)
+     */
+    public static final String ALERT = "alert";
+
+    /**
+     * 마케팅/테스트/대량 브로드캐스트 (bulk 레인, FCM NORMAL 우선순위)
+     */
+    public static final String BULK = "bulk";
+
+    private final Map<String, NotificationTemplate> templates;
+
+    public NotificationTemplateRegistry(NotificationTemplateProperties properties) {
+        Map<String, NotificationTemplateProperties.TemplateSpec> specs = defaultSpecs();
+        properties.getTemplates().forEach((name, spec) ->
+                specs.merge(name, spec, (defaults, configured) -> configured.mergedOver(defaults)));
+
+        NotificationTemplateProperties.TemplateSpec fallback = NotificationTemplateProperties.TemplateSpec.fallback();
+        Map<String, NotificationTemplate> built = new LinkedHashMap<>();
+        specs.forEach((name, spec) -> built.put(name, build(name, spec.mergedOver(fallback))));
+        this.templates = Map.copyOf(built);
+
+        log.info("✅ Notification templates loaded: {}", templates.keySet());
+    }
+
+    /**
+     * 이름으로 템플릿 조회
+     *
+     * @throws IllegalArgumentException 등록되지 않은 템플릿
+     */
+    public NotificationTemplate get(String name) {
+        NotificationTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("등록되지 않은 알림 템플릿입니다: " + name);
+        }
+        return template;
+    }
+
+    private static Map<String, NotificationTemplateProperties.TemplateSpec> defaultSpecs() {
+        Map<String, NotificationTemplateProperties.TemplateSpec> specs = new LinkedHashMap<>();
+
+        NotificationTemplateProperties.TemplateSpec defaults = new NotificationTemplateProperties.TemplateSpec();
+        defaults.setColor("#3b82f6"); // 알림 색상
+        defaults.setChannelId("default"); // 알림 채널
+        defaults.setBadge(1); // 배지 숫자
+        defaults.setContentAvailable(true); // 백그라운드 처리 가능
+        specs.put(DEFAULT, defaults);
+
+        NotificationTemplateProperties.TemplateSpec data = new NotificationTemplateProperties.TemplateSpec();
+        data.setAndroidNotification(false);
+        data.setApnsSound(false);
+        data.setContentAvailable(true);
+        specs.put(DATA, data);
+
+        NotificationTemplateProperties.TemplateSpec topic = new NotificationTemplateProperties.TemplateSpec();
+        topic.setColor("#3b82f6");
+        specs.put(TOPIC, topic);
+
+        NotificationTemplateProperties.TemplateSpec alert = new NotificationTemplateProperties.TemplateSpec();
+        alert.setAndroidNotification(false);
+        alert.setApnsSound(false);
+        alert.setContentAvailable(true);
+        alert.setLane("critical");
+        specs.put(ALERT, alert);
+
+        NotificationTemplateProperties.TemplateSpec bulk = new NotificationTemplateProperties.TemplateSpec();
+        bulk.setAndroidPriority("NORMAL"); // 배터리 절약 모드에서 기기를 깨우지 않음
+        bulk.setColor("#3b82f6");
+        bulk.setChannelId("default");
+        bulk.setLane("bulk");
+        specs.put(BULK, bulk);
+
+        return specs;
+    }
+
+    private static NotificationTemplate build(String name, NotificationTemplateProperties.TemplateSpec spec) {
+        AndroidConfig.Priority priority = AndroidConfig.Priority.valueOf(spec.getAndroidPriority().toUpperCase());
+        AndroidConfig.Builder android = AndroidConfig.builder()
+                .setPriority(priority);
+        if (spec.getAndroidNotification()) {
+            AndroidNotification.Builder notification = AndroidNotification.builder();
+            if (spec.getSound() != null) {
+                notification.setSound(spec.getSound());
+            }
+            if (spec.getColor() != null) {
+                notification.setColor(spec.getColor());
+            }
+            if (spec.getChannelId() != null) {
+                notification.setChannelId(spec.getChannelId());
+            }
+            android.setNotification(notification.build());
+        }
+
+        Aps.Builder aps = Aps.builder();
+        if (spec.getApnsSound() && spec.getSound() != null) {
+            aps.setSound(spec.getSound());
+        }
+        if (spec.getBadge() != null) {
+            aps.setBadge(spec.getBadge());
+        }
+        if (spec.getContentAvailable()) {
+            aps.setContentAvailable(true);
+        }
+
+        ApnsConfig.Builder apns = ApnsConfig.builder().setAps(aps.build());
+        if (priority == AndroidConfig.Priority.NORMAL) {
+            // iOS도 같은 수준으로 (5: 전력 상황에 맞춰 전달)
+            apns.putHeader("apns-priority", "5");
+        }
+
+        return new NotificationTemplate(name, android.build(), apns.build(), Lane.from(spec.getLane()));
+    }
+}
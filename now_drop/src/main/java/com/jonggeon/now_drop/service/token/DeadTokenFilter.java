@@ -0,0 +1,133 @@
+package com.jonggeon.now_drop.service.token;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 만료(dead) 토큰 네거티브 캐시
+ *
+ * 메모리의 Bloom 필터로 대부분의 정상 토큰을 Redis 조회 없이 통과시키고,
+ * 필터가 "있을 수 있음"이라고 답한 토큰만 Redis 집합(fcm:dead-tokens)으로 확정합니다.
+ * 오탐으로 정상 토큰이 버려지지 않으며, 재등록된 토큰은 등록 스크립트가 집합에서 제거해 다시 살아납니다.
+ */
+@Slf4j
+@Component
+public class DeadTokenFilter {
+
+    static final String DEAD_TOKENS_KEY = "fcm:dead-tokens";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter<CharSequence> bloomFilter;
+
+    public DeadTokenFilter(StringRedisTemplate redisTemplate,
+                           @Value("${fcm.dead-tokens.expected-insertions:1000000}") int expectedInsertions,
+                           @Value("${fcm.dead-tokens.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = newBloomFilter();
+    }
+
+    /**
+     * 토큰을 만료 처리
+     * 로컬 필터에는 즉시 반영되고 Redis 집합에는 한 번의 호출로 추가됩니다.
+     */
+    public void markDead(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        BloomFilter<CharSequence> filter = bloomFilter;
+        tokens.forEach(filter::put);
+
+        redisTemplate.opsForSet().add(DEAD_TOKENS_KEY, tokens.toArray(String[]::new));
+    }
+
+    /**
+     * 단일 토큰 만료 여부
+     */
+    public boolean isDead(String token) {
+        return bloomFilter.mightContain(token)
+                && Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(DEAD_TOKENS_KEY, token));
+    }
+
+    /**
+     * 만료된 토큰을 제외한 목록 반환 (원래 순서 유지)
+     * Bloom 필터 후보가 있을 때만 Redis를 한 번 조회합니다.
+     */
+    public List<String> filterLive(List<String> tokens) {
+        BloomFilter<CharSequence> filter = bloomFilter;
+        List<String> candidates = new ArrayList<>();
+        for (String token : tokens) {
+            if (filter.mightContain(token)) {
+                candidates.add(token);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return tokens;
+        }
+
+        Map<Object, Boolean> membership = redisTemplate.opsForSet()
+                .isMember(DEAD_TOKENS_KEY, candidates.toArray());
+        if (membership == null || !membership.containsValue(Boolean.TRUE)) {
+            return tokens;
+        }
+
+        List<String> live = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (!Boolean.TRUE.equals(membership.get(token))) {
+                live.add(token);
+            }
+        }
+        log.info("🧹 Dropped {} known-dead tokens before sending", tokens.size() - live.size());
+        return live;
+    }
+
+    /**
+     * Redis 집합으로부터 Bloom 필터를 다시 생성
+     * 다른 인스턴스가 찾은 만료 토큰을 반영하고, 삽입이 누적되어 오탐률이 높아지는 것을 막습니다.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${fcm.dead-tokens.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        BloomFilter<CharSequence> rebuilt = newBloomFilter();
+        long count = 0;
+
+        try (Cursor<String> cursor = redisTemplate.opsForSet()
+                .scan(DEAD_TOKENS_KEY, ScanOptions.scanOptions().count(1000).build())) {
+            while (cursor.hasNext()) {
+                rebuilt.put(cursor.next());
+                count++;
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to rebuild dead token filter", e);
+            return;
+        }
+
+        bloomFilter = rebuilt;
+        log.info("♻️ Dead token filter rebuilt with {} tokens", count);
+
+        if (count > expectedInsertions) {
+            log.warn("⚠️ Dead token count {} exceeds expected insertions {}", count, expectedInsertions);
+        }
+    }
+
+    private BloomFilter<CharSequence> newBloomFilter() {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate);
+    }
+}
@@ -0,0 +1,328 @@
+package com.jonggeon.now_drop.service.token;
+
+import com.jonggeon.now_drop.domain.DeviceToken;
+import com.jonggeon.now_drop.repository.DeviceTokenRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 디바이스 토큰 레지스트리
+ *
+ * Redis 해시(fcm:tokens:{userId} → token: platform)를 조회 경로로 사용하고,
+ * PostgreSQL device_tokens 테이블을 원본 저장소로 사용합니다.
+ * 등록은 Redis에 즉시 반영되며, DB 쓰기는 토큰 단위로 병합된 뒤 주기적으로 일괄 upsert 됩니다.
+ * Redis에 사용자 해시가 없으면(플러시, 축출) DB에서 바로 읽고 Redis를 다시 채우므로,
+ * 캐시가 비어 있어도 등록된 사용자를 디바이스가 없는 사용자로 보지 않습니다.
+ * DB에도 토큰이 없는 사용자는 짧은 TTL의 빈 결과 키(fcm:tokens:none:{userId})로 기억해,
+ * 디바이스가 없는 사용자를 반복 조회해도 DB까지 내려가지 않습니다. 등록하면 이 키는 바로 지워집니다.
+ */
+@Slf4j
+@Service
+public class DeviceTokenRegistry {
+
+    static final String USER_TOKENS_KEY_PREFIX = "fcm:tokens:";
+    static final String TOKEN_OWNER_KEY = "fcm:token-owner";
+    static final String NO_TOKENS_KEY_PREFIX = "fcm:tokens:none:";
+
+    /**
+     * 토큰을 새 소유자의 해시로 옮기고 소유자 인덱스를 갱신 (한 번의 왕복으로 처리)
+     * 만료 목록에서도 같은 스크립트에서 빼므로, 만료 토큰 삭제 스크립트와 순서가 엇갈려도 재등록이 지워지지 않습니다.
+     * 다른 인스턴스가 만료 처리한 토큰은 로컬 Bloom 필터에 없을 수 있어 필터와 관계없이 항상 뺍니다.
+     * KEYS[1] = 소유자 인덱스, KEYS[2] = 새 소유자 해시, KEYS[3] = 새 소유자의 빈 결과 키, KEYS[4] = 만료 토큰 집합
+     * ARGV[1] = 토큰, ARGV[2] = userId, ARGV[3] = platform, ARGV[4] = 사용자 해시 키 접두사
+     */
+    private static final RedisScript<Long> REGISTER_SCRIPT = new DefaultRedisScript<>("""
+            local previous = redis.call('HGET', KEYS[1], ARGV[1])
+            if previous and previous ~= ARGV[2] then
+                redis.call('HDEL', ARGV[4] .. previous, ARGV[1])
+            end
+            redis.call('DEL', KEYS[3])
+            redis.call('SREM', KEYS[4], ARGV[1])
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            return redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+            """, Long.class);
+
+    /**
+     * 아직 만료 목록에 있는 토큰만 사용자 해시와 소유자 인덱스에서 제거 (확인과 삭제를 원자적으로 처리)
+     * KEYS[1] = 만료 토큰 집합, KEYS[2] = 소유자 인덱스
+     * ARGV[1] = 사용자 해시 키 접두사, ARGV[2..] = 토큰
+     *
+     * @return 제거한 토큰 (재등록되어 만료 목록에서 빠진 토큰은 제외)
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<String>> EVICT_DEAD_SCRIPT = (RedisScript) new DefaultRedisScript<>("""
+            local removed = {}
+            for i = 2, #ARGV do
+                if redis.call('SISMEMBER', KEYS[1], ARGV[i]) == 1 then
+                    local owner = redis.call('HGET', KEYS[2], ARGV[i])
+                    if owner then
+                        redis.call('HDEL', ARGV[1] .. owner, ARGV[i])
+                    end
+                    redis.call('HDEL', KEYS[2], ARGV[i])
+                    removed[#removed + 1] = ARGV[i]
+                end
+            end
+            return removed
+            """, List.class);
+
+    /**
+     * DB에서 읽은 토큰으로 캐시 다시 채우기
+     * 그 사이 다른 사용자로 다시 등록된 토큰은 소유자 인덱스를 덮어쓰지 않고 건너뜀
+     * KEYS[1] = 소유자 인덱스, KEYS[2] = 사용자 해시
+     * ARGV[1] = userId, ARGV[2..] = token, platform 쌍
+     */
+    private static final RedisScript<Long> BACKFILL_SCRIPT = new DefaultRedisScript<>("""
+            local filled = 0
+            for i = 2, #ARGV, 2 do
+                redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[1])
+                if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[1] then
+                    redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+                    filled = filled + 1
+                end
+            end
+            return filled
+            """, Long.class);
+
+    /**
+     * DB에도 토큰이 없을 때 빈 결과 키 기록
+     * DB를 읽는 사이 토큰이 등록되어 사용자 해시가 생겼으면 기록하지 않음 (등록을 가리지 않도록)
+     * KEYS[1] = 사용자 해시, KEYS[2] = 빈 결과 키, ARGV[1] = TTL(초)
+     */
+    private static final RedisScript<Long> MARK_EMPTY_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('SET', KEYS[2], '1', 'EX', ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO device_tokens (user_id, token, platform, last_seen)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (token) DO UPDATE
+            SET user_id = EXCLUDED.user_id,
+                platform = EXCLUDED.platform,
+                last_seen = GREATEST(device_tokens.last_seen, EXCLUDED.last_seen)
+            """;
+
+    private final StringRedisTemplate redisTemplate;
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int flushBatchSize;
+    private final long emptyResultTtlSeconds;
+
+    /**
+     * DB 반영 대기 중인 등록 (토큰 기준으로 병합되어 같은 토큰의 반복 등록은 한 번만 기록)
+     */
+    private final ConcurrentHashMap<String, Registration> pendingWrites = new ConcurrentHashMap<>();
+
+    public DeviceTokenRegistry(StringRedisTemplate redisTemplate,
+                               DeviceTokenRepository deviceTokenRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${fcm.tokens.flush-batch-size:1000}") int flushBatchSize,
+                               @Value("${fcm.tokens.empty-result-ttl-seconds:30}") long emptyResultTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushBatchSize = Math.max(flushBatchSize, 1);
+        this.emptyResultTtlSeconds = Math.max(emptyResultTtlSeconds, 1);
+    }
+
+    /**
+     * 토큰 등록 (멱등 upsert)
+     * 같은 토큰을 여러 번 등록해도 결과는 동일하며 last_seen만 갱신됩니다.
+     *
+     * @param userId 사용자 ID
+     * @param token FCM 디바이스 토큰
+     * @param platform "ios" or "android"
+     */
+    public void register(Long userId, String token, String platform) {
+        String userIdValue = String.valueOf(userId);
+        String platformValue = platform != null ? platform : "";
+
+        redisTemplate.execute(REGISTER_SCRIPT,
+                List.of(TOKEN_OWNER_KEY, userTokensKey(userId), noTokensKey(userId), DeadTokenFilter.DEAD_TOKENS_KEY),
+                token, userIdValue, platformValue, USER_TOKENS_KEY_PREFIX);
+
+        pendingWrites.put(token, new Registration(userId, token, platform, Instant.now()));
+    }
+
+    /**
+     * 만료 토큰 일괄 삭제
+     * Redis에서는 만료 목록 확인과 삭제를 한 스크립트로 처리하므로, 그사이 재등록된 토큰은 지우지 않습니다.
+     * DB에서는 실제로 지운 토큰만 한 번의 DELETE로 제거하고, 스크립트 이후에 들어온 재등록은 대기열에 남겨 다시 기록합니다.
+     *
+     * @return 삭제한 토큰
+     */
+    public List<String> removeDeadTokens(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Instant evictedAt = Instant.now();
+        List<String> args = new ArrayList<>(tokens.size() + 1);
+        args.add(USER_TOKENS_KEY_PREFIX);
+        args.addAll(tokens);
+        List<String> removed = redisTemplate.execute(EVICT_DEAD_SCRIPT,
+                List.of(DeadTokenFilter.DEAD_TOKENS_KEY, TOKEN_OWNER_KEY), args.toArray());
+        if (removed == null || removed.isEmpty()) {
+            return List.of();
+        }
+
+        // 만료 전에 들어온 등록만 버림 (스크립트 이후의 재등록은 만료 목록에서 빠졌으므로 유지)
+        removed.forEach(token -> pendingWrites.computeIfPresent(token,
+                (key, registration) -> registration.seenAt().isBefore(evictedAt) ? null : registration));
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM device_tokens WHERE token = ANY(?)");
+            ps.setArray(1, con.createArrayOf("varchar", removed.toArray()));
+            return ps;
+        });
+        return removed;
+    }
+
+    /**
+     * 사용자의 토큰 목록 조회 (token → platform)
+     * 사용자 해시와 빈 결과 키를 한 번의 왕복으로 읽고, 둘 다 없을 때만(Redis가 비었거나 처음 조회)
+     * device_tokens에서 읽어 반환하고 Redis를 다시 채웁니다.
+     * 빈 결과는 DB에도 토큰이 없다는 뜻이며, DB 조회에 실패하면 예외가 그대로 전달됩니다.
+     *
+     * @throws org.springframework.dao.DataAccessException DB 조회 실패 (디바이스가 없는 것과 구분)
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> findTokens(Long userId) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.hGetAll(userTokensKey(userId));
+            stringConnection.exists(noTokensKey(userId));
+            return null;
+        });
+
+        Map<String, String> entries = (Map<String, String>) results.get(0);
+        if (entries != null && !entries.isEmpty()) {
+            return new HashMap<>(entries);
+        }
+        if (Boolean.TRUE.equals(results.get(1))) {
+            return Map.of();
+        }
+        return loadTokens(userId);
+    }
+
+    /**
+     * 병합된 등록을 DB에 일괄 upsert
+     */
+    @Scheduled(fixedDelayString = "${fcm.tokens.flush-interval-ms:500}")
+    public void flushPendingWrites() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        List<Registration> batch = new ArrayList<>(Math.min(pendingWrites.size(), flushBatchSize));
+        for (String token : pendingWrites.keySet()) {
+            Registration registration = pendingWrites.remove(token);
+            if (registration != null) {
+                batch.add(registration);
+            }
+            if (batch.size() >= flushBatchSize) {
+                upsert(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            upsert(batch);
+        }
+    }
+
+    private void upsert(List<Registration> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, registration) -> {
+                ps.setLong(1, registration.userId());
+                ps.setString(2, registration.token());
+                ps.setString(3, registration.platform());
+                ps.setTimestamp(4, Timestamp.from(registration.seenAt()));
+            });
+            log.debug("💾 Upserted {} device tokens", batch.size());
+
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to upsert {} device tokens, will retry on next flush", batch.size(), e);
+            // 실패한 등록은 더 최신 등록이 없을 때만 다시 대기열에 넣음
+            batch.forEach(registration -> pendingWrites.putIfAbsent(registration.token(), registration));
+        }
+    }
+
+    /**
+     * 종료 전에 아직 DB에 기록하지 않은 등록을 마저 기록
+     */
+    @PreDestroy
+    public void stop() {
+        flushPendingWrites();
+        if (!pendingWrites.isEmpty()) {
+            log.warn("⚠️ {} device token registrations not persisted on shutdown", pendingWrites.size());
+        }
+    }
+
+    /**
+     * 캐시 미스 시 DB에서 토큰을 읽고 Redis를 다시 채움 (Redis 쓰기 실패는 조회 결과에 영향 없음)
+     * 토큰이 없으면 빈 결과 키를 남겨 TTL 동안은 DB를 다시 읽지 않음
+     */
+    private Map<String, String> loadTokens(Long userId) {
+        List<DeviceToken> deviceTokens = deviceTokenRepository.findByUserId(userId);
+        if (deviceTokens.isEmpty()) {
+            try {
+                redisTemplate.execute(MARK_EMPTY_SCRIPT, List.of(userTokensKey(userId), noTokensKey(userId)),
+                        Long.toString(emptyResultTtlSeconds));
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Failed to cache empty token lookup for user {}: {}", userId, e.getMessage());
+            }
+            return Map.of();
+        }
+
+        Map<String, String> tokens = new HashMap<>(deviceTokens.size());
+        List<String> args = new ArrayList<>(deviceTokens.size() * 2 + 1);
+        args.add(String.valueOf(userId));
+        for (DeviceToken deviceToken : deviceTokens) {
+            String platform = deviceToken.getPlatform() != null ? deviceToken.getPlatform() : "";
+            tokens.put(deviceToken.getToken(), platform);
+            args.add(deviceToken.getToken());
+            args.add(platform);
+        }
+
+        try {
+            Long filled = redisTemplate.execute(BACKFILL_SCRIPT,
+                    List.of(TOKEN_OWNER_KEY, userTokensKey(userId)), args.toArray());
+            log.debug("♻️ Backfilled {} of {} tokens for user {}", filled, deviceTokens.size(), userId);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to backfill tokens for user {}: {}", userId, e.getMessage());
+        }
+        return tokens;
+    }
+
+    static String userTokensKey(Long userId) {
+        return USER_TOKENS_KEY_PREFIX + userId;
+    }
+
+    static String noTokensKey(Long userId) {
+        return NO_TOKENS_KEY_PREFIX + userId;
+    }
+
+    private record Registration(Long userId, String token, String platform, Instant seenAt) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.jonggeon.now_drop.service.token;
+
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.jonggeon.now_drop.service.dispatch.FanOutResult;
+import com.jonggeon.now_drop.service.dispatch.SendResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 전송 결과 피드백 처리
+ *
+ * 전송 결과를 MessagingErrorCode로 분류하여 더 이상 유효하지 않은 토큰을 찾고,
+ * 네거티브 캐시에 즉시 등록한 뒤 토큰 저장소에서는 주기적으로 일괄 삭제합니다.
+ * 삭제는 네거티브 캐시 확인과 함께 원자적으로 처리되어, 그사이 재등록되어 살아난 토큰은 지우지 않습니다.
+ */
+@Slf4j
+@Component
+public class TokenFeedbackProcessor {
+
+    private final DeadTokenFilter deadTokenFilter;
+    private final DeviceTokenRegistry deviceTokenRegistry;
+    private final int evictBatchSize;
+
+    private final ConcurrentLinkedQueue<String> pendingEvictions = new ConcurrentLinkedQueue<>();
+
+    public TokenFeedbackProcessor(DeadTokenFilter deadTokenFilter,
+                                  DeviceTokenRegistry deviceTokenRegistry,
+                                  @Value("${fcm.dead-tokens.evict-batch-size:1000}") int evictBatchSize) {
+        this.deadTokenFilter = deadTokenFilter;
+        this.deviceTokenRegistry = deviceTokenRegistry;
+        this.evictBatchSize = Math.max(evictBatchSize, 1);
+    }
+
+    /**
+     * 팬아웃 결과 처리
+     * INVALID_ARGUMENT는 같은 팬아웃에서 성공한 토큰이 있어 페이로드 문제가 아닌 경우에만 만료로 봅니다.
+     */
+    public void process(FanOutResult result) {
+        if (result.getFailureCount() == 0) {
+            return;
+        }
+
+        boolean payloadAccepted = result.getSuccessCount() > 0;
+        Map<MessagingErrorCode, Integer> errorCounts = new EnumMap<>(MessagingErrorCode.class);
+        List<String> deadTokens = new ArrayList<>();
+
+        List<SendResult> results = result.getResults();
+        for (int i = 0; i < results.size(); i++) {
+            SendResult sendResult = results.get(i);
+            if (sendResult.isSuccessful()) {
+                continue;
+            }
+
+            MessagingErrorCode errorCode = sendResult.errorCode();
+            if (errorCode != null) {
+                errorCounts.merge(errorCode, 1, Integer::sum);
+            }
+            if (isDeadToken(errorCode, payloadAccepted)) {
+                deadTokens.add(result.getTokens().get(i));
+            }
+        }
+
+        if (!errorCounts.isEmpty()) {
+            log.warn("⚠️ Fan-out failures by error code: {}", errorCounts);
+        }
+        markDead(deadTokens);
+    }
+
+    /**
+     * 단일 전송 실패 처리
+     * 같은 페이로드가 다른 토큰에 성공했는지 알 수 없으므로 INVALID_ARGUMENT(대개 잘못된 페이로드)는 만료로 보지 않습니다.
+     */
+    public void onSendFailure(String token, Throwable error) {
+        MessagingErrorCode errorCode = SendResult.from(unwrap(error)).errorCode();
+        if (isDeadToken(errorCode, false)) {
+            markDead(List.of(token));
+        }
+    }
+
+    /**
+     * 대기 중인 만료 토큰을 토큰 저장소에서 일괄 삭제
+     */
+    @Scheduled(fixedDelayString = "${fcm.dead-tokens.evict-interval-ms:1000}")
+    public void evictPending() {
+        // 실패로 다시 들어온 토큰은 다음 실행에서 처리하도록 현재 크기만큼만 꺼냄
+        int pending = pendingEvictions.size();
+        List<String> batch = new ArrayList<>(Math.min(pending, evictBatchSize));
+        String token;
+        while (pending-- > 0 && (token = pendingEvictions.poll()) != null) {
+            batch.add(token);
+            if (batch.size() >= evictBatchSize) {
+                evict(batch);
+                batch = new ArrayList<>(evictBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            evict(batch);
+        }
+    }
+
+    private void evict(List<String> batch) {
+        try {
+            List<String> evicted = deviceTokenRegistry.removeDeadTokens(batch);
+            if (evicted.size() < batch.size()) {
+                log.info("♻️ Skipped eviction of {} tokens re-registered since they were marked dead", batch.size() - evicted.size());
+            }
+            if (!evicted.isEmpty()) {
+                log.info("🧹 Evicted {} dead tokens from the token store", evicted.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to evict {} dead tokens, will retry on next run", batch.size(), e);
+            pendingEvictions.addAll(batch);
+        }
+    }
+
+    private void markDead(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        try {
+            deadTokenFilter.markDead(tokens);
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to record {} dead tokens in the negative cache", tokens.size(), e);
+        }
+        pendingEvictions.addAll(tokens);
+    }
+
+    private static boolean isDeadToken(MessagingErrorCode errorCode, boolean payloadAccepted) {
+        if (errorCode == null) {
+            return false;
+        }
+        return switch (errorCode) {
+            case UNREGISTERED, SENDER_ID_MISMATCH -> true;
+            case INVALID_ARGUMENT -> payloadAccepted;
+            default -> false;
+        };
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && !(cause instanceof FirebaseMessagingException)) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,240 @@
+package com.jonggeon.now_drop.service.topic;
+
+import com.google.common.collect.Lists;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.TopicManagementResponse;
+import com.jonggeon.now_drop.service.FCMService;
+import com.jonggeon.now_drop.service.backend.MessagingBackend;
+import com.jonggeon.now_drop.service.dispatch.FanOutResult;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import com.jonggeon.now_drop.service.token.DeadTokenFilter;
+import com.jonggeon.now_drop.service.token.DeviceTokenRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 토픽 구독 관리와 토픽 브로드캐스트
+ *
+ * 구독/해제는 FCM 제한인 1000개 토큰 단위로 나누어 동시에 요청하고,
+ * 성공한 토큰은 Redis 세트(fcm:topic:{topic})에 그대로 반영해 둡니다.
+ * 브로드캐스트 시 이 세트의 크기로 토픽 전송과 토큰 팬아웃 중 하나를 고릅니다.
+ * - 구독자가 적으면 팬아웃: 토큰별 결과를 받아 만료 토큰을 바로 정리할 수 있고 전달이 빠름
+ * - 구독자가 많거나 로컬 기록이 없으면 토픽 전송: API 호출 한 번으로 끝남
+ */
+@Slf4j
+@Service
+public class TopicSubscriptionService {
+
+    /**
+     * subscribeToTopic/unsubscribeFromTopic 한 번에 보낼 수 있는 최대 토큰 수
+     */
+    public static final int FCM_MAX_TOPIC_TOKENS = 1000;
+
+    private static final String TOPIC_KEY_PREFIX = "fcm:topic:";
+
+    private final MessagingBackend messagingBackend;
+    private final FCMService fcmService;
+    private final DeviceTokenRegistry deviceTokenRegistry;
+    private final DeadTokenFilter deadTokenFilter;
+    private final StringRedisTemplate redisTemplate;
+    private final Semaphore parallelism;
+    private final int maxFanOutTokens;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TopicSubscriptionService(MessagingBackend messagingBackend,
+                                    FCMService fcmService,
+                                    DeviceTokenRegistry deviceTokenRegistry,
+                                    DeadTokenFilter deadTokenFilter,
+                                    StringRedisTemplate redisTemplate,
+                                    @Value("${fcm.topic.parallelism:4}") int parallelism,
+                                    @Value("${fcm.topic.max-fan-out-tokens:5000}") int maxFanOutTokens) {
+        this.messagingBackend = messagingBackend;
+        this.fcmService = fcmService;
+        this.deviceTokenRegistry = deviceTokenRegistry;
+        this.deadTokenFilter = deadTokenFilter;
+        this.redisTemplate = redisTemplate;
+        this.parallelism = new Semaphore(Math.max(parallelism, 1));
+        this.maxFanOutTokens = maxFanOutTokens;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 노선별 공지 토픽 이름
+     */
+    public static String routeTopic(String routeId) {
+        return "route-" + routeId;
+    }
+
+    /**
+     * 토큰을 토픽에 구독
+     */
+    public SubscriptionResult subscribe(String topic, List<String> tokens) {
+        return manage(topic, deadTokenFilter.filterLive(tokens), true);
+    }
+
+    /**
+     * 사용자들의 등록된 모든 디바이스를 토픽에 구독
+     */
+    public SubscriptionResult subscribeUsers(String topic, List<Long> userIds) {
+        List<String> tokens = new ArrayList<>();
+        for (Long userId : userIds) {
+            tokens.addAll(deviceTokenRegistry.findTokens(userId).keySet());
+        }
+        return subscribe(topic, tokens);
+    }
+
+    /**
+     * 토큰의 토픽 구독 해제
+     */
+    public SubscriptionResult unsubscribe(String topic, List<String> tokens) {
+        return manage(topic, tokens, false);
+    }
+
+    /**
+     * 로컬에 기록된 토픽 구독자 수
+     */
+    public long topicSize(String topic) {
+        Long size = redisTemplate.opsForSet().size(TOPIC_KEY_PREFIX + topic);
+        return size != null ? size : 0;
+    }
+
+    /**
+     * 토픽 구독자 전체에 알림 전송 (토픽 전송과 팬아웃 중 자동 선택)
+     * 어느 쪽으로 보내도 수신자가 같은 알림을 받도록 두 경로 모두 topic 템플릿을 사용합니다.
+     */
+    public BroadcastResult broadcast(String topic, String title, String body, Map<String, String> data) {
+        long size = topicSize(topic);
+        if (size == 0 || size > maxFanOutTokens) {
+            String messageId = fcmService.sendToTopic(topic, title, body, data, NotificationTemplateRegistry.TOPIC);
+            log.info("📢 Broadcast to topic {} via topic send ({} known subscribers)", topic, size);
+            return BroadcastResult.topic(messageId, size);
+        }
+
+        Set<String> members = redisTemplate.opsForSet().members(TOPIC_KEY_PREFIX + topic);
+        List<String> tokens = members != null ? new ArrayList<>(members) : List.of();
+        List<String> live = deadTokenFilter.filterLive(tokens);
+        if (live.size() < tokens.size()) {
+            Set<String> dead = new HashSet<>(tokens);
+            live.forEach(dead::remove);
+            redisTemplate.opsForSet().remove(TOPIC_KEY_PREFIX + topic, dead.toArray());
+        }
+
+        FanOutResult result = fcmService.sendBatchNotification(live, title, body, data, NotificationTemplateRegistry.TOPIC);
+        log.info("📢 Broadcast to topic {} via fan-out: {} success, {} failures",
+                topic, result.getSuccessCount(), result.getFailureCount());
+        return BroadcastResult.fanOut(result);
+    }
+
+    private SubscriptionResult manage(String topic, List<String> tokens, boolean subscribe) {
+        if (tokens.isEmpty()) {
+            return new SubscriptionResult(0, 0);
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        List<List<String>> chunks = Lists.partition(tokens, FCM_MAX_TOPIC_TOKENS);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(chunks.size());
+        for (List<String> chunk : chunks) {
+            futures.add(CompletableFuture.runAsync(() -> failures.addAndGet(manageChunk(topic, chunk, subscribe)), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        SubscriptionResult result = new SubscriptionResult(tokens.size() - failures.get(), failures.get());
+        log.info("📌 Topic {} {}: {} success, {} failures", topic, subscribe ? "subscribe" : "unsubscribe",
+                result.successCount(), result.failureCount());
+        return result;
+    }
+
+    /**
+     * 청크 하나를 처리하고 성공한 토큰을 Redis 세트에 반영
+     *
+     * @return 실패한 토큰 수
+     */
+    private int manageChunk(String topic, List<String> chunk, boolean subscribe) {
+        try {
+            parallelism.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return chunk.size();
+        }
+
+        try {
+            TopicManagementResponse response = subscribe
+                    ? messagingBackend.subscribeToTopic(chunk, topic)
+                    : messagingBackend.unsubscribeFromTopic(chunk, topic);
+
+            List<String> succeeded = succeededTokens(chunk, response);
+            if (!succeeded.isEmpty()) {
+                String key = TOPIC_KEY_PREFIX + topic;
+                if (subscribe) {
+                    redisTemplate.opsForSet().add(key, succeeded.toArray(String[]::new));
+                } else {
+                    redisTemplate.opsForSet().remove(key, succeeded.toArray());
+                }
+            }
+            return response.getFailureCount();
+
+        } catch (FirebaseMessagingException | RuntimeException e) {
+            log.error("❌ Failed to {} {} tokens for topic {}", subscribe ? "subscribe" : "unsubscribe",
+                    chunk.size(), topic, e);
+            return chunk.size();
+        } finally {
+            parallelism.release();
+        }
+    }
+
+    private static List<String> succeededTokens(List<String> chunk, TopicManagementResponse response) {
+        if (response.getFailureCount() == 0) {
+            return chunk;
+        }
+        boolean[] failed = new boolean[chunk.size()];
+        for (TopicManagementResponse.Error error : response.getErrors()) {
+            failed[error.getIndex()] = true;
+        }
+        List<String> succeeded = new ArrayList<>(response.getSuccessCount());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!failed[i]) {
+                succeeded.add(chunk.get(i));
+            }
+        }
+        return succeeded;
+    }
+
+    public record SubscriptionResult(int successCount, int failureCount) {
+    }
+
+    /**
+     * 브로드캐스트 결과
+     *
+     * @param mode "topic" 또는 "fan-out"
+     * @param messageId 토픽 전송인 경우 메시지 ID
+     */
+    public record BroadcastResult(String mode, String messageId, long recipients, int successCount, int failureCount) {
+
+        static BroadcastResult topic(String messageId, long knownSubscribers) {
+            return new BroadcastResult("topic", messageId, knownSubscribers, 0, 0);
+        }
+
+        static BroadcastResult fanOut(FanOutResult result) {
+            return new BroadcastResult("fan-out", null, result.getTokens().size(),
+                    result.getSuccessCount(), result.getFailureCount());
+        }
+    }
+}
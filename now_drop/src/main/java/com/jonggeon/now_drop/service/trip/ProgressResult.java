@@ -0,0 +1,21 @@
+package com.jonggeon.now_drop.service.trip;
+
+/**
+ * 진행 이벤트 처리 결과
+ */
+public enum ProgressResult {
+    /** 추적 중인 구간이 아님 */
+    UNKNOWN_SEGMENT,
+    /** 위치로 노선 위의 정류장을 판단할 수 없음 (노선 이탈, 노선/탑승 정류장 정보 없음) */
+    UNLOCATED,
+    /** 이미 지난 정류장 (늦게 도착했거나 중복된 이벤트) */
+    STALE,
+    /** 정류장 순번 전진 */
+    ADVANCED,
+    /** 전진하면서 하차 1정거장 전 알림 전송 */
+    ALERTED,
+    /** 하차 정류장 도착, 추적 종료 */
+    ARRIVED,
+    /** 다른 인스턴스가 소유한 구간이라 소유 인스턴스로 넘김 */
+    FORWARDED
+}
@@ -0,0 +1,99 @@
+package com.jonggeon.now_drop.service.trip;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 진행 중인 구간 하나의 메모리 상태
+ *
+ * 정류장 순번은 앞으로만 움직이며(늦게 도착한 이전 이벤트는 무시), 모든 갱신은 CAS로 처리하므로
+ * 같은 구간에 이벤트가 동시에 들어와도 락이 필요 없습니다.
+ */
+final class SegmentProgress {
+
+    private final UUID segmentId;
+    private final UUID tripId;
+    private final long userId;
+    private final String routeId;
+    private final int boardingSequence;
+    private final int totalStops;
+
+    private final AtomicInteger currentStop;
+    private final AtomicBoolean alerted;
+
+    SegmentProgress(UUID segmentId, UUID tripId, long userId, String routeId, int boardingSequence,
+                    int currentStop, int totalStops) {
+        this.segmentId = segmentId;
+        this.tripId = tripId;
+        this.userId = userId;
+        this.routeId = routeId;
+        this.boardingSequence = boardingSequence;
+        this.totalStops = totalStops;
+        this.currentStop = new AtomicInteger(currentStop);
+        // 재시작 전에 이미 알림 지점을 지났다면 다시 보내지 않음
+        this.alerted = new AtomicBoolean(currentStop >= alertStop());
+    }
+
+    /**
+     * 정류장 순번을 stop까지 전진
+     *
+     * @return 전진 전 순번 (stop 이하였다면 변화 없음)
+     */
+    int advanceTo(int stop) {
+        return currentStop.getAndAccumulate(stop, Math::max);
+    }
+
+    /**
+     * 알림 지점(하차 1정거장 전)에 처음 도달한 호출에서만 true
+     */
+    boolean claimAlert(int stop) {
+        return stop >= alertStop() && !alerted.get() && alerted.compareAndSet(false, true);
+    }
+
+    /**
+     * 알림을 보내지 못했을 때 다음 이벤트에서 다시 시도하도록 되돌림
+     */
+    void releaseAlert() {
+        alerted.set(false);
+    }
+
+    boolean isArrived() {
+        return currentStop.get() >= totalStops;
+    }
+
+    int alertStop() {
+        return totalStops - 1;
+    }
+
+    UUID segmentId() {
+        return segmentId;
+    }
+
+    UUID tripId() {
+        return tripId;
+    }
+
+    long userId() {
+        return userId;
+    }
+
+    String routeId() {
+        return routeId;
+    }
+
+    /**
+     * 탑승 정류장의 노선 내 sequence (모르면 -1, 위치 기반 진행 불가)
+     */
+    int boardingSequence() {
+        return boardingSequence;
+    }
+
+    int totalStops() {
+        return totalStops;
+    }
+
+    int currentStop() {
+        return currentStop.get();
+    }
+}
@@ -0,0 +1,15 @@
+package com.jonggeon.now_drop.service.trip;
+
+import java.util.UUID;
+
+/**
+ * 구간 진행 상태 조회용 불변 스냅샷
+ */
+public record SegmentSnapshot(UUID segmentId, UUID tripId, long userId, String routeId,
+                              int currentStop, int totalStops) {
+
+    static SegmentSnapshot of(SegmentProgress segment) {
+        return new SegmentSnapshot(segment.segmentId(), segment.tripId(), segment.userId(),
+                segment.routeId(), segment.currentStop(), segment.totalStops());
+    }
+}
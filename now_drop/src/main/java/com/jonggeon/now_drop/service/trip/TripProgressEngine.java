@@ -0,0 +1,456 @@
+package com.jonggeon.now_drop.service.trip;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jonggeon.now_drop.service.FCMService;
+import com.jonggeon.now_drop.service.cluster.ClusterEvent;
+import com.jonggeon.now_drop.service.cluster.ClusterEventPublisher;
+import com.jonggeon.now_drop.service.cluster.ClusterMembership;
+import com.jonggeon.now_drop.service.idempotency.IdempotencyGuard;
+import com.jonggeon.now_drop.service.stop.StopSpatialIndex;
+import com.jonggeon.now_drop.service.template.NotificationTemplateRegistry;
+import com.jonggeon.now_drop.service.token.DeviceTokenRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 실시간 여정 진행 엔진
+ *
+ * 진행 중인 구간을 segment id로 메모리에 보관하고, 정류장 이벤트나 GPS 위치가 들어오면 CAS로 current_stop_id를 전진시킵니다.
+ * GPS 위치는 메모리 정류장 인덱스로 노선 위의 지난 정류장을 판단합니다.
+ * 하차 1정거장 전(total_stops - 1)에 처음 도달하면 사용자의 모든 디바이스로 데이터 메시지를 한 번만 보냅니다.
+ * GPS 위치로 도달한 경우에는 알림 전송(토큰 조회, Redis 키 선점)을 가상 스레드로 넘겨 위치 수집 스레드를 붙잡지 않습니다.
+ * 이벤트 처리 경로에서는 DB에 접근하지 않으며, 바뀐 구간만 모아 주기적으로 일괄 기록합니다(write-behind).
+ * 여러 인스턴스를 띄우면 구간은 해시 링에서 소유한 인스턴스 한 곳에서만 추적하고 알림을 판단하며,
+ * 다른 인스턴스로 들어온 이벤트는 소유 인스턴스로 넘깁니다. 링이 바뀌면 진행 상태를 기록한 뒤
+ * 넘겨줄 구간은 버리고 새로 맡은 구간은 DB에서 적재합니다.
+ * 넘겨받은 STOP/FIX 이벤트의 구간이 DB에도 진행 중으로 없으면 잠시 기억해 두고, 그동안 같은 구간의 이벤트로는
+ * DB를 다시 읽지 않습니다 (TRACK은 항상 DB를 읽음).
+ */
+@Slf4j
+@Component
+public class TripProgressEngine {
+
+    public static final String ALERT_TYPE = "ARRIVAL_ONE_STOP_BEFORE";
+
+    private static final String SELECT_ACTIVE_SQL = """
+            SELECT s.id, s.trip_id, t.user_id, s.route_id, s.boarding_stop_seq, s.current_stop_id, s.total_stops
+            FROM trip_segments s
+            JOIN trips t ON t.id = s.trip_id
+            WHERE t.status = 'active'
+              AND s.total_stops IS NOT NULL
+              AND COALESCE(s.current_stop_id, 0) < s.total_stops
+            """;
+
+    private static final String SELECT_ONE_SQL = SELECT_ACTIVE_SQL + " AND s.id = ?";
+
+    /**
+     * 순번이 뒤로 가지 않도록 더 큰 값일 때만 기록
+     */
+    private static final String UPDATE_PROGRESS_SQL = """
+            UPDATE trip_segments
+            SET current_stop_id = ?
+            WHERE id = ? AND COALESCE(current_stop_id, 0) < ?
+            """;
+
+    private static final RowMapper<SegmentProgress> SEGMENT_MAPPER = (rs, rowNum) -> new SegmentProgress(
+            rs.getObject("id", UUID.class),
+            rs.getObject("trip_id", UUID.class),
+            rs.getLong("user_id"),
+            rs.getString("route_id"),
+            rs.getObject("boarding_stop_seq") != null ? rs.getInt("boarding_stop_seq") : -1,
+            rs.getInt("current_stop_id"),
+            rs.getInt("total_stops"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FCMService fcmService;
+    private final DeviceTokenRegistry deviceTokenRegistry;
+    private final StopSpatialIndex stopSpatialIndex;
+    private final IdempotencyGuard idempotencyGuard;
+    private final ClusterMembership clusterMembership;
+    private final ClusterEventPublisher clusterEventPublisher;
+    private final int flushBatchSize;
+
+    private final ConcurrentHashMap<UUID, SegmentProgress> segments;
+    private final Set<SegmentProgress> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * DB에도 진행 중으로 없던 구간 (위치/정류장 이벤트마다 SELECT를 반복하지 않도록)
+     */
+    private final Cache<UUID, Boolean> unknownSegments;
+
+    /**
+     * GPS 위치 경로의 알림 전송용 (알림은 구간마다 한 번이라 작업마다 가상 스레드를 씀)
+     */
+    private final ExecutorService alertExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("trip-alert-", 0).factory());
+
+    public TripProgressEngine(JdbcTemplate jdbcTemplate,
+                              FCMService fcmService,
+                              DeviceTokenRegistry deviceTokenRegistry,
+                              StopSpatialIndex stopSpatialIndex,
+                              IdempotencyGuard idempotencyGuard,
+                              ClusterMembership clusterMembership,
+                              ClusterEventPublisher clusterEventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${trip.progress.expected-active-segments:100000}") int expectedActiveSegments,
+                              @Value("${trip.progress.flush-batch-size:1000}") int flushBatchSize,
+                              @Value("${trip.progress.unknown-segment-ttl-ms:30000}") long unknownSegmentTtlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fcmService = fcmService;
+        this.deviceTokenRegistry = deviceTokenRegistry;
+        this.stopSpatialIndex = stopSpatialIndex;
+        this.idempotencyGuard = idempotencyGuard;
+        this.clusterMembership = clusterMembership;
+        this.clusterEventPublisher = clusterEventPublisher;
+        this.flushBatchSize = Math.max(flushBatchSize, 1);
+        this.segments = new ConcurrentHashMap<>(expectedActiveSegments);
+        this.unknownSegments = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(expectedActiveSegments, 1))
+                .expireAfterWrite(Duration.ofMillis(Math.max(unknownSegmentTtlMillis, 1)))
+                .build();
+
+        Gauge.builder("trip.progress.active", segments, Map::size)
+                .description("추적 중인 여정 구간 수")
+                .register(meterRegistry);
+        Gauge.builder("trip.progress.dirty", dirty, Set::size)
+                .description("DB 기록을 기다리는 여정 구간 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 시작 시 이 인스턴스가 소유한 진행 중인 구간을 한 번에 적재
+     */
+    @PostConstruct
+    public void loadActiveSegments() {
+        try {
+            int loaded = loadOwnedSegments();
+            log.info("✅ Trip progress engine loaded {} active segments", loaded);
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to load active trip segments", e);
+        }
+        clusterMembership.addListener(this::rebalance);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 넘겨 둔 알림 전송이 끝날 때까지 기다림
+        alertExecutor.close();
+        flushProgress();
+    }
+
+    /**
+     * 구간 추적 시작 (이미 추적 중이면 그대로 반환)
+     * 다른 인스턴스가 소유한 구간이면 DB에서 읽은 상태를 반환하고 추적은 소유 인스턴스로 넘깁니다.
+     *
+     * @return 추적 중인 구간, 진행 중인 구간이 아니면 null
+     */
+    public SegmentSnapshot track(UUID segmentId) {
+        if (!clusterMembership.owns(segmentId)) {
+            List<SegmentProgress> loaded = jdbcTemplate.query(SELECT_ONE_SQL, SEGMENT_MAPPER, segmentId);
+            if (loaded.isEmpty()) {
+                return null;
+            }
+            if (clusterEventPublisher.publish(clusterMembership.ownerOf(segmentId), ClusterEvent.track(segmentId))) {
+                return SegmentSnapshot.of(loaded.get(0));
+            }
+        }
+        return trackLocal(segmentId);
+    }
+
+    /**
+     * 이 인스턴스에서 구간 추적 시작 (소유권 확인 없음, 다른 인스턴스가 넘긴 이벤트용)
+     */
+    public SegmentSnapshot trackLocal(UUID segmentId) {
+        SegmentProgress segment = segments.get(segmentId);
+        if (segment == null) {
+            List<SegmentProgress> loaded = jdbcTemplate.query(SELECT_ONE_SQL, SEGMENT_MAPPER, segmentId);
+            if (loaded.isEmpty()) {
+                unknownSegments.put(segmentId, Boolean.TRUE);
+                return null;
+            }
+            unknownSegments.invalidate(segmentId);
+            SegmentProgress existing = segments.putIfAbsent(segmentId, loaded.get(0));
+            segment = existing != null ? existing : loaded.get(0);
+        }
+        return SegmentSnapshot.of(segment);
+    }
+
+    /**
+     * 추적 중인 구간인지 확인
+     */
+    public boolean isTracking(UUID segmentId) {
+        return segments.containsKey(segmentId);
+    }
+
+    /**
+     * 구간 추적 중단 (여정 취소 등)
+     */
+    public void untrack(UUID segmentId) {
+        segments.remove(segmentId);
+    }
+
+    /**
+     * 정류장 도착 이벤트 처리 (다른 인스턴스가 소유한 구간이면 소유 인스턴스로 넘김)
+     *
+     * @param segmentId 구간 id
+     * @param stop 도착한 정류장 순번 (0 = 탑승 정류장, total_stops = 하차 정류장)
+     */
+    public ProgressResult onStopReached(UUID segmentId, int stop) {
+        if (!clusterMembership.owns(segmentId)) {
+            ClusterEvent event = ClusterEvent.stop(segmentId, stop);
+            if (clusterEventPublisher.publish(clusterMembership.ownerOf(segmentId), event)) {
+                return ProgressResult.FORWARDED;
+            }
+            // 소유 인스턴스가 받지 못했으면(죽었지만 아직 링에 있음) 도착 이벤트를 잃지 않도록 여기서 처리
+            return applyLocal(event);
+        }
+        return onStopReachedLocal(segmentId, stop);
+    }
+
+    /**
+     * 다른 인스턴스가 넘겼거나 넘기지 못한 STOP/FIX 이벤트를 이 인스턴스에서 처리 (소유권 확인 없음)
+     * 구간을 아직 적재하지 않았으면(소유권이 막 넘어옴) DB에서 적재한 뒤 다시 처리합니다.
+     * 최근에 DB에서도 찾지 못한 구간이면 다시 읽지 않고 UNKNOWN_SEGMENT를 반환합니다.
+     */
+    public ProgressResult applyLocal(ClusterEvent event) {
+        UUID segmentId = event.segmentId();
+        ProgressResult result = applyEvent(event);
+        if (result == ProgressResult.UNKNOWN_SEGMENT
+                && unknownSegments.getIfPresent(segmentId) == null
+                && trackLocal(segmentId) != null) {
+            result = applyEvent(event);
+        }
+        return result;
+    }
+
+    private ProgressResult applyEvent(ClusterEvent event) {
+        return event.type() == ClusterEvent.Type.STOP
+                ? onStopReachedLocal(event.segmentId(), event.stop())
+                : onPosition(event.segmentId(), event.lat(), event.lon());
+    }
+
+    /**
+     * 이 인스턴스에서 정류장 도착 이벤트 처리 (소유권 확인 없음)
+     */
+    public ProgressResult onStopReachedLocal(UUID segmentId, int stop) {
+        return advance(segmentId, stop, false);
+    }
+
+    /**
+     * 구간 전진과 알림 판단
+     *
+     * @param deferAlert 알림 전송을 가상 스레드로 넘길지 여부 (넘기면 ALERTED는 전송을 넘겼다는 뜻)
+     */
+    private ProgressResult advance(UUID segmentId, int stop, boolean deferAlert) {
+        SegmentProgress segment = segments.get(segmentId);
+        if (segment == null) {
+            return ProgressResult.UNKNOWN_SEGMENT;
+        }
+
+        int previous = segment.advanceTo(stop);
+        if (stop <= previous) {
+            return ProgressResult.STALE;
+        }
+        dirty.add(segment);
+
+        ProgressResult result = ProgressResult.ADVANCED;
+        if (segment.claimAlert(stop)) {
+            if (deferAlert) {
+                alertExecutor.execute(() -> sendAlert(segment, stop));
+                result = ProgressResult.ALERTED;
+            } else if (sendAlert(segment, stop)) {
+                result = ProgressResult.ALERTED;
+            }
+        }
+        if (segment.isArrived()) {
+            // 마지막 진행 상태는 dirty에 남아 있으므로 다음 flush에서 기록됨
+            segments.remove(segmentId, segment);
+            return ProgressResult.ARRIVED;
+        }
+        return result;
+    }
+
+    /**
+     * GPS 위치 이벤트 처리 (소유권은 위치 수집기가 확인함)
+     * 구간 노선에서 마지막으로 지난 정류장을 찾아 구간 순번으로 바꾼 뒤 정류장 이벤트와 같이 처리합니다.
+     * 메모리만 읽고 쓰며, 알림 전송은 가상 스레드로 넘깁니다.
+     */
+    public ProgressResult onPosition(UUID segmentId, double lat, double lon) {
+        SegmentProgress segment = segments.get(segmentId);
+        if (segment == null) {
+            return ProgressResult.UNKNOWN_SEGMENT;
+        }
+        int boarding = segment.boardingSequence();
+        if (boarding < 0 || segment.routeId() == null) {
+            return ProgressResult.UNLOCATED;
+        }
+
+        int passed = stopSpatialIndex.lastPassedSequence(segment.routeId(), boarding + segment.currentStop(), lat, lon);
+        if (passed < 0) {
+            return ProgressResult.UNLOCATED;
+        }
+        return advance(segmentId, Math.min(passed - boarding, segment.totalStops()), true);
+    }
+
+    /**
+     * 추적 중인 구간 수
+     */
+    public int getActiveSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 바뀐 구간의 진행 상태를 일괄 기록
+     */
+    @Scheduled(fixedDelayString = "${trip.progress.flush-interval-ms:1000}")
+    public void flushProgress() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        // 꺼낸 뒤에 들어온 전진은 다시 dirty에 추가되므로 유실되지 않음
+        List<SegmentProgress> batch = new ArrayList<>(dirty.size());
+        for (Iterator<SegmentProgress> it = dirty.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_PROGRESS_SQL, batch, flushBatchSize, (ps, segment) -> {
+                int stop = segment.currentStop();
+                ps.setInt(1, stop);
+                ps.setObject(2, segment.segmentId());
+                ps.setInt(3, stop);
+            });
+            log.debug("💾 Flushed progress of {} trip segments", batch.size());
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to flush progress of {} trip segments", batch.size(), e);
+            dirty.addAll(batch);
+        }
+    }
+
+    /**
+     * 소유 구간 다시 맞추기 (클러스터 링이 바뀌었을 때와 reconcile 주기마다)
+     * 진행 상태를 먼저 기록한 뒤 넘겨줄 구간을 버리므로 새 소유 인스턴스는 DB에서 최신 상태를 읽습니다.
+     * 주기 실행은 링이 바뀌는 순간 다른 인스턴스로 잘못 간 추적 요청을 바로잡습니다.
+     */
+    @Scheduled(fixedDelayString = "${cluster.reconcile-interval-ms:60000}",
+            initialDelayString = "${cluster.reconcile-interval-ms:60000}")
+    public void rebalance() {
+        try {
+            flushProgress();
+            int before = segments.size();
+            segments.values().removeIf(segment -> !clusterMembership.owns(segment.segmentId()));
+            int released = before - segments.size();
+            int loaded = loadOwnedSegments();
+            if (released > 0 || loaded > 0) {
+                log.info("🔄 Trip segments rebalanced: {} released, {} taken over ({} tracked)",
+                        released, loaded, segments.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to rebalance trip segments", e);
+        }
+    }
+
+    /**
+     * 진행 중인 구간 중 소유했지만 아직 추적하지 않는 구간을 적재
+     *
+     * @return 새로 적재한 구간 수
+     */
+    private int loadOwnedSegments() {
+        int loaded = 0;
+        for (SegmentProgress segment : jdbcTemplate.query(SELECT_ACTIVE_SQL, SEGMENT_MAPPER)) {
+            if (clusterMembership.owns(segment.segmentId()) && segments.putIfAbsent(segment.segmentId(), segment) == null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 도착 알림 전송
+     * 보낼 디바이스를 먼저 찾고 나서 Redis 키를 잡으므로, 토큰 조회에 실패하거나 디바이스가 없으면
+     * 키도 메모리 플래그도 잡지 않은 상태로 돌아가 다음 위치/정류장 이벤트에서 다시 시도합니다.
+     * 키를 잡은 뒤 모든 디바이스 전송이 실패하면 키와 메모리 플래그를 되돌려 같은 방식으로 다시 시도합니다.
+     *
+     * @return 전송을 시작했으면 true
+     */
+    private boolean sendAlert(SegmentProgress segment, int stop) {
+        Map<String, String> tokens;
+        try {
+            tokens = deviceTokenRegistry.findTokens(segment.userId());
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to look up device tokens for user {}, arrival alert for segment {} deferred",
+                    segment.userId(), segment.segmentId(), e);
+            segment.releaseAlert();
+            return false;
+        }
+        if (tokens.isEmpty()) {
+            log.warn("⚠️ No device tokens for user {}, arrival alert for segment {} deferred",
+                    segment.userId(), segment.segmentId());
+            segment.releaseAlert();
+            return false;
+        }
+
+        // 메모리 플래그는 인스턴스 안에서만 유효하므로, 다른 인스턴스나 재시작 전에 보낸 알림은 Redis 키로 막음
+        String alertKey = ALERT_TYPE + ":" + segment.segmentId();
+        if (!idempotencyGuard.claim(alertKey)) {
+            log.info("🔁 Arrival alert for segment {} already sent", segment.segmentId());
+            return false;
+        }
+
+        Map<String, String> data = Map.of(
+                "type", ALERT_TYPE,
+                "tripId", segment.tripId().toString(),
+                "segmentId", segment.segmentId().toString(),
+                "routeId", String.valueOf(segment.routeId()),
+                "currentStop", Integer.toString(stop),
+                "totalStops", Integer.toString(segment.totalStops()));
+
+        // critical 레인으로 보내 대량 전송이 밀려 있어도 먼저 나가게 함
+        List<CompletableFuture<String>> sends = new ArrayList<>(tokens.size());
+        tokens.forEach((token, platform) -> sends.add(fcmService
+                .sendDataMessageAsync(token, platform, data, NotificationTemplateRegistry.ALERT)
+                .whenComplete((messageId, e) -> {
+                    if (e != null) {
+                        log.error("❌ Arrival alert failed for segment {} to token: {}",
+                                segment.segmentId(), FCMService.maskToken(token), e);
+                    }
+                })));
+
+        // 한 디바이스에도 전달하지 못했으면 키와 메모리 플래그를 되돌려 다음 이벤트에서 다시 보냄
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).whenComplete((ignored, e) -> {
+            if (sends.stream().allMatch(CompletableFuture::isCompletedExceptionally)) {
+                log.warn("⚠️ Arrival alert for segment {} reached no device, will retry on the next event",
+                        segment.segmentId());
+                idempotencyGuard.release(alertKey);
+                segment.releaseAlert();
+            }
+        });
+
+        log.info("🔔 Arrival alert for segment {} (stop {}/{}) sent to {} devices",
+                segment.segmentId(), stop, segment.totalStops(), tokens.size());
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+-- Hibernate(ddl-auto=update)가 테이블을 만든 뒤 실행됨. 매 시작 시 실행되므로 모두 IF NOT EXISTS로 작성
+
+-- push_requests: trip_id가 없는 알림도 (user_id, notification_type)으로 중복 제거 (PostgreSQL 15+)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_push_requests_dedup
+    ON push_requests (user_id, trip_id, notification_type) NULLS NOT DISTINCT;
+
+-- push_audit: 추가만 하는 테이블이라 시간 범위 조회는 BRIN으로 충분
+CREATE INDEX IF NOT EXISTS idx_push_audit_created_at ON push_audit USING BRIN (created_at);
+
+-- route_stops: 근접 정류장 KNN 정렬(<->)용 GIST, 미터 단위 ST_DWithin(location::geography)용 표현식 GIST
+CREATE INDEX IF NOT EXISTS idx_route_stops_location ON route_stops USING GIST (location);
+CREATE INDEX IF NOT EXISTS idx_route_stops_location_geog ON route_stops USING GIST ((location::geography));
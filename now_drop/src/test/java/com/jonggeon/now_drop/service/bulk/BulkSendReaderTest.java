@@ -0,0 +1,123 @@
+package com.jonggeon.now_drop.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkSendReaderTest {
+
+	private final BulkSendReader reader = new BulkSendReader(new ObjectMapper());
+	private final List<BulkSendItem> items = new ArrayList<>();
+
+	@Test
+	void readsJsonArray() throws IOException {
+		int count = read("""
+				[{"id": 1, "token": "token-a", "title": "곧 하차", "body": "다음 정류장", "data": {"stop": 3, "last": true}},
+				 {"token": "token-b", "body": "안녕하세요"}]
+				""");
+
+		assertEquals(2, count);
+		assertEquals(new BulkSendItem("1", "token-a", "곧 하차", "다음 정류장", Map.of("stop", "3", "last", "true")), items.get(0));
+		assertEquals(new BulkSendItem(null, "token-b", null, "안녕하세요", Map.of()), items.get(1));
+	}
+
+	@Test
+	void readsNdjson() throws IOException {
+		int count = read("""
+				{"token": "token-a", "title": "a"}
+				{"token": "token-b", "title": "b"}
+				""");
+
+		assertEquals(2, count);
+		assertEquals("token-b", items.get(1).token());
+	}
+
+	@Test
+	void emptyInputHasNoItems() throws IOException {
+		assertEquals(0, read(""));
+		assertEquals(0, read("[]"));
+	}
+
+	@Test
+	void invalidItemsArePassedAsNullAndReadingContinues() throws IOException {
+		int count = read("""
+				[{"title": "토큰 없음"},
+				 {"token": " ", "title": "빈 토큰"},
+				 {"token": 123, "title": "문자열이 아닌 토큰"},
+				 {"token": "token-a"},
+				 {"token": "token-a", "title": "중첩 데이터", "data": {"nested": {"k": "v"}}},
+				 {"token": "token-a", "title": "객체가 아닌 데이터", "data": [1, 2]},
+				 {"token": "token-a", "extra": {"title": "무시"}, "tags": [1], "title": "정상"}]
+				""");
+
+		assertEquals(7, count);
+		for (int i = 0; i < 6; i++) {
+			assertNull(items.get(i), "item " + i);
+		}
+		assertNotNull(items.get(6));
+		assertEquals("정상", items.get(6).title());
+	}
+
+	@Test
+	void nullDataIsTreatedAsEmpty() throws IOException {
+		read("""
+				[{"token": "token-a", "title": "a", "data": null}]
+				""");
+
+		assertEquals(Map.of(), items.get(0).data());
+	}
+
+	@Test
+	void failsOnTruncatedObject() {
+		assertThrows(JsonProcessingException.class, () -> read("[{\"token\": \"token-a\", \"title\": \"a\""));
+		assertThrows(JsonProcessingException.class, () -> read("{\"token\": \"token-a\", \"title\":"));
+	}
+
+	@Test
+	void failsOnUnclosedArray() {
+		assertThrows(JsonProcessingException.class, () -> read("[{\"token\": \"token-a\", \"title\": \"a\"}"));
+	}
+
+	@Test
+	void failsOnTrailingValueAfterArray() {
+		assertThrows(JsonProcessingException.class,
+				() -> read("[{\"token\": \"token-a\", \"title\": \"a\"}] {\"token\": \"token-b\", \"title\": \"b\"}"));
+	}
+
+	@Test
+	void failsOnMalformedJson() {
+		assertThrows(JsonProcessingException.class, () -> read("[{\"token\": }]"));
+		assertThrows(JsonProcessingException.class, () -> read("[{\"token\": \"token-a\"},,]"));
+	}
+
+	@Test
+	void failsOnNonObjectItem() {
+		assertThrows(JsonProcessingException.class, () -> read("[\"token-a\"]"));
+		assertThrows(JsonProcessingException.class, () -> read("\"token-a\""));
+	}
+
+	@Test
+	void itemsBeforeTheErrorAreAlreadyPassedOn() {
+		assertThrows(JsonProcessingException.class,
+				() -> read("[{\"token\": \"token-a\", \"title\": \"a\"}, {\"token\": \"token-b\", \"title\": "));
+
+		assertEquals(1, items.size());
+		assertEquals("token-a", items.get(0).token());
+	}
+
+	private int read(String body) throws IOException {
+		return reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), (index, item) -> items.add(item));
+	}
+}
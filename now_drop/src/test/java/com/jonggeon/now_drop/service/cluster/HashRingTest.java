@@ -0,0 +1,82 @@
+package com.jonggeon.now_drop.service.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashRingTest {
+
+	private static final int VIRTUAL_NODES = 256;
+	private static final int KEYS = 30_000;
+
+	private final List<UUID> keys = randomKeys();
+
+	@Test
+	void singleMemberOwnsEverything() {
+		HashRing ring = new HashRing(List.of("a"), VIRTUAL_NODES);
+
+		for (UUID key : keys) {
+			assertEquals("a", ring.owner(key));
+		}
+	}
+
+	@Test
+	void sameMembersInAnyOrderBuildTheSameRing() {
+		HashRing ring = new HashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+		HashRing reordered = new HashRing(List.of("c", "a", "b"), VIRTUAL_NODES);
+
+		for (UUID key : keys) {
+			assertEquals(ring.owner(key), reordered.owner(key));
+		}
+	}
+
+	@Test
+	void spreadsKeysEvenlyAcrossMembers() {
+		HashRing ring = new HashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+		Map<String, Integer> counts = new HashMap<>();
+		for (UUID key : keys) {
+			counts.merge(ring.owner(key), 1, Integer::sum);
+		}
+
+		assertEquals(4, counts.size());
+		for (int count : counts.values()) {
+			// 기대값 7,500건에서 ±25% 이내
+			assertTrue(count > KEYS / 4 * 0.75 && count < KEYS / 4 * 1.25, "unbalanced: " + counts);
+		}
+	}
+
+	@Test
+	void joiningMemberOnlyTakesKeysFromOthers() {
+		HashRing before = new HashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+		HashRing after = new HashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+		int moved = 0;
+		for (UUID key : keys) {
+			String previous = before.owner(key);
+			String current = after.owner(key);
+			if (!previous.equals(current)) {
+				assertEquals("d", current);
+				moved++;
+			}
+		}
+		assertTrue(moved > KEYS / 4 * 0.75 && moved < KEYS / 4 * 1.25, "moved: " + moved);
+	}
+
+	private static List<UUID> randomKeys() {
+		Random random = new Random(42);
+		List<UUID> keys = new ArrayList<>(KEYS);
+		for (int i = 0; i < KEYS; i++) {
+			keys.add(new UUID(random.nextLong(), random.nextLong()));
+		}
+		return keys;
+	}
+}
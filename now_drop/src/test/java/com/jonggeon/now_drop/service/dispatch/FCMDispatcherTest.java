@@ -0,0 +1,136 @@
+package com.jonggeon.now_drop.service.dispatch;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.SendResponse;
+import com.jonggeon.now_drop.service.audit.PushAuditWriter;
+import com.jonggeon.now_drop.service.backend.MessagingBackend;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics;
+import com.jonggeon.now_drop.service.ratelimit.SendRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FCMDispatcherTest {
+
+	private static final int BATCH_SIZE = 10;
+
+	private final SendRateLimiter rateLimiter = mock(SendRateLimiter.class);
+	private final List<List<Message>> sentBatches = new CopyOnWriteArrayList<>();
+	private final Map<Message, Lane> lanes = new IdentityHashMap<>();
+	private final CountDownLatch blocked = new CountDownLatch(1);
+	private final CountDownLatch gate = new CountDownLatch(1);
+
+	private FCMDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		gate.countDown();
+		if (dispatcher != null) {
+			dispatcher.stop();
+		}
+	}
+
+	@Test
+	void batchesAreSplitByLaneWeight() throws Exception {
+		// 첫 배치가 전역 한도를 기다리는 동안 두 레인을 채움
+		when(rateLimiter.reserve(anyInt(), any())).thenAnswer(invocation -> {
+			blocked.countDown();
+			gate.await();
+			return 0L;
+		});
+		dispatcher = start();
+
+		CompletableFuture<String> first = submit(Lane.NORMAL);
+		assertTrue(blocked.await(5, TimeUnit.SECONDS));
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			futures.add(submit(Lane.NORMAL));
+			futures.add(submit(Lane.BULK));
+		}
+		gate.countDown();
+
+		first.get(5, TimeUnit.SECONDS);
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+		// normal 가중치 4, bulk 가중치 1 → 10개 배치는 normal 8 + bulk 2
+		List<Message> second = sentBatches.get(1);
+		assertEquals(BATCH_SIZE, second.size());
+		assertEquals(8, second.stream().filter(m -> lanes.get(m) == Lane.NORMAL).count());
+		assertEquals(2, second.stream().filter(m -> lanes.get(m) == Lane.BULK).count());
+	}
+
+	@Test
+	void stopSendsBatchHeldByInterruptedDrainer() throws Exception {
+		// critical 배치가 전역 한도를 기다리는 중에 종료
+		doAnswer(invocation -> {
+			blocked.countDown();
+			gate.await();
+			return null;
+		}).when(rateLimiter).acquire(anyInt(), any());
+		dispatcher = start();
+
+		CompletableFuture<String> held = submit(Lane.CRITICAL);
+		assertTrue(blocked.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> queued = submit(Lane.NORMAL);
+
+		dispatcher.stop();
+		dispatcher = null;
+
+		assertEquals("id", held.get(1, TimeUnit.SECONDS));
+		assertEquals("id", queued.get(1, TimeUnit.SECONDS));
+	}
+
+	private FCMDispatcher start() throws Exception {
+		MessagingBackend backend = mock(MessagingBackend.class);
+		when(backend.sendEach(anyList())).thenAnswer(invocation -> {
+			List<Message> messages = List.copyOf(invocation.getArgument(0));
+			sentBatches.add(messages);
+			return successes(messages.size());
+		});
+
+		FCMDispatcher created = new FCMDispatcher(backend, rateLimiter, new FCMMetrics(new SimpleMeterRegistry()),
+				new PushAuditWriter(null, new SimpleMeterRegistry(), false, 1, 1, 1000),
+				100, BATCH_SIZE, 0, 2, 100, 8, 1, 4, 100, 1);
+		created.start();
+		return created;
+	}
+
+	private CompletableFuture<String> submit(Lane lane) {
+		Message message = Message.builder().setToken("token-" + lanes.size()).build();
+		lanes.put(message, lane);
+		return dispatcher.submit(message, null, null, lane);
+	}
+
+	private static BatchResponse successes(int count) {
+		List<SendResponse> responses = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			SendResponse response = mock(SendResponse.class);
+			when(response.isSuccessful()).thenReturn(true);
+			when(response.getMessageId()).thenReturn("id");
+			responses.add(response);
+		}
+		BatchResponse batch = mock(BatchResponse.class);
+		when(batch.getResponses()).thenReturn(responses);
+		when(batch.getSuccessCount()).thenReturn(count);
+		return batch;
+	}
+}
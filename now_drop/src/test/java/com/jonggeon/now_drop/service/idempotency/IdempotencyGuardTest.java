@@ -0,0 +1,66 @@
+package com.jonggeon.now_drop.service.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyGuardTest {
+
+	private StringRedisTemplate redisTemplate;
+	private IdempotencyGuard guard;
+
+	@BeforeEach
+	void setUp() {
+		redisTemplate = mock(StringRedisTemplate.class);
+		guard = new IdempotencyGuard(redisTemplate, 60);
+	}
+
+	@Test
+	void keepsOnlyIdsClaimedForTheFirstTime() {
+		// SET NX 결과: 선점 성공, 이미 선점됨, 결과 없음(선점된 것으로 봄), 선점 성공
+		when(redisTemplate.executePipelined(any(RedisCallback.class)))
+				.thenReturn(Arrays.asList(true, false, null, true));
+
+		List<String> claimed = guard.claimEach("batch-1", List.of("a", "b", "c", "d"));
+
+		assertEquals(List.of("a", "c", "d"), claimed);
+	}
+
+	@Test
+	void returnsNothingWhenEveryIdWasAlreadyClaimed() {
+		when(redisTemplate.executePipelined(any(RedisCallback.class)))
+				.thenReturn(List.of(false, false));
+
+		assertEquals(List.of(), guard.claimEach("batch-1", List.of("a", "b")));
+	}
+
+	@Test
+	void failsOpenWhenRedisIsUnavailable() {
+		when(redisTemplate.executePipelined(any(RedisCallback.class)))
+				.thenThrow(new RedisConnectionFailureException("down"));
+		List<String> ids = List.of("a", "b");
+
+		assertSame(ids, guard.claimEach("batch-1", ids));
+	}
+
+	@Test
+	void emptyBatchSkipsRedis() {
+		List<String> ids = List.of();
+
+		assertSame(ids, guard.claimEach("batch-1", ids));
+		verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+	}
+}
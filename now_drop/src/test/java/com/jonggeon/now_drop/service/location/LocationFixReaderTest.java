@@ -0,0 +1,113 @@
+package com.jonggeon.now_drop.service.location;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocationFixReaderTest {
+
+	private static final String SEGMENT = "5b0e6f1e-8c1d-4b4e-9f57-2d1c9a3f7e21";
+
+	private final LocationFixReader reader = new LocationFixReader(new ObjectMapper());
+	private final List<LocationFix> fixes = new ArrayList<>();
+
+	@Test
+	void readsJsonArray() throws IOException {
+		LocationFixReader.ReadResult result = read("""
+				[{"segmentId": "%s", "lat": 37.5, "lon": 127.0, "ts": 1700000000000},
+				 {"segmentId": "%s", "lat": 37.6, "lon": 127.1, "ts": 1700000001000}]
+				""".formatted(SEGMENT, SEGMENT));
+
+		assertEquals(2, result.accepted());
+		assertEquals(0, result.rejected());
+		assertEquals(new LocationFix(UUID.fromString(SEGMENT), 37.5, 127.0, 1700000000000L), fixes.get(0));
+	}
+
+	@Test
+	void readsNdjson() throws IOException {
+		LocationFixReader.ReadResult result = read("""
+				{"segmentId": "%s", "lat": 37.5, "lon": 127.0}
+				{"segmentId": "%s", "lat": 37.6, "lon": 127.1}
+				""".formatted(SEGMENT, SEGMENT));
+
+		assertEquals(2, result.accepted());
+	}
+
+	@Test
+	void rejectsInvalidItemsAndKeepsReading() throws IOException {
+		LocationFixReader.ReadResult result = read("""
+				[{"segmentId": "%s", "lon": 127.0},
+				 {"segmentId": "not-a-uuid", "lat": 37.5, "lon": 127.0},
+				 {"segmentId": "%s", "lat": 91.0, "lon": 127.0},
+				 {"segmentId": "%s", "lat": "37.5", "lon": 127.0},
+				 {"segmentId": "%s", "lat": {"value": 37.5}, "lon": 127.0},
+				 {"segmentId": "%s", "lat": 37.5, "lon": 127.0}]
+				""".formatted(SEGMENT, SEGMENT, SEGMENT, SEGMENT, SEGMENT));
+
+		assertEquals(1, result.accepted());
+		assertEquals(5, result.rejected());
+	}
+
+	@Test
+	void skipsStructuredValuesOfUnknownFields() throws IOException {
+		LocationFixReader.ReadResult result = read("""
+				[{"extra": {"lat": 0, "lon": 0}, "segmentId": "%s", "tags": [1, 2], "lat": 37.5, "lon": 127.0}]
+				""".formatted(SEGMENT));
+
+		assertEquals(1, result.accepted());
+		assertEquals(37.5, fixes.get(0).lat());
+	}
+
+	@Test
+	void countsItemsTheConsumerRefusesAsRejected() throws IOException {
+		LocationFixReader.ReadResult result = reader.read(stream("""
+				[{"segmentId": "%s", "lat": 37.5, "lon": 127.0}]
+				""".formatted(SEGMENT)), fix -> false);
+
+		assertEquals(0, result.accepted());
+		assertEquals(1, result.rejected());
+	}
+
+	@Test
+	void failsOnTruncatedObject() {
+		assertThrows(JsonProcessingException.class,
+				() -> read("[{\"segmentId\": \"%s\", \"lat\": 37.5".formatted(SEGMENT)));
+		assertThrows(JsonProcessingException.class,
+				() -> read("{\"segmentId\": \"%s\", \"lat\":".formatted(SEGMENT)));
+	}
+
+	@Test
+	void failsOnUnclosedArray() {
+		assertThrows(JsonProcessingException.class,
+				() -> read("[{\"segmentId\": \"%s\", \"lat\": 37.5, \"lon\": 127.0}".formatted(SEGMENT)));
+	}
+
+	@Test
+	void failsOnTrailingValueAfterArray() {
+		assertThrows(JsonProcessingException.class,
+				() -> read("[{\"segmentId\": \"%s\", \"lat\": 37.5, \"lon\": 127.0}] {}".formatted(SEGMENT)));
+	}
+
+	@Test
+	void failsOnNonObjectItem() {
+		assertThrows(JsonProcessingException.class, () -> read("[1, 2]"));
+	}
+
+	private LocationFixReader.ReadResult read(String body) throws IOException {
+		return reader.read(stream(body), fixes::add);
+	}
+
+	private static ByteArrayInputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
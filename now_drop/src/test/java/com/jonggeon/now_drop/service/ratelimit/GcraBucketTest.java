@@ -0,0 +1,65 @@
+package com.jonggeon.now_drop.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GcraBucketTest {
+
+	private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+	// 테스트 실행 중 흐른 시간만큼 대기 시간이 줄어드는 것을 허용
+	private static final long SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+	// 초당 1개라 테스트 도중 버킷이 다시 차는 일은 사실상 없음
+	private final GcraBucket bucket = new GcraBucket(1, 5);
+
+	@Test
+	void burstPassesWithoutWaiting() {
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, bucket.reserve(1), "permit " + i);
+		}
+	}
+
+	@Test
+	void reservationsBeyondTheBurstWaitOneIntervalEach() {
+		bucket.reserve(5);
+
+		assertWait(INTERVAL_NANOS, bucket.reserve(1));
+		// 기다려야 해도 예약은 잡히므로 다음 호출은 한 간격 더 기다림
+		assertWait(2 * INTERVAL_NANOS, bucket.reserve(1));
+	}
+
+	@Test
+	void multiplePermitsAreReservedAtOnce() {
+		assertEquals(0, bucket.reserve(3));
+
+		assertWait(INTERVAL_NANOS, bucket.reserve(3));
+	}
+
+	@Test
+	void smallerToleranceLeavesBurstHeadroom() {
+		long halfBurst = bucket.burstNanos() / 2;
+
+		assertEquals(0, bucket.reserve(2, halfBurst));
+		assertWait(INTERVAL_NANOS / 2, bucket.reserve(1, halfBurst));
+		// 같은 시점에 전체 버스트를 쓰는 예약은 아직 바로 진행
+		assertEquals(0, bucket.reserve(1));
+	}
+
+	@Test
+	void burstIsAtLeastOneInterval() {
+		GcraBucket noBurst = new GcraBucket(1, 0);
+
+		assertEquals(noBurst.intervalNanos(), noBurst.burstNanos());
+		assertEquals(0, noBurst.reserve(1));
+		assertWait(INTERVAL_NANOS, noBurst.reserve(1));
+	}
+
+	private static void assertWait(long expectedNanos, long actualNanos) {
+		assertTrue(actualNanos <= expectedNanos && actualNanos > expectedNanos - SLACK_NANOS,
+				"expected ~" + expectedNanos + "ns but was " + actualNanos + "ns");
+	}
+}
@@ -0,0 +1,58 @@
+package com.jonggeon.now_drop.service.retry;
+
+import com.jonggeon.now_drop.service.dispatch.FCMDispatcher;
+import com.jonggeon.now_drop.service.metrics.FCMMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RetrySchedulerTest {
+
+	private static final long BASE_DELAY_MILLIS = 500;
+	private static final long MAX_DELAY_MILLIS = 60_000;
+
+	private final RetryScheduler scheduler = new RetryScheduler(mock(FCMDispatcher.class),
+			new FCMMetrics(new SimpleMeterRegistry()), 5, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS, 100);
+
+	@RepeatedTest(20)
+	void delayDoublesWithEachRetryAndKeepsAtLeastHalf() {
+		for (int retry = 1; retry <= 5; retry++) {
+			long ceiling = BASE_DELAY_MILLIS << (retry - 1);
+			long delay = scheduler.backoffMillis(retry, null);
+
+			assertTrue(delay >= ceiling / 2 && delay <= ceiling, "retry " + retry + ": " + delay);
+		}
+	}
+
+	@RepeatedTest(20)
+	void delayIsCappedAtMaxDelay() {
+		long delay = scheduler.backoffMillis(10, null);
+
+		assertTrue(delay >= MAX_DELAY_MILLIS / 2 && delay <= MAX_DELAY_MILLIS, String.valueOf(delay));
+	}
+
+	@Test
+	void shiftDoesNotOverflowForLargeRetryCounts() {
+		long delay = scheduler.backoffMillis(Integer.MAX_VALUE, null);
+
+		assertTrue(delay >= MAX_DELAY_MILLIS / 2 && delay <= MAX_DELAY_MILLIS, String.valueOf(delay));
+	}
+
+	@Test
+	void retryAfterLongerThanBackoffWins() {
+		assertEquals(30_000, scheduler.backoffMillis(1, Duration.ofSeconds(30)));
+	}
+
+	@RepeatedTest(20)
+	void shortRetryAfterDoesNotShortenBackoff() {
+		long delay = scheduler.backoffMillis(3, Duration.ofMillis(1));
+
+		assertTrue(delay >= 1_000 && delay <= 2_000, String.valueOf(delay));
+	}
+}
@@ -0,0 +1,57 @@
+package com.jonggeon.now_drop.service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+	private static final long TICK = 100;
+
+	private final TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+
+	@Test
+	void expiresTimersAtTheirTickAcrossLevels() {
+		wheel.schedule("soon", 250);
+		wheel.schedule("minutes", 5 * 60_000);
+		wheel.schedule("days", 3L * 24 * 3_600_000);
+
+		assertEquals(List.of(), advance(200));
+		assertEquals(List.of("soon"), advance(300));
+		assertEquals(List.of(), advance(5 * 60_000 - TICK));
+		assertEquals(List.of("minutes"), advance(5 * 60_000));
+		assertEquals(List.of("days"), advance(3L * 24 * 3_600_000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void rescheduleAndCancelReplaceExistingTimer() {
+		wheel.schedule("trip", 60_000);
+		wheel.schedule("trip", 30_000);
+		wheel.schedule("other", 40_000);
+
+		assertTrue(wheel.cancel("other"));
+		assertFalse(wheel.cancel("other"));
+		assertEquals(List.of("trip"), advance(30_000));
+		assertEquals(List.of(), advance(120_000));
+	}
+
+	@Test
+	void pastDueTimerFiresOnNextTick() {
+		advance(10_000);
+		wheel.schedule("late", 1_000);
+
+		assertEquals(List.of("late"), advance(10_000 + TICK));
+	}
+
+	private List<String> advance(long nowMillis) {
+		List<String> expired = new ArrayList<>();
+		wheel.advance(nowMillis, expired);
+		return expired;
+	}
+}
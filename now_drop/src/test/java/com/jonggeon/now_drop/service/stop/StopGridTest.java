@@ -0,0 +1,48 @@
+package com.jonggeon.now_drop.service.stop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StopGridTest {
+
+	// 북쪽으로 약 330m 간격의 정류장 4개
+	private final StopGrid grid = new StopGrid(List.of(
+			new StopPoint(1, "100", 1, "A", 37.5000, 127.0000),
+			new StopPoint(2, "100", 2, "B", 37.5030, 127.0000),
+			new StopPoint(3, "100", 3, "C", 37.5060, 127.0000),
+			new StopPoint(4, "100", 4, "D", 37.5090, 127.0000)));
+
+	@Test
+	void nearestFindsClosestStopAcrossCells() {
+		NearbyStop nearby = grid.nearest(37.5029, 127.0003, 200);
+
+		assertNotNull(nearby);
+		assertEquals(2, nearby.stop().id());
+	}
+
+	@Test
+	void nearestReturnsNullOutsideRadius() {
+		assertNull(grid.nearest(37.6000, 127.1000, 200));
+	}
+
+	@Test
+	void lastPassedSequenceUsesDirectionOfTravel() {
+		// B에 도착
+		assertEquals(2, grid.lastPassedSequence("100", 1, 37.5030, 127.0001, 40, 300));
+		// B를 지나 C 쪽으로 이동 중
+		assertEquals(2, grid.lastPassedSequence("100", 1, 37.5038, 127.0000, 40, 300));
+		// B에 다가가는 중
+		assertEquals(1, grid.lastPassedSequence("100", 1, 37.5022, 127.0000, 40, 300));
+	}
+
+	@Test
+	void lastPassedSequenceRejectsOffRouteFix() {
+		assertEquals(-1, grid.lastPassedSequence("100", 1, 37.5030, 127.0200, 40, 300));
+		assertEquals(-1, grid.lastPassedSequence("200", 1, 37.5030, 127.0000, 40, 300));
+	}
+}
@@ -0,0 +1,49 @@
+package com.jonggeon.now_drop.service.stream;
+
+import com.jonggeon.now_drop.service.dispatch.FCMSendException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationStreamConsumerTest {
+
+	@Test
+	void acknowledgesEntriesTheDispatcherAccepted() {
+		// 전송 중 (재시도 포함)이어도 디스패처가 받아들였으면 바로 확인 응답
+		assertEquals(NotificationStreamConsumer.Decision.ACK,
+				NotificationStreamConsumer.decide(new CompletableFuture<String>()));
+		assertEquals(NotificationStreamConsumer.Decision.ACK,
+				NotificationStreamConsumer.decide(CompletableFuture.completedFuture("message-id")));
+	}
+
+	@Test
+	void acknowledgesEntriesThatFailedForOtherReasons() {
+		assertEquals(NotificationStreamConsumer.Decision.ACK,
+				NotificationStreamConsumer.decide(CompletableFuture.failedFuture(new IllegalArgumentException("만료된 FCM 토큰입니다"))));
+	}
+
+	@Test
+	void defersEntriesRejectedByAFullDispatchQueue() {
+		assertEquals(NotificationStreamConsumer.Decision.DEFER,
+				NotificationStreamConsumer.decide(CompletableFuture.failedFuture(new RejectedExecutionException("full"))));
+
+		// 재시도 경로에서 FCMSendException으로 감싸진 경우
+		FCMSendException wrapped = new FCMSendException("FCM 전송 실패", null, null, false,
+				new RejectedExecutionException("full"));
+		assertEquals(NotificationStreamConsumer.Decision.DEFER,
+				NotificationStreamConsumer.decide(CompletableFuture.failedFuture(wrapped)));
+	}
+
+	@Test
+	void deferralsDoNotCountTowardsDeadLettering() {
+		assertFalse(NotificationStreamConsumer.isExhausted(4, 0, 5));
+		assertTrue(NotificationStreamConsumer.isExhausted(5, 0, 5));
+		assertFalse(NotificationStreamConsumer.isExhausted(12, 8, 5));
+		assertTrue(NotificationStreamConsumer.isExhausted(13, 8, 5));
+	}
+}
@@ -0,0 +1,220 @@
+package com.jonggeon.now_drop.service.trip;
+
+import com.jonggeon.now_drop.service.FCMService;
+import com.jonggeon.now_drop.service.cluster.ClusterEvent;
+import com.jonggeon.now_drop.service.cluster.ClusterEventPublisher;
+import com.jonggeon.now_drop.service.cluster.ClusterMembership;
+import com.jonggeon.now_drop.service.idempotency.IdempotencyGuard;
+import com.jonggeon.now_drop.service.stop.StopSpatialIndex;
+import com.jonggeon.now_drop.service.token.DeviceTokenRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripProgressEngineTest {
+
+	private static final int TOTAL_STOPS = 5;
+	private static final long USER_ID = 7L;
+
+	private final UUID segmentId = UUID.randomUUID();
+	private final String alertKey = TripProgressEngine.ALERT_TYPE + ":" + segmentId;
+
+	private JdbcTemplate jdbcTemplate;
+	private FCMService fcmService;
+	private DeviceTokenRegistry deviceTokenRegistry;
+	private IdempotencyGuard idempotencyGuard;
+	private StopSpatialIndex stopSpatialIndex;
+	private TripProgressEngine engine;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		fcmService = mock(FCMService.class);
+		deviceTokenRegistry = mock(DeviceTokenRegistry.class);
+		idempotencyGuard = mock(IdempotencyGuard.class);
+		stopSpatialIndex = mock(StopSpatialIndex.class);
+		ClusterMembership clusterMembership = mock(ClusterMembership.class);
+
+		when(clusterMembership.owns(any())).thenReturn(true);
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(segmentId)))
+				.thenAnswer(invocation -> List.of(segment(0)));
+		when(idempotencyGuard.claim(alertKey)).thenReturn(true);
+		when(deviceTokenRegistry.findTokens(USER_ID)).thenReturn(Map.of("token-a", "android", "token-b", "ios"));
+
+		engine = new TripProgressEngine(jdbcTemplate, fcmService, deviceTokenRegistry, stopSpatialIndex,
+				idempotencyGuard, clusterMembership, mock(ClusterEventPublisher.class), new SimpleMeterRegistry(), 16, 100, 30_000);
+		engine.trackLocal(segmentId);
+	}
+
+	@Test
+	void stopsOnlyMoveForward() {
+		SegmentProgress segment = segment(2);
+
+		assertEquals(2, segment.advanceTo(3));
+		assertEquals(3, segment.advanceTo(1));
+		assertEquals(3, segment.currentStop());
+	}
+
+	@Test
+	void alertIsClaimedOnceAtTheStopBeforeAlighting() {
+		SegmentProgress segment = segment(0);
+
+		assertFalse(segment.claimAlert(TOTAL_STOPS - 2));
+		assertTrue(segment.claimAlert(TOTAL_STOPS - 1));
+		assertFalse(segment.claimAlert(TOTAL_STOPS - 1));
+		assertFalse(segment.claimAlert(TOTAL_STOPS));
+
+		// 보내지 못했으면 다음 이벤트에서 다시 잡을 수 있음
+		segment.releaseAlert();
+		assertTrue(segment.claimAlert(TOTAL_STOPS));
+	}
+
+	@Test
+	void segmentReloadedPastTheAlertStopIsNotAlertedAgain() {
+		assertFalse(segment(TOTAL_STOPS - 1).claimAlert(TOTAL_STOPS - 1));
+	}
+
+	@Test
+	void concurrentEventsSendTheAlertOnce() throws Exception {
+		when(fcmService.sendDataMessageAsync(anyString(), anyString(), anyMap(), anyString()))
+				.thenReturn(CompletableFuture.completedFuture("message-id"));
+
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] results = new Future<?>[threads];
+			for (int i = 0; i < threads; i++) {
+				results[i] = executor.submit(() -> {
+					start.await();
+					return engine.onStopReachedLocal(segmentId, TOTAL_STOPS - 1);
+				});
+			}
+			start.countDown();
+			int alerted = 0;
+			for (Future<?> result : results) {
+				if (result.get() == ProgressResult.ALERTED) {
+					alerted++;
+				}
+			}
+			assertEquals(1, alerted);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		verify(idempotencyGuard, times(1)).claim(alertKey);
+		verify(fcmService, times(1)).sendDataMessageAsync(eq("token-a"), anyString(), anyMap(), anyString());
+		verify(fcmService, times(1)).sendDataMessageAsync(eq("token-b"), anyString(), anyMap(), anyString());
+		verify(idempotencyGuard, never()).release(anyString());
+	}
+
+	@Test
+	void alertThatReachedNoDeviceIsReleasedAndRetried() {
+		when(fcmService.sendDataMessageAsync(anyString(), anyString(), anyMap(), anyString()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("FCM 전송 실패")))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("FCM 전송 실패")))
+				.thenReturn(CompletableFuture.completedFuture("message-id"));
+
+		assertEquals(ProgressResult.ALERTED, engine.onStopReachedLocal(segmentId, TOTAL_STOPS - 1));
+		verify(idempotencyGuard).release(alertKey);
+
+		// 키와 메모리 플래그가 되돌려졌으므로 다음 정류장 이벤트에서 다시 보냄
+		assertEquals(ProgressResult.ARRIVED, engine.onStopReachedLocal(segmentId, TOTAL_STOPS));
+		verify(idempotencyGuard, times(2)).claim(alertKey);
+		verify(fcmService, times(4)).sendDataMessageAsync(anyString(), anyString(), anyMap(), anyString());
+	}
+
+	@Test
+	void alertThatReachedAnyDeviceKeepsItsKey() {
+		when(fcmService.sendDataMessageAsync(anyString(), anyString(), anyMap(), anyString()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("FCM 전송 실패")))
+				.thenReturn(CompletableFuture.completedFuture("message-id"));
+
+		assertEquals(ProgressResult.ALERTED, engine.onStopReachedLocal(segmentId, TOTAL_STOPS - 1));
+
+		verify(idempotencyGuard, never()).release(anyString());
+		assertEquals(ProgressResult.ARRIVED, engine.onStopReachedLocal(segmentId, TOTAL_STOPS));
+		verify(idempotencyGuard, times(1)).claim(alertKey);
+	}
+
+	@Test
+	void missingDevicesDeferTheAlertWithoutClaimingTheKey() {
+		when(deviceTokenRegistry.findTokens(USER_ID)).thenReturn(Map.of());
+
+		assertEquals(ProgressResult.ADVANCED, engine.onStopReachedLocal(segmentId, TOTAL_STOPS - 1));
+
+		verify(idempotencyGuard, never()).claim(anyString());
+		when(deviceTokenRegistry.findTokens(USER_ID)).thenReturn(Map.of("token-a", "android"));
+		when(fcmService.sendDataMessageAsync(anyString(), anyString(), anyMap(), anyString()))
+				.thenReturn(CompletableFuture.completedFuture("message-id"));
+		assertEquals(ProgressResult.ARRIVED, engine.onStopReachedLocal(segmentId, TOTAL_STOPS));
+		verify(idempotencyGuard, times(1)).claim(alertKey);
+	}
+
+	@Test
+	void positionPathSendsTheAlertOffTheCallingThread() throws Exception {
+		when(stopSpatialIndex.lastPassedSequence(anyString(), anyInt(), anyDouble(), anyDouble()))
+				.thenReturn(TOTAL_STOPS - 1);
+		AtomicReference<Thread> sender = new AtomicReference<>();
+		CountDownLatch sent = new CountDownLatch(1);
+		when(fcmService.sendDataMessageAsync(anyString(), anyString(), anyMap(), anyString())).thenAnswer(invocation -> {
+			sender.set(Thread.currentThread());
+			sent.countDown();
+			return CompletableFuture.completedFuture("message-id");
+		});
+
+		assertEquals(ProgressResult.ALERTED, engine.onPosition(segmentId, 37.5, 127.0));
+
+		assertTrue(sent.await(5, TimeUnit.SECONDS));
+		assertNotSame(Thread.currentThread(), sender.get());
+		engine.shutdown();
+		verify(idempotencyGuard, times(1)).claim(alertKey);
+	}
+
+	@Test
+	void unknownForwardedSegmentIsLookedUpOnce() {
+		UUID unknown = UUID.randomUUID();
+
+		assertEquals(ProgressResult.UNKNOWN_SEGMENT, engine.applyLocal(ClusterEvent.stop(unknown, 1)));
+		assertEquals(ProgressResult.UNKNOWN_SEGMENT, engine.applyLocal(ClusterEvent.stop(unknown, 2)));
+		verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(unknown));
+
+		// 추적 요청은 기억해 둔 결과와 관계없이 DB를 다시 읽음
+		engine.trackLocal(unknown);
+		verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class), eq(unknown));
+	}
+
+	private SegmentProgress segment(int currentStop) {
+		return new SegmentProgress(segmentId, UUID.randomUUID(), USER_ID, "route-1", 0, currentStop, TOTAL_STOPS);
+	}
+}